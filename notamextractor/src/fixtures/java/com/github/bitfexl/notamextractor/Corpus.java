@@ -0,0 +1,141 @@
+package com.github.bitfexl.notamextractor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.NotamParser;
+import lombok.SneakyThrows;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Benchmark and test input data loaded from src/jmh/resources/corpus.
+ */
+public class Corpus {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Load the raw notams corpus (notams are separated by an empty line).
+     * @return The raw notams as returned by the notam client.
+     */
+    @SneakyThrows
+    public static List<String> loadRawNotams() {
+        try (InputStream inputStream = Corpus.class.getResourceAsStream("/corpus/notams.txt")) {
+            final String corpus = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            return Arrays.stream(corpus.split("\n\\s*\n")).map(String::trim).filter(n -> !n.isEmpty()).toList();
+        }
+    }
+
+    /**
+     * Repeat the corpus until it contains the requested number of notams.
+     * @param count The number of notams.
+     * @return count raw notams.
+     */
+    public static List<String> loadRawNotams(int count) {
+        final List<String> corpus = loadRawNotams();
+        final List<String> notams = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            notams.add(corpus.get(i % corpus.size()));
+        }
+        return notams;
+    }
+
+    /**
+     * Repeat the corpus until it contains the requested number of notams, every notam is renumbered
+     * (notam number and year), so all notams have a distinct id.
+     * @param count The number of notams.
+     * @return count raw notams with distinct ids.
+     */
+    public static List<String> loadDistinctRawNotams(int count) {
+        final List<String> notams = loadRawNotams(count);
+        final List<String> distinctNotams = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final String notamNumber = String.format("%04d/%02d", i % 10000, 10 + (i / 10000) % 90);
+            distinctNotams.add(notams.get(i).replaceFirst("^([A-Z])\\d{4}/\\d{2}", "$1" + notamNumber));
+        }
+        return distinctNotams;
+    }
+
+    /**
+     * Load and parse the raw notams corpus.
+     * @return The parsed notams.
+     */
+    public static List<Notam> loadParsedNotams() {
+        final NotamParser parser = new NotamParser();
+        return loadRawNotams().stream().map(parser::parse).toList();
+    }
+
+    /**
+     * Load the coordinates fuzz corpus (edge cases of coordinate runs in notam texts).
+     * @return The texts of the corpus.
+     */
+    @SneakyThrows
+    public static List<String> loadCoordinateTexts() {
+        try (InputStream inputStream = Corpus.class.getResourceAsStream("/corpus/coordinates.txt")) {
+            final String corpus = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            return Arrays.stream(corpus.split("\n")).filter(t -> !t.isEmpty() && !t.startsWith("#")).toList();
+        }
+    }
+
+    /**
+     * Load the DODAIS query response of the corpus (contains the corpus notams).
+     * @return The json response.
+     */
+    @SneakyThrows
+    public static byte[] loadDODAISResponse() {
+        try (InputStream inputStream = Corpus.class.getResourceAsStream("/corpus/dodaisResponse.json")) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    /**
+     * Build a DODAIS query response containing the given notams.
+     * Notams are grouped by location (first location indicator of item A) with some metadata around
+     * them, like in the responses returned by the server.
+     * @param notams The raw notams.
+     * @return The json response.
+     */
+    @SneakyThrows
+    public static byte[] buildDODAISResponse(List<String> notams) {
+        final ObjectNode response = objectMapper.createObjectNode();
+        response.put("status", "OK");
+        final ArrayNode locations = response.putArray("locations");
+
+        ObjectNode location = null;
+        String currentLocation = null;
+
+        for (int i = 0; i < notams.size(); i++) {
+            final String raw = notams.get(i);
+            final String locationIndicator = findLocation(raw);
+
+            if (location == null || !locationIndicator.equals(currentLocation)) {
+                currentLocation = locationIndicator;
+                location = locations.addObject();
+                location.put("icaoId", locationIndicator);
+                location.putObject("airport").put("name", locationIndicator + " AIRPORT").put("lat", 0).put("lng", 0);
+                location.putArray("notams");
+            }
+
+            final ObjectNode notam = ((ArrayNode) location.get("notams")).addObject();
+            notam.put("notamId", i);
+            notam.put("icaoId", locationIndicator);
+            notam.put("criticality", i % 3);
+            notam.put("rawtext", raw + "\n");
+        }
+
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    private static String findLocation(String raw) {
+        final int itemA = raw.indexOf("A) ");
+        if (itemA == -1 || itemA + 7 > raw.length()) {
+            return "XXXX";
+        }
+        return raw.substring(itemA + 3, itemA + 7);
+    }
+}
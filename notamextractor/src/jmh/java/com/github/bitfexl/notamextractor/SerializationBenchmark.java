@@ -0,0 +1,55 @@
+package com.github.bitfexl.notamextractor;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.DetailedNotamParser;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.NotamData;
+import com.github.bitfexl.notamextractor.output.NotamDataSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the corpus notam data, databind (pretty, compact) vs the hand-written NotamDataSerializer.
+ * Scores are whole corpus serializations per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    private final ObjectMapper objectMapper = new ObjectMapper().setSerializationInclusion(Include.NON_NULL);
+
+    private final ObjectWriter prettyWriter = objectMapper.writerWithDefaultPrettyPrinter();
+
+    private final ObjectWriter compactWriter = objectMapper.writer();
+
+    private final NotamDataSerializer serializer = new NotamDataSerializer(objectMapper.getFactory());
+
+    private NotamData notamData;
+
+    @Setup
+    public void setup() {
+        notamData = new DetailedNotamParser().parseNotams(Corpus.loadParsedNotams());
+    }
+
+    @Benchmark
+    public void pretty() throws IOException {
+        prettyWriter.writeValue(OutputStream.nullOutputStream(), notamData);
+    }
+
+    @Benchmark
+    public void compact() throws IOException {
+        compactWriter.writeValue(OutputStream.nullOutputStream(), notamData);
+    }
+
+    @Benchmark
+    public void serializer() throws IOException {
+        serializer.write(notamData, OutputStream.nullOutputStream());
+    }
+}
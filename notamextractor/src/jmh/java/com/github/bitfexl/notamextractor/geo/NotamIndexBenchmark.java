@@ -0,0 +1,182 @@
+package com.github.bitfexl.notamextractor.geo;
+
+import com.github.bitfexl.notamextractor.Corpus;
+import com.github.bitfexl.notamextractor.notamparser.NotamParser;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.DetailedNotamParser;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NotamIndex vs a linear scan over all notam geometries for point, bounding box and corridor queries.
+ * The corpus notams are copied to random positions around the world until the requested number of notams is reached.
+ * Scores are microseconds per query. Before measuring, the index is checked against the scan for all queries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotamIndexBenchmark {
+    private static final int QUERY_COUNT = 1000;
+
+    private static final double CORRIDOR_WIDTH = 5;
+
+    @Param({"10000", "100000"})
+    private int size;
+
+    private List<NotamGeometry> geometries;
+
+    private NotamIndex index;
+
+    private double[][] points;
+
+    private BoundingBox[] boxes;
+
+    private List<List<Coordinates>> routes;
+
+    private int query;
+
+    @Setup
+    public void setup() {
+        final NotamParser parser = new NotamParser();
+        final NotamData corpus = new DetailedNotamParser().parseNotams(Corpus.loadDistinctRawNotams(3000).stream().map(parser::parse).toList());
+        final List<NotamGeometry> corpusGeometries = new ArrayList<>();
+        final Map<String, CoordinatesList> coordinatesLists = new HashMap<>();
+        corpus.coordinatesLists().forEach(c -> coordinatesLists.put(c.hash(), c));
+        for (DetailedNotam notam : corpus.notams()) {
+            final NotamGeometry geometry = NotamGeometry.of(notam, coordinatesLists);
+            if (geometry != null) {
+                corpusGeometries.add(geometry);
+            }
+        }
+
+        final Random random = new Random(42);
+        geometries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final NotamGeometry geometry = corpusGeometries.get(i % corpusGeometries.size());
+            // move to a random position, but keep it in a range where even the largest areas do not cross the antimeridian
+            final BoundingBox bounds = geometry.bounds();
+            final double dLatitude = random.nextDouble(-45, 45) - (bounds.minLatitude() + bounds.maxLatitude()) / 2;
+            final double dLongitude = random.nextDouble(-130, 130) - (bounds.minLongitude() + bounds.maxLongitude()) / 2;
+            geometries.add(translate(geometry, dLatitude, dLongitude));
+        }
+        index = new NotamIndex(geometries);
+
+        points = new double[QUERY_COUNT][];
+        boxes = new BoundingBox[QUERY_COUNT];
+        routes = new ArrayList<>(QUERY_COUNT);
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            final double latitude = random.nextDouble(-45, 45);
+            final double longitude = random.nextDouble(-130, 130);
+            points[i] = new double[]{latitude, longitude};
+            // about the visible area of a map zoomed to an airport
+            boxes[i] = new BoundingBox(latitude, longitude, latitude + 0.5, longitude + 0.5);
+            routes.add(List.of(
+                    new Coordinates(latitude, longitude),
+                    new Coordinates(latitude + 1, longitude + 1),
+                    new Coordinates(latitude + 1.5, longitude + 3)
+            ));
+        }
+
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            if (!ids(index.queryPoint(points[i][0], points[i][1])).equals(ids(scanPoint(points[i][0], points[i][1])))
+                    || !ids(index.queryBox(boxes[i])).equals(ids(scanBox(boxes[i])))
+                    || !ids(index.queryCorridor(routes.get(i), CORRIDOR_WIDTH)).equals(ids(scanCorridor(routes.get(i))))) {
+                throw new IllegalStateException("NotamIndex differs from the linear scan for query " + i + ".");
+            }
+        }
+    }
+
+    @Benchmark
+    public List<DetailedNotam> pointIndex() {
+        final double[] point = points[nextQuery()];
+        return index.queryPoint(point[0], point[1]);
+    }
+
+    @Benchmark
+    public List<DetailedNotam> pointScan() {
+        final double[] point = points[nextQuery()];
+        return scanPoint(point[0], point[1]);
+    }
+
+    @Benchmark
+    public List<DetailedNotam> boxIndex() {
+        return index.queryBox(boxes[nextQuery()]);
+    }
+
+    @Benchmark
+    public List<DetailedNotam> boxScan() {
+        return scanBox(boxes[nextQuery()]);
+    }
+
+    @Benchmark
+    public List<DetailedNotam> corridorIndex() {
+        return index.queryCorridor(routes.get(nextQuery()), CORRIDOR_WIDTH);
+    }
+
+    @Benchmark
+    public List<DetailedNotam> corridorScan() {
+        return scanCorridor(routes.get(nextQuery()));
+    }
+
+    private int nextQuery() {
+        query = (query + 1) % QUERY_COUNT;
+        return query;
+    }
+
+    private List<DetailedNotam> scanPoint(double latitude, double longitude) {
+        final List<DetailedNotam> notams = new ArrayList<>();
+        for (NotamGeometry geometry : geometries) {
+            if (geometry.bounds().contains(latitude, longitude) && geometry.contains(latitude, longitude)) {
+                notams.add(geometry.notam());
+            }
+        }
+        return notams;
+    }
+
+    private List<DetailedNotam> scanBox(BoundingBox box) {
+        final List<DetailedNotam> notams = new ArrayList<>();
+        for (NotamGeometry geometry : geometries) {
+            if (geometry.bounds().intersects(box)) {
+                notams.add(geometry.notam());
+            }
+        }
+        return notams;
+    }
+
+    private List<DetailedNotam> scanCorridor(List<Coordinates> route) {
+        final List<DetailedNotam> notams = new ArrayList<>();
+        for (NotamGeometry geometry : geometries) {
+            for (int i = 0; i < route.size() - 1; i++) {
+                if (geometry.intersectsSegment(route.get(i), route.get(i + 1), CORRIDOR_WIDTH)) {
+                    notams.add(geometry.notam());
+                    break;
+                }
+            }
+        }
+        return notams;
+    }
+
+    /**
+     * Copies share the notam, so results are compared as sorted identity hashes (including duplicates).
+     */
+    private static List<Integer> ids(List<DetailedNotam> notams) {
+        return notams.stream().map(System::identityHashCode).sorted().toList();
+    }
+
+    private static NotamGeometry translate(NotamGeometry geometry, double dLatitude, double dLongitude) {
+        final List<PackedCoordinates> coordinatesLists = geometry.coordinatesLists().stream()
+                .map(list -> PackedCoordinates.of(list.stream().map(c -> new Coordinates(c.latitude() + dLatitude, c.longitude() + dLongitude)).toList()))
+                .toList();
+        // the longitude extent of a circle depends on the latitude
+        BoundingBox bounds = Double.isNaN(geometry.radius()) ? null : BoundingBox.ofCircle(geometry.latitude() + dLatitude, geometry.longitude() + dLongitude, geometry.radius());
+        for (PackedCoordinates list : coordinatesLists) {
+            bounds = BoundingBox.union(bounds, BoundingBox.of(list));
+        }
+        return new NotamGeometry(geometry.notam(), geometry.latitude() + dLatitude, geometry.longitude() + dLongitude, geometry.radius(), coordinatesLists, bounds);
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.bitfexl.notamextractor.metrics;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The overhead of recording a latency: LatencyHistogram.record vs a LongAdder (count only) and System.nanoTime.
+ * Scores are nanoseconds per operation. Before measuring, the quantiles of log-normal latencies are checked
+ * against the exact quantiles (relative error below 1 / 32).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LatencyHistogramBenchmark {
+    private static final int VALUE_COUNT = 1 << 16;
+
+    private final long[] values = new long[VALUE_COUNT];
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    private final LongAdder adder = new LongAdder();
+
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        final LatencyHistogram checked = new LatencyHistogram();
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            // median ~20 us, long tail
+            values[i] = (long) Math.exp(10 + 1.5 * random.nextGaussian());
+            checked.record(values[i]);
+        }
+
+        final long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        final LatencyHistogram.Snapshot snapshot = checked.snapshot();
+        check(snapshot.p50(), sorted, 0.5);
+        check(snapshot.p90(), sorted, 0.9);
+        check(snapshot.p99(), sorted, 0.99);
+        check(snapshot.p999(), sorted, 0.999);
+        if (snapshot.count() != VALUE_COUNT || snapshot.max() != sorted[VALUE_COUNT - 1] || snapshot.sum() != Arrays.stream(values).sum()) {
+            throw new IllegalStateException("Wrong count, max or sum: " + snapshot);
+        }
+    }
+
+    private static void check(long quantile, long[] sorted, double q) {
+        final long exact = sorted[(int) Math.ceil(q * sorted.length) - 1];
+        if (quantile < exact || quantile - exact > exact / 32) {
+            throw new IllegalStateException("Quantile " + q + " is " + quantile + ", but exactly " + exact + ".");
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        histogram.record(values[next++ & (VALUE_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public void count() {
+        adder.add(values[next++ & (VALUE_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.bitfexl.notamextractor.notamclient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.bitfexl.notamextractor.Corpus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Compares the streaming response reader with reading the whole response as a string and json tree.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DODAISResponseBenchmark {
+    /**
+     * recorded: the corpus response, large: a response with 5000 notams.
+     */
+    @Param({"recorded", "large"})
+    private String responseType;
+
+    private byte[] response;
+
+    private final DODAISResponseReader responseReader = new DODAISResponseReader();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Setup
+    public void setup() {
+        response = responseType.equals("recorded") ? Corpus.loadDODAISResponse() : Corpus.buildDODAISResponse(Corpus.loadRawNotams(5000));
+    }
+
+    @Benchmark
+    public void streaming(Blackhole blackhole) throws IOException {
+        responseReader.readNotams(new ByteArrayInputStream(response), blackhole::consume);
+    }
+
+    /**
+     * The previous implementation: String body, readTree and a recursive search.
+     */
+    @Benchmark
+    public List<String> tree() throws IOException {
+        final String body = new String(response, StandardCharsets.UTF_8);
+        final JsonNode node = objectMapper.readTree(body);
+        final List<String> notams = new ArrayList<>();
+        iterateObjects(node, jsonObject -> {
+            if (jsonObject.has("rawtext")) {
+                notams.add(jsonObject.get("rawtext").asText().trim());
+            }
+        });
+        return notams;
+    }
+
+    private void iterateObjects(JsonNode jsonNode, Consumer<ObjectNode> consumer) {
+        if (jsonNode instanceof ObjectNode objectNode) {
+            consumer.accept(objectNode);
+        }
+
+        if (jsonNode.isObject() || jsonNode.isArray()) {
+            for (JsonNode child : jsonNode) {
+                iterateObjects(child, consumer);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.bitfexl.notamextractor.notamparser;
+
+import com.github.bitfexl.notamextractor.Corpus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses notams from the corpus, compares the NotamParser with the original split based parser.
+ * Scores are notams per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotamParserBenchmark {
+    private static final int NOTAM_COUNT = 1000;
+
+    private List<String> notams;
+
+    private final NotamParser notamParser = new NotamParser();
+
+    private final SplittingNotamParser splittingNotamParser = new SplittingNotamParser();
+
+    @Setup
+    public void setup() {
+        notams = Corpus.loadRawNotams(NOTAM_COUNT);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NOTAM_COUNT)
+    public void parse(Blackhole blackhole) {
+        for (String notam : notams) {
+            blackhole.consume(notamParser.parse(notam));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NOTAM_COUNT)
+    public void parseSplitting(Blackhole blackhole) {
+        for (String notam : notams) {
+            blackhole.consume(splittingNotamParser.parse(notam));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.bitfexl.notamextractor.notamparser;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bitfexl.notamextractor.Corpus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NotamTable vs a list of Notam objects: converting, and a scan over the numeric fields
+ * (notams active at a time inside a latitude band). Scores are milliseconds per operation.
+ * The corpus is repeated with distinct ids and distinct item E texts (pessimistic for the string dictionary,
+ * a real world set shares more strings). Before measuring, every row is checked to convert back
+ * to an equal notam (same json) and the retained heap of both representations is printed (JOL).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotamTableBenchmark {
+    @Param({"10000", "100000"})
+    private int size;
+
+    private List<Notam> notams;
+
+    private NotamTable table;
+
+    private long time;
+
+    @Setup
+    public void setup() throws Exception {
+        final NotamParser parser = new NotamParser();
+        final List<String> raw = Corpus.loadDistinctRawNotams(size);
+        notams = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            notams.add(parser.parse(raw.get(i).replaceFirst("\nE\\) ", "\nE) " + i + " ")));
+        }
+        table = NotamTable.of(notams);
+
+        final ObjectMapper objectMapper = new ObjectMapper().setSerializationInclusion(Include.NON_NULL);
+        for (int i = 0; i < size; i++) {
+            if (!objectMapper.writeValueAsString(notams.get(i)).equals(objectMapper.writeValueAsString(table.get(i)))) {
+                throw new IllegalStateException("NotamTable row differs from notam: " + notams.get(i).getRaw());
+            }
+        }
+
+        final long notamsBytes = GraphLayout.parseInstance(notams).totalSize();
+        final long tableBytes = GraphLayout.parseInstance(table).totalSize();
+        // the raw texts are the same in both representations
+        final long rawBytes = GraphLayout.parseInstance(notams.stream().map(Notam::getRaw).toArray()).totalSize();
+        System.out.printf("%nheap (%d notams): notams %.1f MB, table %.1f MB (%.1f%%), without raw texts: notams %.1f MB, table %.1f MB (%.1f%%), %d distinct strings%n",
+                size,
+                notamsBytes / 1e6, tableBytes / 1e6, 100.0 * tableBytes / notamsBytes,
+                (notamsBytes - rawBytes) / 1e6, (tableBytes - rawBytes) / 1e6, 100.0 * (tableBytes - rawBytes) / (notamsBytes - rawBytes),
+                table.distinctStrings());
+
+        time = notams.get(0).getFrom();
+    }
+
+    @Benchmark
+    public NotamTable toTable() {
+        return NotamTable.of(notams);
+    }
+
+    @Benchmark
+    public List<Notam> toNotams() {
+        return table.toNotams();
+    }
+
+    @Benchmark
+    public int scanNotams() {
+        int count = 0;
+        for (Notam notam : notams) {
+            if (notam.getFrom() <= time && (notam.getTo() == null || time < notam.getTo())
+                    && notam.getLatitude() != null && notam.getLatitude() >= 45 && notam.getLatitude() < 55) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int scanTable() {
+        int count = 0;
+        for (int i = 0; i < table.size(); i++) {
+            final long to = table.to(i);
+            final double latitude = table.latitude(i);
+            if (table.from(i) <= time && (to == NotamTable.NULL_LONG || time < to) && latitude >= 45 && latitude < 55) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
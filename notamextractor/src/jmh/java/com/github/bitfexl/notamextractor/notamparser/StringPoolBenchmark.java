@@ -0,0 +1,60 @@
+package com.github.bitfexl.notamextractor.notamparser;
+
+import com.github.bitfexl.notamextractor.Corpus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses notams from the corpus with and without a (shared) StringPool. Scores are notams per second.
+ * Before measuring, the retained heap of the parsed notams (without the raw texts, JOL)
+ * and the pool statistics are printed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StringPoolBenchmark {
+    private static final int NOTAM_COUNT = 10000;
+
+    private List<String> notams;
+
+    private final NotamParser notamParser = new NotamParser();
+
+    private final NotamParser pooledNotamParser = new NotamParser(new StringPool());
+
+    @Setup
+    public void setup() {
+        notams = Corpus.loadDistinctRawNotams(NOTAM_COUNT);
+
+        final StringPool pool = new StringPool();
+        final List<Notam> parsed = notams.stream().map(notamParser::parse).toList();
+        final List<Notam> pooled = notams.stream().map(new NotamParser(pool)::parse).toList();
+        final long rawBytes = GraphLayout.parseInstance(notams.toArray()).totalSize();
+        final long parsedBytes = GraphLayout.parseInstance(parsed).totalSize() - rawBytes;
+        final long pooledBytes = GraphLayout.parseInstance(pooled).totalSize() - rawBytes;
+        System.out.printf("%nheap (%d notams, without raw texts): %.1f MB, pooled %.1f MB (%.1f%%), pool: %s%n",
+                NOTAM_COUNT, parsedBytes / 1e6, pooledBytes / 1e6, 100.0 * pooledBytes / parsedBytes, pool.getStats());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NOTAM_COUNT)
+    public void parse(Blackhole blackhole) {
+        for (String notam : notams) {
+            blackhole.consume(notamParser.parse(notam));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NOTAM_COUNT)
+    public void parsePooled(Blackhole blackhole) {
+        for (String notam : notams) {
+            blackhole.consume(pooledNotamParser.parse(notam));
+        }
+    }
+}
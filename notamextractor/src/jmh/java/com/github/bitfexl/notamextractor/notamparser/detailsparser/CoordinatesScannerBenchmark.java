@@ -0,0 +1,125 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.Corpus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+/**
+ * CoordinatesScanner vs COORDINATES_PATTERN on generated texts of increasing length.
+ * Scores are microseconds per text, a linear scanner takes 10 times as long for a 10 times longer text.
+ * Before measuring, the scanner is checked against the pattern on the fuzz corpus and the generated text.
+ * The pattern recurses for every coordinates pair and fails with a StackOverflowError on long polygons
+ * (about 1000 points), these pattern runs are reported as failed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CoordinatesScannerBenchmark {
+    /**
+     * polygon: one long run of coordinates (a polygon with many points)
+     * separators: coordinates with long whitespace and separator runs between them
+     * nearMiss: almost coordinates (missing longitude direction)
+     * corpus: the fuzz corpus repeated
+     * random: random characters from the coordinates alphabet
+     */
+    @Param({"polygon", "separators", "nearMiss", "corpus", "random"})
+    private String input;
+
+    @Param({"1000", "10000", "100000"})
+    private int length;
+
+    private String text;
+
+    @Setup
+    public void setup() {
+        text = generate(input, length);
+
+        final List<String> texts = new ArrayList<>(Corpus.loadCoordinateTexts());
+        texts.add(text);
+        for (String t : texts) {
+            final List<Integer> expected;
+            try {
+                expected = match(t);
+            } catch (StackOverflowError error) {
+                continue;
+            }
+            if (!scan(t).equals(expected)) {
+                throw new IllegalStateException("CoordinatesScanner differs from COORDINATES_PATTERN for: " + t);
+            }
+        }
+    }
+
+    @Benchmark
+    public void pattern(Blackhole blackhole) {
+        final Matcher matcher = DetailedNotamParser.COORDINATES_PATTERN.matcher(text);
+        while (matcher.find()) {
+            blackhole.consume(matcher.end());
+        }
+    }
+
+    @Benchmark
+    public void scanner(Blackhole blackhole) {
+        final CoordinatesScanner scanner = new CoordinatesScanner(text);
+        while (scanner.find()) {
+            blackhole.consume(scanner.end());
+        }
+    }
+
+    @Benchmark
+    public void scannerWithDecoding(Blackhole blackhole) {
+        final CoordinatesScanner scanner = new CoordinatesScanner(text);
+        while (scanner.find()) {
+            blackhole.consume(scanner.coordinates());
+        }
+    }
+
+    private static String generate(String input, int length) {
+        final StringBuilder text = new StringBuilder(length + 100);
+        final Random random = new Random(0);
+        final List<String> corpus = Corpus.loadCoordinateTexts();
+
+        while (text.length() < length) {
+            switch (input) {
+                case "polygon" -> text.append(String.format("%02d%02d%02dN %03d%02d%02dE - ",
+                        random.nextInt(90), random.nextInt(60), random.nextInt(60), random.nextInt(180), random.nextInt(60), random.nextInt(60)));
+                case "separators" -> text.append("510600N 0020000W").append(" ".repeat(200)).append("-").append(" ".repeat(200));
+                case "nearMiss" -> text.append("510600N ").append(" ".repeat(50)).append("0020000 ");
+                case "corpus" -> text.append(corpus.get(random.nextInt(corpus.size()))).append(' ');
+                case "random" -> text.append("0123456789NSEW -/x".charAt(random.nextInt(18)));
+                default -> throw new IllegalArgumentException("Unknown input '" + input + "'.");
+            }
+        }
+
+        text.append("END");
+        return text.toString();
+    }
+
+    private static List<Integer> scan(String text) {
+        final List<Integer> matches = new ArrayList<>();
+        final CoordinatesScanner scanner = new CoordinatesScanner(text);
+        while (scanner.find()) {
+            matches.add(scanner.start());
+            matches.add(scanner.end());
+        }
+        return matches;
+    }
+
+    private static List<Integer> match(String text) {
+        final List<Integer> matches = new ArrayList<>();
+        final Matcher matcher = DetailedNotamParser.COORDINATES_PATTERN.matcher(text);
+        while (matcher.find()) {
+            matches.add(matcher.start());
+            matches.add(matcher.end());
+        }
+        return matches;
+    }
+}
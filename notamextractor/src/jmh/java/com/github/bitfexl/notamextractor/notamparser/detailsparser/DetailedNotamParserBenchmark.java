@@ -0,0 +1,93 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.Corpus;
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.NotamParser;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.NotamData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+/**
+ * The detail stage on the parsed corpus notams.
+ * Scores are whole corpus runs per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DetailedNotamParserBenchmark {
+    private static final int DISTINCT_NOTAM_COUNT = 3000;
+
+    private List<Notam> notams;
+
+    private List<Notam> distinctNotams;
+
+    private final DetailedNotamParser detailedNotamParser = new DetailedNotamParser();
+
+    private final DetailedNotamParser parallelDetailedNotamParser = new DetailedNotamParser(true);
+
+    @Setup
+    public void setup() {
+        notams = Corpus.loadParsedNotams();
+        final NotamParser parser = new NotamParser();
+        distinctNotams = Corpus.loadDistinctRawNotams(DISTINCT_NOTAM_COUNT).stream().map(parser::parse).toList();
+    }
+
+    @Benchmark
+    public NotamData parseNotams() {
+        return detailedNotamParser.parseNotams(notams);
+    }
+
+    /**
+     * Sequential vs parallel on a large country (corpus renumbered to distinct notams),
+     * scores are runs per second (each DISTINCT_NOTAM_COUNT notams).
+     */
+    @Benchmark
+    public NotamData parseNotamsLarge() {
+        return detailedNotamParser.parseNotams(distinctNotams);
+    }
+
+    @Benchmark
+    public NotamData parseNotamsLargeParallel() {
+        return parallelDetailedNotamParser.parseNotams(distinctNotams);
+    }
+
+    @Benchmark
+    public void coordinatesPattern(Blackhole blackhole) {
+        for (Notam notam : notams) {
+            if (notam.getNotamText() == null) {
+                continue;
+            }
+            final Matcher matcher = DetailedNotamParser.COORDINATES_PATTERN.matcher(notam.getNotamText());
+            while (matcher.find()) {
+                blackhole.consume(matcher.end());
+            }
+        }
+    }
+
+    @Benchmark
+    public void coordinatesScanner(Blackhole blackhole) {
+        for (Notam notam : notams) {
+            if (notam.getNotamText() == null) {
+                continue;
+            }
+            final CoordinatesScanner scanner = new CoordinatesScanner(notam.getNotamText());
+            while (scanner.find()) {
+                blackhole.consume(scanner.end());
+            }
+        }
+    }
+
+    @Benchmark
+    public void computeId(Blackhole blackhole) {
+        for (Notam notam : notams) {
+            blackhole.consume(NotamId.of(notam));
+        }
+    }
+}
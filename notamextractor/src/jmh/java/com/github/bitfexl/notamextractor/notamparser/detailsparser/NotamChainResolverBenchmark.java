@@ -0,0 +1,89 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.NotamType;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.DetailedNotam;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.NotamData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NotamChainResolver on generated replacement chains (1 to 5 notams, every 10th chain ends with a cancellation)
+ * vs filtering with a HashSet of the superseded ids (without annotating the chains).
+ * Scores are milliseconds per resolution. Before measuring, the surviving notams are checked against the filter
+ * and the annotations against the generated chains.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotamChainResolverBenchmark {
+    @Param({"10000", "100000"})
+    private int size;
+
+    private NotamData data;
+
+    private final NotamChainResolver resolver = new NotamChainResolver();
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        final List<DetailedNotam> notams = new ArrayList<>(size);
+        // notam -> expected number of superseded ids
+        final Map<Long, Integer> chainLengths = new HashMap<>();
+
+        int number = 0;
+        for (int chain = 0; notams.size() < size; chain++) {
+            final int length = random.nextInt(1, 6);
+            Long previousId = null;
+            for (int i = 0; i < length; i++) {
+                final NotamType type = i == 0 ? NotamType.NEW : chain % 10 == 0 && i == length - 1 ? NotamType.CANCEL : NotamType.REPLACE;
+                final long id = NotamId.encode(2024, (char) ('A' + number / 10000 % 26), number % 10000, "LOVV");
+                number++;
+                notams.add(new DetailedNotam(Notam.builder().type(type).build(), id, previousId, null, null, null));
+                chainLengths.put(id, i);
+                previousId = id;
+            }
+        }
+        notams.sort(Comparator.comparingLong(DetailedNotam::id));
+        data = new NotamData("1.0", null, notams, List.of(), null);
+
+        final List<Long> expected = filter().stream().map(DetailedNotam::id).toList();
+        final NotamData resolved = resolver.resolve(data);
+        if (!resolved.notams().stream().map(DetailedNotam::id).toList().equals(expected)) {
+            throw new IllegalStateException("NotamChainResolver survivors differ from the filter.");
+        }
+        for (DetailedNotam notam : resolved.notams()) {
+            final int superseded = notam.supersededNotamIds() == null ? 0 : notam.supersededNotamIds().size();
+            if (superseded != chainLengths.get(notam.id())) {
+                throw new IllegalStateException("Wrong chain of " + NotamId.decode(notam.id()) + ": " + notam.supersededNotamIds());
+            }
+        }
+    }
+
+    @Benchmark
+    public NotamData resolve() {
+        return resolver.resolve(data);
+    }
+
+    @Benchmark
+    public List<DetailedNotam> filter() {
+        final Set<Long> superseded = new HashSet<>();
+        for (DetailedNotam notam : data.notams()) {
+            if (notam.previousNotamId() != null) {
+                superseded.add(notam.previousNotamId());
+            }
+        }
+        final List<DetailedNotam> survivors = new ArrayList<>();
+        for (DetailedNotam notam : data.notams()) {
+            if (!superseded.contains(notam.id())) {
+                survivors.add(notam);
+            }
+        }
+        return survivors;
+    }
+}
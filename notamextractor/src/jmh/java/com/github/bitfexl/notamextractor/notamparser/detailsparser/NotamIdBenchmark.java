@@ -0,0 +1,76 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.Corpus;
+import com.github.bitfexl.notamextractor.notamparser.NotamParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NotamId decoding and id keyed maps: LongObjectMap vs HashMap with boxed keys
+ * (filling with putIfAbsent, then looking up every id). Scores are microseconds per run over all ids.
+ * Before measuring, every id is checked to decode and encode to itself.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotamIdBenchmark {
+    @Param({"3000", "30000"})
+    private int size;
+
+    private long[] ids;
+
+    @Setup
+    public void setup() {
+        final NotamParser parser = new NotamParser();
+        ids = Corpus.loadDistinctRawNotams(size).stream().map(parser::parse).mapToLong(NotamId::of).toArray();
+        for (long id : ids) {
+            if (NotamId.decode(id).encode() != id) {
+                throw new IllegalStateException("NotamId does not decode to itself: " + id);
+            }
+        }
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) {
+        for (long id : ids) {
+            blackhole.consume(NotamId.decode(id));
+        }
+    }
+
+    @Benchmark
+    public int longObjectMap() {
+        final LongObjectMap<Object> map = new LongObjectMap<>(ids.length);
+        for (long id : ids) {
+            map.putIfAbsent(id, this);
+        }
+        int found = 0;
+        for (long id : ids) {
+            if (map.get(id) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int hashMap() {
+        final Map<Long, Object> map = new HashMap<>(ids.length * 2);
+        for (long id : ids) {
+            map.putIfAbsent(id, this);
+        }
+        int found = 0;
+        for (long id : ids) {
+            if (map.get(id) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
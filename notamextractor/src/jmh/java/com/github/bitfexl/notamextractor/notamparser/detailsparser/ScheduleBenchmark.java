@@ -0,0 +1,83 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.Corpus;
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScheduleCompiler and Schedule on the corpus notams with a schedule (item D).
+ * compile: compiling all scheduled notams, scores are microseconds per corpus.
+ * isActive: "is the notam active at T" for a random notam and a random time in (and around) its item B to C window,
+ * once with the compiled schedule and once compiling the schedule text for every query, scores are microseconds per query.
+ * Before measuring, every scheduled corpus notam is checked to compile.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScheduleBenchmark {
+    private static final int QUERY_COUNT = 1024;
+
+    private final ScheduleCompiler compiler = new ScheduleCompiler();
+
+    private List<Notam> notams;
+
+    private Schedule[] schedules;
+
+    private int[] queryNotams;
+
+    private long[] queryTimes;
+
+    private int query;
+
+    @Setup
+    public void setup() {
+        notams = Corpus.loadParsedNotams().stream().filter(notam -> notam.getSchedule() != null).toList();
+        if (notams.isEmpty()) {
+            throw new IllegalStateException("The corpus contains no notams with a schedule.");
+        }
+
+        schedules = new Schedule[notams.size()];
+        for (int i = 0; i < schedules.length; i++) {
+            schedules[i] = compiler.compile(notams.get(i));
+            if (schedules[i] == null) {
+                throw new IllegalStateException("Schedule not compiled: " + notams.get(i).getSchedule());
+            }
+        }
+
+        final Random random = new Random(42);
+        queryNotams = new int[QUERY_COUNT];
+        queryTimes = new long[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            final Notam notam = notams.get(random.nextInt(notams.size()));
+            queryNotams[i] = notams.indexOf(notam);
+            queryTimes[i] = random.nextLong(notam.getFrom() - 86400, notam.getTo() + 86400);
+        }
+    }
+
+    @Benchmark
+    public void compile(Blackhole blackhole) {
+        for (Notam notam : notams) {
+            blackhole.consume(compiler.compile(notam));
+        }
+    }
+
+    @Benchmark
+    public boolean isActiveCompiled() {
+        final int i = query++ & (QUERY_COUNT - 1);
+        return schedules[queryNotams[i]].isActive(queryTimes[i]);
+    }
+
+    @Benchmark
+    public boolean isActiveReparse() {
+        final int i = query++ & (QUERY_COUNT - 1);
+        return compiler.compile(notams.get(queryNotams[i])).isActive(queryTimes[i]);
+    }
+}
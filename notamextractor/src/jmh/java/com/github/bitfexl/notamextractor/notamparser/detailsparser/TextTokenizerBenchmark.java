@@ -0,0 +1,78 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.Corpus;
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.Abbreviation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TextTokenizer vs searching every abbreviation on its own, on the corpus notam texts.
+ * The ICAO dictionary is extended with random codes to show how both scale with the dictionary size.
+ * Scores are whole corpus runs per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextTokenizerBenchmark {
+    /**
+     * The number of random codes added to the ICAO abbreviations.
+     */
+    @Param({"0", "1000", "10000"})
+    private int additionalAbbreviations;
+
+    private List<String> texts;
+
+    private List<String> codes;
+
+    private TextTokenizer tokenizer;
+
+    @Setup
+    public void setup() {
+        texts = Corpus.loadParsedNotams().stream().map(Notam::getNotamText).filter(Objects::nonNull).toList();
+
+        final List<Abbreviation> abbreviations = new ArrayList<>(TextTokenizer.loadAbbreviations());
+        final Random random = new Random(0);
+        for (int i = 0; i < additionalAbbreviations; i++) {
+            final StringBuilder code = new StringBuilder();
+            final int length = 3 + random.nextInt(4);
+            for (int j = 0; j < length; j++) {
+                code.append((char) ('A' + random.nextInt(26)));
+            }
+            abbreviations.add(new Abbreviation(code.toString(), ""));
+        }
+
+        codes = abbreviations.stream().map(Abbreviation::code).toList();
+        tokenizer = new TextTokenizer(abbreviations);
+    }
+
+    @Benchmark
+    public void tokenizer(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(tokenizer.tokenize(text));
+        }
+    }
+
+    @Benchmark
+    public void perAbbreviationSearch(Blackhole blackhole) {
+        for (String text : texts) {
+            for (String code : codes) {
+                for (int i = text.indexOf(code); i != -1; i = text.indexOf(code, i + 1)) {
+                    final int end = i + code.length();
+                    if ((i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1))) && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)))) {
+                        blackhole.consume(i);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.bitfexl.notamextractor;
+
+import com.github.bitfexl.notamextractor.notamclient.DODAISClient;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration of an extraction run.
+ * Every value can be overridden with an environment variable (see {@link #fromEnvironment()}).
+ * @param maxConcurrentRequests The maximum number of requests in flight to the upstream notam source.
+ * @param countryTimeout The maximum time the extraction of a single country may take.
+ * @param upstreamUrl The url of the DODAIS query endpoint.
+ * @param recordDirectory If not null every upstream response is recorded to this directory.
+ * @param replayDirectory If not null the responses recorded in this directory are replayed instead of querying upstream.
+ * @param storeFile If not null parsed notams are kept in this file and reused by the next run.
+ * @param sharedGeometry If true the coordinates lists of all countries are written to a shared geometry file.
+ * @param deltaCoordinates If true the coordinates lists are written as delta encoded fixed-point arrays.
+ * @param resolveChains If true notams replaced or cancelled by another notam of the same country are not written.
+ */
+public record ExtractorConfig(int maxConcurrentRequests, Duration countryTimeout, URI upstreamUrl, Path recordDirectory, Path replayDirectory, Path storeFile, boolean sharedGeometry, boolean deltaCoordinates, boolean resolveChains) {
+    /**
+     * Load the configuration from the environment, missing values are set to their defaults.
+     * <ul>
+     *     <li>NOTAMEXTRACTOR_MAX_CONCURRENT_REQUESTS (default 8)</li>
+     *     <li>NOTAMEXTRACTOR_COUNTRY_TIMEOUT_SECONDS (default 300)</li>
+     *     <li>NOTAMEXTRACTOR_UPSTREAM_URL (default DODAISClient.QUERY_URL)</li>
+     *     <li>NOTAMEXTRACTOR_RECORD_DIR (default not set)</li>
+     *     <li>NOTAMEXTRACTOR_REPLAY_DIR (default not set)</li>
+     *     <li>NOTAMEXTRACTOR_STORE_FILE (default not set)</li>
+     *     <li>NOTAMEXTRACTOR_SHARED_GEOMETRY (default false)</li>
+     *     <li>NOTAMEXTRACTOR_DELTA_COORDINATES (default false)</li>
+     *     <li>NOTAMEXTRACTOR_RESOLVE_CHAINS (default true)</li>
+     * </ul>
+     * @return The loaded configuration.
+     */
+    public static ExtractorConfig fromEnvironment() {
+        return new ExtractorConfig(
+                getInt("NOTAMEXTRACTOR_MAX_CONCURRENT_REQUESTS", 8),
+                Duration.ofSeconds(getInt("NOTAMEXTRACTOR_COUNTRY_TIMEOUT_SECONDS", 300)),
+                URI.create(getString("NOTAMEXTRACTOR_UPSTREAM_URL", DODAISClient.QUERY_URL.toString())),
+                getPath("NOTAMEXTRACTOR_RECORD_DIR"),
+                getPath("NOTAMEXTRACTOR_REPLAY_DIR"),
+                getPath("NOTAMEXTRACTOR_STORE_FILE"),
+                getBoolean("NOTAMEXTRACTOR_SHARED_GEOMETRY", false),
+                getBoolean("NOTAMEXTRACTOR_DELTA_COORDINATES", false),
+                getBoolean("NOTAMEXTRACTOR_RESOLVE_CHAINS", true)
+        );
+    }
+
+    private static String getString(String name, String defaultValue) {
+        final String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return value.trim();
+    }
+
+    private static Path getPath(String name) {
+        final String value = getString(name, null);
+        return value == null ? null : Path.of(value);
+    }
+
+    private static boolean getBoolean(String name, boolean defaultValue) {
+        final String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+            throw new IllegalArgumentException("Environment variable " + name + " must be true or false, but got '" + value + "'.");
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    private static int getInt(String name, int defaultValue) {
+        final String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Environment variable " + name + " must be an integer, but got '" + value + "'.");
+        }
+    }
+}
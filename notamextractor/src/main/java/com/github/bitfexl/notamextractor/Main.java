@@ -3,25 +3,67 @@ package com.github.bitfexl.notamextractor;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.bitfexl.notamextractor.extraction.BatchResults;
+import com.github.bitfexl.notamextractor.extraction.ExtractionExecutor;
+import com.github.bitfexl.notamextractor.extraction.QueryPlan;
+import com.github.bitfexl.notamextractor.extraction.QueryPlanner;
+import com.github.bitfexl.notamextractor.metrics.LatencyHistogram;
+import com.github.bitfexl.notamextractor.metrics.Metrics;
 import com.github.bitfexl.notamextractor.notamclient.DODAISClient;
 import com.github.bitfexl.notamextractor.notamclient.NotamClient;
 import com.github.bitfexl.notamextractor.notamclient.ICAOLocation;
+import com.github.bitfexl.notamextractor.notamclient.ReplayNotamClient;
+import com.github.bitfexl.notamextractor.notamclient.ResponseRecording;
 import com.github.bitfexl.notamextractor.notamparser.Notam;
 import com.github.bitfexl.notamextractor.notamparser.NotamParser;
+import com.github.bitfexl.notamextractor.notamparser.StringPool;
 import com.github.bitfexl.notamextractor.notamparser.detailsparser.DetailedNotamParser;
-import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.NotamData;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.GeometryRegistry;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.NotamChainResolver;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.CoordinatesList;
+import com.github.bitfexl.notamextractor.output.JsonFileWriter;
+import com.github.bitfexl.notamextractor.store.NotamStore;
 import lombok.SneakyThrows;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
 
 // TODO: do not write files with special characters (if country name contains some)
 
 public class Main {
-    private static final NotamClient notamClient = new DODAISClient();
+    private static final ExtractorConfig config = ExtractorConfig.fromEnvironment();
+    private static final Metrics metrics = new Metrics();
+    private static final NotamClient notamClient = createNotamClient();
     private static final ObjectMapper objectMapper = new ObjectMapper().setSerializationInclusion(Include.NON_NULL);
+    private static final NotamStore notamStore = loadNotamStore();
+    // run-wide, only used with the shared geometry file (its coordinates lists are kept until the end)
+    private static final GeometryRegistry geometryRegistry = new GeometryRegistry(config.deltaCoordinates());
+    // shared by the parsers of all batches, so equal fields of notams of different batches are one string
+    private static final StringPool stringPool = new StringPool();
+    private static final String GEOMETRY_FILE = "geometry.json";
+    private static final String RUN_REPORT_FILE = "report.json";
+    private static final String PROMETHEUS_FILE = "notamextractor.prom";
+
+    private static final LatencyHistogram batchLatency = metrics.histogram("notamextractor_batch_seconds", "Latency of querying and parsing a batch of locations.");
+    private static final LatencyHistogram parseLatency = metrics.histogram("notamextractor_parse_seconds", "Latency of parsing a raw notam (NotamParser.parse).");
+    private static final LongAdder parsedNotams = metrics.counter("notamextractor_parsed_notams_total", "Raw notams parsed.");
+    private static final LongAdder storedNotams = metrics.counter("notamextractor_store_notams_total", "Raw notams taken from the notam store instead of parsing.");
+    private static final LongAdder parseFailures = metrics.counter("notamextractor_parse_failures_total", "Raw notams which could not be parsed.");
+    private static final LatencyHistogram detailLatency = metrics.histogram("notamextractor_detail_seconds", "Latency of detailing the notams of a country (DetailedNotamParser.parseNotams, without writing).");
+    private static final LongAdder detailedNotams = metrics.counter("notamextractor_detailed_notams_total", "Notams detailed (including notams taken from the store).");
 
     @SneakyThrows
     public static void main(String[] args) {
@@ -31,47 +73,227 @@ public class Main {
         // ignore united states countries as us notam format currently is not supported
         List<String> countries = allLocations.stream().map(ICAOLocation::country).distinct().filter(c -> !c.startsWith("United States")).toList();
 
-        final List<String> successfulCountries = new ArrayList<>();
+        final JsonFileWriter writer = new JsonFileWriter(objectMapper, metrics);
+
+        final ExtractionExecutor executor = new ExtractionExecutor(config.maxConcurrentRequests(), config.countryTimeout());
+
+        // all countries are queried together in full batches, every batch is queried and parsed once
+        // when first needed and released when all its countries have taken their notams
+        final QueryPlan plan = new QueryPlanner().plan(countries, allLocations);
+        final BatchResults<List<Notam>> batches = new BatchResults<>(plan, countries, batch -> {
+            final long startNanos = System.nanoTime();
+            final CompletableFuture<List<String>> response = notamClient.queryNotmasAsync(batch);
+            final CompletableFuture<List<Notam>> notams = response.thenApply(Main::parseNotams);
+            notams.whenComplete((result, ex) -> {
+                batchLatency.recordSince(startNanos);
+                // a dependent future does not cancel its source
+                if (notams.isCancelled()) {
+                    response.cancel(true);
+                }
+            });
+            return notams;
+        });
+
+        // with a shared geometry file the country files are only committed after the geometry file,
+        // so a country file never references coordinates lists missing in the geometry file
+        final Map<String, JsonFileWriter.PendingNotamFile> pendingFiles = new ConcurrentHashMap<>();
+
+        List<String> successfulCountries = executor.extractAll(countries, countryName -> {
+            final List<Notam> notams = collectNotams(countryName, plan, batches);
+            final JsonFileWriter.PendingNotamFile file = writeNotamData(writer, countryName, notams);
+            if (file == null) {
+                return false;
+            }
+            if (config.sharedGeometry()) {
+                pendingFiles.put(countryName, file);
+            } else {
+                file.commit();
+            }
+            return true;
+        });
+
+        if (config.sharedGeometry()) {
+            successfulCountries = writeSharedGeometry(writer, successfulCountries, pendingFiles);
+        }
+
+        writer.write(Path.of("countries.json"), successfulCountries);
+
+        if (notamStore != null) {
+            notamStore.save();
+        }
+
+        metrics.counter("notamextractor_countries_total", "Countries extracted.").add(countries.size());
+        metrics.counter("notamextractor_countries_written_total", "Countries with notams written.").add(successfulCountries.size());
+        writeRunReport(writer);
+    }
 
-        final ObjectWriter writer = objectMapper.writerWithDefaultPrettyPrinter();
+    /**
+     * Write the run report and the Prometheus textfile next to countries.json.
+     */
+    private static void writeRunReport(JsonFileWriter writer) {
+        final StringPool.Stats stringPoolStats = stringPool.getStats();
+        metrics.counter("notamextractor_string_pool_hits_total", "String pool lookups returning a pooled string.").add(stringPoolStats.hits());
+        metrics.counter("notamextractor_string_pool_misses_total", "String pool lookups adding a string.").add(stringPoolStats.misses());
 
-        for (String countryName : countries) {
-            final List<ICAOLocation> filteredLocations = allLocations.stream().filter(loc -> loc.country().equalsIgnoreCase(countryName)).toList();
+        try {
+            writer.write(Path.of(RUN_REPORT_FILE), metrics.report());
+            metrics.writePrometheusFile(Path.of(PROMETHEUS_FILE));
+        } catch (Exception ex) {
+            System.err.println("Error writing run report.");
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Write the geometry file with the coordinates lists of all countries, then commit the country files referencing it.
+     * The country files of countries not extracted successfully (e.g. timed out after writing) are discarded.
+     * @return The countries written successfully.
+     */
+    @SneakyThrows
+    private static List<String> writeSharedGeometry(JsonFileWriter writer, List<String> countries, Map<String, JsonFileWriter.PendingNotamFile> pendingFiles) {
+        final Set<String> successfulCountries = new HashSet<>(countries);
+        pendingFiles.forEach((country, file) -> {
+            if (!successfulCountries.contains(country)) {
+                file.abort();
+            }
+        });
 
+        final Map<String, CoordinatesList> coordinatesLists = new TreeMap<>();
+        for (String country : countries) {
+            for (CoordinatesList coordinatesList : pendingFiles.get(country).getCoordinatesLists()) {
+                coordinatesLists.put(coordinatesList.hash(), coordinatesList);
+            }
+        }
+
+        try {
+            writer.write(Path.of(GEOMETRY_FILE), DetailedNotamParser.toGeometryData(List.copyOf(coordinatesLists.values()), config.deltaCoordinates()));
+        } catch (Exception ex) {
+            countries.forEach(country -> pendingFiles.get(country).abort());
+            throw ex;
+        }
+
+        final List<String> writtenCountries = new ArrayList<>();
+        for (String country : countries) {
             try {
-                final NotamData data = generateNotamData(filteredLocations);
-                if (data.notams().isEmpty()) {
-                    continue;
-                }
-                writer.writeValue(new File(countryName.replace(" ", "_") + ".json"), data);
-                successfulCountries.add(countryName);
+                pendingFiles.get(country).commit();
+                writtenCountries.add(country);
             } catch (Exception ex) {
-                System.err.println("Error querying notams for " + countryName + ".");
+                System.err.println("Error writing notams for " + country + ".");
                 ex.printStackTrace();
             }
         }
+        return writtenCountries;
+    }
 
-        writer.writeValue(new File("countries.json"), successfulCountries);
+    private static Path getCountryFile(String countryName) {
+        return Path.of(countryName.replace(" ", "_") + ".json");
     }
 
-    @SneakyThrows
-    private static NotamData generateNotamData(List<ICAOLocation> locations) {
-        final NotamParser parser = new NotamParser();
+    private static List<Notam> collectNotams(String country, QueryPlan plan, BatchResults<List<Notam>> batches) throws ExecutionException, InterruptedException {
+        // a notam might be returned by multiple batches (multiple locations in item A)
+        final Set<Notam> notams = new LinkedHashSet<>();
+
+        for (List<Notam> batch : batches.take(country)) {
+            for (Notam notam : batch) {
+                if (plan.belongsTo(notam, country)) {
+                    notams.add(notam);
+                }
+            }
+        }
+
+        final long unparsedNotams = notams.stream().filter(notam -> notam.getType() == null).count();
+        if (unparsedNotams > 0) {
+            metrics.counter("notamextractor_country_parse_failures_total", "Raw notams of a country which could not be parsed.", "country", country).add(unparsedNotams);
+        }
+
+        return new ArrayList<>(notams);
+    }
+
+    private static LongAdder countryNotams(String country) {
+        return metrics.counter("notamextractor_country_notams_total", "Notams written for a country.", "country", country);
+    }
+
+    /**
+     * Detail the notams of a country and write them to the country file at the same time.
+     * @return The country file, not committed yet, or null if there are no notams (nothing is written).
+     */
+    private static JsonFileWriter.PendingNotamFile writeNotamData(JsonFileWriter writer, String country, List<Notam> notams) throws IOException {
+        final String version = DetailedNotamParser.dataVersion(config.sharedGeometry(), config.deltaCoordinates());
+        final NotamChainResolver chainResolver = config.resolveChains() ? new NotamChainResolver() : null;
+        // with a shared geometry file the run-wide registry (equal coordinates lists of all countries are one instance),
+        // otherwise an own registry, so the coordinates lists of the country are released with the parser
+        final GeometryRegistry registry = config.sharedGeometry() ? geometryRegistry : new GeometryRegistry(config.deltaCoordinates());
+        final DetailedNotamParser parser = new DetailedNotamParser(true, registry);
 
-        final List<String> notams = notamClient.queryNotmas(locations.stream().map(ICAOLocation::icao).toList());
+        // the consumer runs on this thread, the time spent writing is not counted as detailing
+        final long startNanos = System.nanoTime();
+        final long[] writeNanos = {0};
 
-        final List<Notam> parsedNotams = notams.stream().map(notam -> {
+        final JsonFileWriter.PendingNotamFile file = writer.writePending(getCountryFile(country), version, Instant.now().toString(),
+                config.sharedGeometry() ? GEOMETRY_FILE : null,
+                stream -> parser.parseNotams(notams, notamStore, chainResolver, (notam, coordinatesLists) -> {
+                    final long writeStartNanos = System.nanoTime();
+                    stream.write(notam, coordinatesLists);
+                    writeNanos[0] += System.nanoTime() - writeStartNanos;
+                }));
+
+        final int notamCount = file == null ? 0 : file.getNotamCount();
+        detailLatency.record(System.nanoTime() - startNanos - writeNanos[0]);
+        detailedNotams.add(notamCount);
+        countryNotams(country).add(notamCount);
+        return file;
+    }
+
+    private static List<Notam> parseNotams(List<String> notams) {
+        final NotamParser parser = new NotamParser(stringPool);
+
+        return notams.stream().map(notam -> {
+            final Notam storedNotam = notamStore == null ? null : notamStore.getNotam(notam);
+            if (storedNotam != null) {
+                storedNotams.increment();
+                return storedNotam;
+            }
+            final long startNanos = System.nanoTime();
             try {
-                return parser.parse(notam);
+                final Notam parsedNotam = parser.parse(notam);
+                parseLatency.recordSince(startNanos);
+                parsedNotams.increment();
+                return parsedNotam;
             } catch (Exception ex) {
+                parseFailures.increment();
                 System.err.println("Error parsing notam.");
                 ex.printStackTrace();
                 // TODO: properly write these notams to file and load in frontend
                 return Notam.builder().raw(notam).build();
             }
         }).toList();
+    }
 
-        return new DetailedNotamParser().parseNotams(parsedNotams);
+    private static NotamClient createNotamClient() {
+        if (config.replayDirectory() != null) {
+            return new ReplayNotamClient(new ResponseRecording(config.replayDirectory()));
+        }
+        return new DODAISClient(
+                config.upstreamUrl(),
+                config.maxConcurrentRequests(),
+                config.recordDirectory() == null ? null : new ResponseRecording(config.recordDirectory()),
+                metrics
+        );
+    }
+
+    @SneakyThrows
+    private static NotamStore loadNotamStore() {
+        if (config.storeFile() == null) {
+            return null;
+        }
+        try {
+            return NotamStore.load(config.storeFile(), config.deltaCoordinates());
+        } catch (IOException ex) {
+            System.err.println("Error loading notam store, starting with an empty store.");
+            ex.printStackTrace();
+            Files.deleteIfExists(config.storeFile());
+            return NotamStore.load(config.storeFile(), config.deltaCoordinates());
+        }
     }
 
     @SneakyThrows
@@ -0,0 +1,88 @@
+package com.github.bitfexl.notamextractor.extraction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * The results of the batches of a query plan for a number of countries.
+ * A batch is queried when a country first needs it and released as soon as every country
+ * of the batch has taken its results, so only the batches of the countries currently extracted
+ * (and batches shared with countries not extracted yet) are kept in memory.
+ * A batch no country needs any more (e.g. all its countries timed out) is cancelled if it has not completed yet.
+ * @param <T> The type of the result of a batch (e.g. the parsed notams).
+ */
+public class BatchResults<T> {
+    private final QueryPlan plan;
+
+    private final Function<List<String>, CompletableFuture<T>> query;
+
+    private final CompletableFuture<T>[] results;
+
+    /**
+     * The number of countries which have not taken the result of a batch yet.
+     */
+    private final int[] remainingCountries;
+
+    /**
+     * Create the results of a query plan, nothing is queried yet.
+     * @param plan The query plan.
+     * @param countries The countries the plan was created for, every country takes its results once.
+     * @param query Starts the query of a batch (the ICAO identifiers of the batch),
+     *              cancelling the returned future should cancel the query.
+     */
+    @SuppressWarnings("unchecked")
+    public BatchResults(QueryPlan plan, List<String> countries, Function<List<String>, CompletableFuture<T>> query) {
+        this.plan = plan;
+        this.query = query;
+        results = new CompletableFuture[plan.getBatches().size()];
+        remainingCountries = new int[plan.getBatches().size()];
+        for (String country : countries) {
+            for (int batch : plan.getBatchesOf(country)) {
+                remainingCountries[batch]++;
+            }
+        }
+    }
+
+    /**
+     * Get the results of all batches of a country, queries batches not queried yet.
+     * The batches are released for the country even if this fails (or is interrupted).
+     * @param country The country.
+     * @return The results in the order of QueryPlan.getBatchesOf.
+     * @throws ExecutionException If a query failed.
+     * @throws InterruptedException If interrupted while waiting for a query.
+     */
+    public List<T> take(String country) throws ExecutionException, InterruptedException {
+        final List<Integer> batches = plan.getBatchesOf(country);
+        // start all queries of the country before waiting for the first one
+        final List<CompletableFuture<T>> futures = batches.stream().map(this::query).toList();
+        try {
+            final List<T> countryResults = new ArrayList<>(futures.size());
+            for (CompletableFuture<T> future : futures) {
+                countryResults.add(future.get());
+            }
+            return countryResults;
+        } finally {
+            release(batches);
+        }
+    }
+
+    private synchronized CompletableFuture<T> query(int batch) {
+        if (results[batch] == null) {
+            results[batch] = query.apply(plan.getBatches().get(batch));
+        }
+        return results[batch];
+    }
+
+    private synchronized void release(List<Integer> batches) {
+        for (int batch : batches) {
+            if (--remainingCountries[batch] <= 0 && results[batch] != null) {
+                // no effect if completed
+                results[batch].cancel(true);
+                results[batch] = null;
+            }
+        }
+    }
+}
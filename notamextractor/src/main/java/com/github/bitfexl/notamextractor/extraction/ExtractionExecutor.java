@@ -0,0 +1,106 @@
+package com.github.bitfexl.notamextractor.extraction;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs the extraction of multiple countries concurrently on virtual threads.
+ * At most maxConcurrentCountries are extracted at the same time, the timeout
+ * of a country starts when its extraction is actually started.
+ */
+public class ExtractionExecutor {
+    /**
+     * The extraction of a single country.
+     */
+    @FunctionalInterface
+    public interface CountryTask {
+        /**
+         * Extract (and write) the data of a country.
+         * @param country The country to extract.
+         * @return true: data was written for the country, false: nothing to write (e.g. no notams).
+         * @throws Exception If the extraction failed.
+         */
+        boolean extract(String country) throws Exception;
+    }
+
+    private final int maxConcurrentCountries;
+
+    private final Duration countryTimeout;
+
+    /**
+     * Create a new extraction executor.
+     * @param maxConcurrentCountries The maximum number of countries extracted at the same time.
+     * @param countryTimeout The maximum time the extraction of a country may take, it is cancelled (interrupted) afterward.
+     */
+    public ExtractionExecutor(int maxConcurrentCountries, Duration countryTimeout) {
+        if (maxConcurrentCountries < 1) {
+            throw new IllegalArgumentException("At least one country must be extracted at once, but got " + maxConcurrentCountries + ".");
+        }
+        this.maxConcurrentCountries = maxConcurrentCountries;
+        this.countryTimeout = countryTimeout;
+    }
+
+    /**
+     * Extract all countries and wait for them to finish.
+     * Errors are reported to System.err and do not stop the extraction of other countries.
+     * @param countries The countries to extract.
+     * @param task The extraction of a single country.
+     * @return The countries for which the task returned true, in the same order as countries.
+     */
+    public List<String> extractAll(List<String> countries, CountryTask task) {
+        final Semaphore permits = new Semaphore(maxConcurrentCountries);
+        final List<Future<Boolean>> results = new ArrayList<>(countries.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String country : countries) {
+                results.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return extractWithTimeout(executor, country, task);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            final List<String> successfulCountries = new ArrayList<>();
+
+            for (int i = 0; i < countries.size(); i++) {
+                final String country = countries.get(i);
+                try {
+                    if (results.get(i).get()) {
+                        successfulCountries.add(country);
+                    }
+                } catch (ExecutionException ex) {
+                    System.err.println("Error querying notams for " + country + ".");
+                    ex.getCause().printStackTrace();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for the extraction of " + country + ".", ex);
+                }
+            }
+
+            return successfulCountries;
+        }
+    }
+
+    private boolean extractWithTimeout(ExecutorService executor, String country, CountryTask task) throws Exception {
+        final Future<Boolean> future = executor.submit(() -> task.extract(country));
+        try {
+            return future.get(countryTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw new TimeoutException("Extraction of " + country + " did not finish within " + countryTimeout + ".");
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            throw ex;
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.bitfexl.notamextractor.extraction;
+
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The batches of locations to query for a number of countries (see QueryPlanner).
+ * Country names are compared ignoring case.
+ */
+public class QueryPlan {
+    private final List<List<String>> batches;
+
+    private final Map<String, List<Integer>> batchesByCountry;
+
+    private final Map<String, Set<String>> countriesByLocation;
+
+    QueryPlan(List<List<String>> batches, Map<String, List<Integer>> batchesByCountry, Map<String, Set<String>> countriesByLocation) {
+        this.batches = batches;
+        this.batchesByCountry = batchesByCountry;
+        this.countriesByLocation = countriesByLocation;
+    }
+
+    /**
+     * Get all batches to query, each contains up to QueryPlanner.BATCH_SIZE unique ICAO identifiers.
+     * @return The batches.
+     */
+    public List<List<String>> getBatches() {
+        return batches;
+    }
+
+    /**
+     * Get the batches containing locations of a country.
+     * @param country The country name.
+     * @return The indices of the batches (in getBatches()).
+     */
+    public List<Integer> getBatchesOf(String country) {
+        return batchesByCountry.getOrDefault(countryKey(country), List.of());
+    }
+
+    /**
+     * Check if a notam returned by a batch of the country belongs to a country.
+     * A notam belongs to the countries of its location indicators (item A).
+     * If none of these are known (or the notam could not be parsed) it belongs to every country queried in the batch.
+     * @param notam The notam, must be returned by one of the batches of the country.
+     * @param country The country name.
+     * @return true: the notam belongs to the country, false: it belongs to other countries only.
+     */
+    public boolean belongsTo(Notam notam, String country) {
+        if (notam.getLocationIndicators() == null) {
+            return true;
+        }
+
+        final String countryKey = countryKey(country);
+        boolean knownLocation = false;
+
+        for (String location : notam.getLocationIndicators()) {
+            final Set<String> countries = countriesByLocation.get(location);
+            if (countries != null) {
+                if (countries.contains(countryKey)) {
+                    return true;
+                }
+                knownLocation = true;
+            }
+        }
+
+        return !knownLocation;
+    }
+
+    static String countryKey(String country) {
+        return country.toLowerCase(Locale.ROOT);
+    }
+}
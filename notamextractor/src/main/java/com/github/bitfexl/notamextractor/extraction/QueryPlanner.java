@@ -0,0 +1,74 @@
+package com.github.bitfexl.notamextractor.extraction;
+
+import com.github.bitfexl.notamextractor.notamclient.ICAOLocation;
+
+import java.util.*;
+
+/**
+ * Plans the upstream queries for a number of countries.
+ * The ICAO identifiers of all countries are deduplicated and packed into full batches
+ * regardless of their country, so small countries do not cost a request of their own.
+ */
+public class QueryPlanner {
+    /**
+     * The maximum number of ICAO identifiers in a single query.
+     */
+    public static final int BATCH_SIZE = 50;
+
+    /**
+     * Plan the queries for the given countries.
+     * @param countries The countries to query (compared ignoring case).
+     * @param locations The location index, locations of other countries are ignored.
+     * @return The planned batches.
+     */
+    public QueryPlan plan(List<String> countries, List<ICAOLocation> locations) {
+        final Set<String> countryKeys = new HashSet<>();
+        for (String country : countries) {
+            countryKeys.add(QueryPlan.countryKey(country));
+        }
+
+        // group by country once, keeps the order of the index
+        final Map<String, Set<String>> locationsByCountry = new LinkedHashMap<>();
+        final Map<String, Set<String>> countriesByLocation = new HashMap<>();
+
+        for (ICAOLocation location : locations) {
+            final String countryKey = QueryPlan.countryKey(location.country());
+            if (!countryKeys.contains(countryKey)) {
+                continue;
+            }
+            locationsByCountry.computeIfAbsent(countryKey, k -> new LinkedHashSet<>()).add(location.icao());
+            countriesByLocation.computeIfAbsent(location.icao(), k -> new HashSet<>(1)).add(countryKey);
+        }
+
+        // pack unique identifiers, locations of a country stay next to each other
+        final List<List<String>> batches = new ArrayList<>();
+        final Map<String, Integer> batchByLocation = new HashMap<>();
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+
+        for (Set<String> countryLocations : locationsByCountry.values()) {
+            for (String icao : countryLocations) {
+                if (batchByLocation.containsKey(icao)) {
+                    continue;
+                }
+                if (batch.size() == BATCH_SIZE) {
+                    batches.add(List.copyOf(batch));
+                    batch.clear();
+                }
+                batchByLocation.put(icao, batches.size());
+                batch.add(icao);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            batches.add(List.copyOf(batch));
+        }
+
+        final Map<String, List<Integer>> batchesByCountry = new HashMap<>();
+
+        for (Map.Entry<String, Set<String>> country : locationsByCountry.entrySet()) {
+            batchesByCountry.put(country.getKey(), country.getValue().stream().map(batchByLocation::get).distinct().sorted().toList());
+        }
+
+        return new QueryPlan(batches, batchesByCountry, countriesByLocation);
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.bitfexl.notamextractor.geo;
+
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A latitude longitude aligned bounding box in degrees.
+ * Longitudes might exceed -180 or 180 for areas crossing the antimeridian.
+ * @param minLatitude The southern edge.
+ * @param minLongitude The western edge.
+ * @param maxLatitude The northern edge.
+ * @param maxLongitude The eastern edge.
+ */
+public record BoundingBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+    /**
+     * Nautical miles per degree of latitude.
+     */
+    public static final double NM_PER_DEGREE = 60;
+
+    /**
+     * Create the bounding box of a circle.
+     * @param latitude The latitude of the center.
+     * @param longitude The longitude of the center.
+     * @param radius The radius in nautical miles.
+     * @return The bounding box, covering all longitudes if the circle contains a pole.
+     */
+    public static BoundingBox ofCircle(double latitude, double longitude, double radius) {
+        final double latitudeRadius = radius / NM_PER_DEGREE;
+        final double minLatitude = Math.max(-90, latitude - latitudeRadius);
+        final double maxLatitude = Math.min(90, latitude + latitudeRadius);
+
+        if (minLatitude <= -90 || maxLatitude >= 90) {
+            return new BoundingBox(minLatitude, -180, maxLatitude, 180);
+        }
+
+        // widest at the edge closest to a pole
+        final double cos = Math.cos(Math.toRadians(Math.max(Math.abs(minLatitude), Math.abs(maxLatitude))));
+        final double longitudeRadius = latitudeRadius / cos;
+        if (longitudeRadius >= 180) {
+            return new BoundingBox(minLatitude, -180, maxLatitude, 180);
+        }
+        return new BoundingBox(minLatitude, longitude - longitudeRadius, maxLatitude, longitude + longitudeRadius);
+    }
+
+    /**
+     * Create the bounding box of coordinates.
+     * @param coordinates The coordinates (at least one).
+     * @return The bounding box.
+     */
+    public static BoundingBox of(List<Coordinates> coordinates) {
+        double minLatitude = Double.POSITIVE_INFINITY;
+        double minLongitude = Double.POSITIVE_INFINITY;
+        double maxLatitude = Double.NEGATIVE_INFINITY;
+        double maxLongitude = Double.NEGATIVE_INFINITY;
+
+        for (Coordinates c : coordinates) {
+            minLatitude = Math.min(minLatitude, c.latitude());
+            minLongitude = Math.min(minLongitude, c.longitude());
+            maxLatitude = Math.max(maxLatitude, c.latitude());
+            maxLongitude = Math.max(maxLongitude, c.longitude());
+        }
+
+        if (minLatitude > maxLatitude) {
+            throw new IllegalArgumentException("Bounding box of empty coordinates.");
+        }
+        return new BoundingBox(minLatitude, minLongitude, maxLatitude, maxLongitude);
+    }
+
+    /**
+     * Create the bounding box of the geometry of a notam:
+     * the circle of item Q and all coordinates lists referenced in the notam text.
+     * @param notam The notam.
+     * @param coordinatesLists The coordinates lists by hash.
+     * @return The bounding box or null if the notam has no geometry.
+     */
+    public static BoundingBox of(DetailedNotam notam, Map<String, CoordinatesList> coordinatesLists) {
+        BoundingBox box = null;
+
+        final Notam qLine = notam.notam();
+        if (qLine != null && qLine.getLatitude() != null && qLine.getLongitude() != null) {
+            final int radius = qLine.getRadius() == null ? 0 : qLine.getRadius();
+            box = ofCircle(qLine.getLatitude(), qLine.getLongitude(), radius);
+        }
+
+        if (notam.textNodes() != null) {
+            for (TextNode textNode : notam.textNodes()) {
+                if (textNode.reference() == null || textNode.reference().coordinatesList() == null) {
+                    continue;
+                }
+                final CoordinatesList coordinatesList = coordinatesLists.get(textNode.reference().coordinatesList());
+                if (coordinatesList != null && !coordinatesList.coordinates().isEmpty()) {
+                    box = union(box, of(coordinatesList.coordinates()));
+                }
+            }
+        }
+
+        return box;
+    }
+
+    /**
+     * @param a A bounding box or null.
+     * @param b A bounding box or null.
+     * @return The bounding box containing both (null if both are null).
+     */
+    public static BoundingBox union(BoundingBox a, BoundingBox b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return new BoundingBox(
+                Math.min(a.minLatitude, b.minLatitude),
+                Math.min(a.minLongitude, b.minLongitude),
+                Math.max(a.maxLatitude, b.maxLatitude),
+                Math.max(a.maxLongitude, b.maxLongitude)
+        );
+    }
+
+    /**
+     * @param other Another bounding box.
+     * @return true: the boxes overlap (or touch).
+     */
+    public boolean intersects(BoundingBox other) {
+        return minLatitude <= other.maxLatitude && other.minLatitude <= maxLatitude
+                && minLongitude <= other.maxLongitude && other.minLongitude <= maxLongitude;
+    }
+
+    /**
+     * @param latitude The latitude.
+     * @param longitude The longitude.
+     * @return true: the point is inside (or on the edge of) the box.
+     */
+    public boolean contains(double latitude, double longitude) {
+        return latitude >= minLatitude && latitude <= maxLatitude && longitude >= minLongitude && longitude <= maxLongitude;
+    }
+}
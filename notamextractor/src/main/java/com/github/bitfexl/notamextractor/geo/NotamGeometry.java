@@ -0,0 +1,198 @@
+package com.github.bitfexl.notamextractor.geo;
+
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The geometry of a notam: the circle of item Q and the coordinates lists referenced in the notam text.
+ * Coordinates lists with at least 3 coordinates are polygons, shorter lists are points or a line.
+ * Distances are computed on a sphere for circles and in a local equirectangular projection for corridors,
+ * which is exact enough for the size of notam areas. Areas crossing the antimeridian are not supported.
+ * @param notam The notam.
+ * @param latitude The latitude of the item Q circle.
+ * @param longitude The longitude of the item Q circle.
+ * @param radius The radius of the item Q circle in nautical miles, NaN if the notam has no circle.
+ * @param coordinatesLists The referenced coordinates lists.
+ * @param bounds The bounding box of all geometry.
+ */
+public record NotamGeometry(DetailedNotam notam, double latitude, double longitude, double radius, List<PackedCoordinates> coordinatesLists, BoundingBox bounds) {
+    /**
+     * Mean earth radius in nautical miles.
+     */
+    public static final double EARTH_RADIUS = 3440.065;
+
+    /**
+     * Get the geometry of a notam.
+     * @param notam The notam.
+     * @param coordinatesLists The coordinates lists by hash.
+     * @return The geometry or null if the notam has no geometry.
+     */
+    public static NotamGeometry of(DetailedNotam notam, Map<String, CoordinatesList> coordinatesLists) {
+        final BoundingBox bounds = BoundingBox.of(notam, coordinatesLists);
+        if (bounds == null) {
+            return null;
+        }
+
+        double latitude = Double.NaN;
+        double longitude = Double.NaN;
+        double radius = Double.NaN;
+        final Notam qLine = notam.notam();
+        if (qLine != null && qLine.getLatitude() != null && qLine.getLongitude() != null) {
+            latitude = qLine.getLatitude();
+            longitude = qLine.getLongitude();
+            radius = qLine.getRadius() == null ? 0 : qLine.getRadius();
+        }
+
+        final List<PackedCoordinates> lists = new ArrayList<>();
+        if (notam.textNodes() != null) {
+            for (TextNode textNode : notam.textNodes()) {
+                if (textNode.reference() == null || textNode.reference().coordinatesList() == null) {
+                    continue;
+                }
+                final CoordinatesList coordinatesList = coordinatesLists.get(textNode.reference().coordinatesList());
+                if (coordinatesList != null && !coordinatesList.coordinates().isEmpty()) {
+                    lists.add(PackedCoordinates.of(coordinatesList.coordinates()));
+                }
+            }
+        }
+
+        return new NotamGeometry(notam, latitude, longitude, radius, List.copyOf(lists), bounds);
+    }
+
+    /**
+     * @param pointLatitude The latitude of the point.
+     * @param pointLongitude The longitude of the point.
+     * @return true: the point is inside the circle or one of the polygons.
+     */
+    public boolean contains(double pointLatitude, double pointLongitude) {
+        if (!Double.isNaN(radius) && distance(latitude, longitude, pointLatitude, pointLongitude) <= radius) {
+            return true;
+        }
+        for (PackedCoordinates polygon : coordinatesLists) {
+            if (polygon.size() >= 3 && polygonContains(polygon, pointLatitude, pointLongitude)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param from The start of the segment.
+     * @param to The end of the segment.
+     * @param width The maximum distance to the segment in nautical miles.
+     * @return true: the circle or a coordinates list is closer than width to the segment.
+     */
+    public boolean intersectsSegment(Coordinates from, Coordinates to, double width) {
+        final Projection projection = Projection.at((from.latitude() + to.latitude()) / 2);
+        final double ax = projection.x(from.longitude()), ay = projection.y(from.latitude());
+        final double bx = projection.x(to.longitude()), by = projection.y(to.latitude());
+
+        if (!Double.isNaN(radius) && segmentDistance(projection.x(longitude), projection.y(latitude), ax, ay, bx, by) <= radius + width) {
+            return true;
+        }
+
+        for (PackedCoordinates list : coordinatesLists) {
+            if (list.size() >= 3 && polygonContains(list, from.latitude(), from.longitude())) {
+                return true;
+            }
+            for (int i = 0; i < list.size(); i++) {
+                final Coordinates c = list.get(i);
+                final double cx = projection.x(c.longitude()), cy = projection.y(c.latitude());
+                if (list.size() == 1) {
+                    if (segmentDistance(cx, cy, ax, ay, bx, by) <= width) {
+                        return true;
+                    }
+                    continue;
+                }
+                if (list.size() == 2 && i == 1) {
+                    break;
+                }
+                final Coordinates n = list.get((i + 1) % list.size());
+                if (segmentsDistance(ax, ay, bx, by, cx, cy, projection.x(n.longitude()), projection.y(n.latitude())) <= width) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Great circle distance (haversine).
+     * @return The distance in nautical miles.
+     */
+    public static double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+        final double dLatitude = Math.toRadians(latitude2 - latitude1);
+        final double dLongitude = Math.toRadians(longitude2 - longitude1);
+        final double a = Math.sin(dLatitude / 2) * Math.sin(dLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * Math.sin(dLongitude / 2) * Math.sin(dLongitude / 2);
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Even-odd rule in latitude longitude space.
+     */
+    private static boolean polygonContains(PackedCoordinates polygon, double pointLatitude, double pointLongitude) {
+        final double y = PackedCoordinates.toFixedPoint(pointLatitude);
+        final double x = PackedCoordinates.toFixedPoint(pointLongitude);
+        boolean inside = false;
+        for (int i = 0, j = polygon.size() - 1; i < polygon.size(); j = i++) {
+            final double yi = polygon.latitude(i), yj = polygon.latitude(j);
+            final double xi = polygon.longitude(i), xj = polygon.longitude(j);
+            if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Distance of point p to segment ab (planar).
+     */
+    private static double segmentDistance(double px, double py, double ax, double ay, double bx, double by) {
+        final double dx = bx - ax, dy = by - ay;
+        final double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : ((px - ax) * dx + (py - ay) * dy) / lengthSquared;
+        t = Math.max(0, Math.min(1, t));
+        return Math.hypot(px - (ax + t * dx), py - (ay + t * dy));
+    }
+
+    /**
+     * Distance between segments ab and cd (planar), 0 if they intersect.
+     */
+    private static double segmentsDistance(double ax, double ay, double bx, double by, double cx, double cy, double dx, double dy) {
+        final double d1 = cross(ax, ay, bx, by, cx, cy), d2 = cross(ax, ay, bx, by, dx, dy);
+        final double d3 = cross(cx, cy, dx, dy, ax, ay), d4 = cross(cx, cy, dx, dy, bx, by);
+        if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0))) {
+            return 0;
+        }
+        return Math.min(
+                Math.min(segmentDistance(ax, ay, cx, cy, dx, dy), segmentDistance(bx, by, cx, cy, dx, dy)),
+                Math.min(segmentDistance(cx, cy, ax, ay, bx, by), segmentDistance(dx, dy, ax, ay, bx, by))
+        );
+    }
+
+    private static double cross(double ax, double ay, double bx, double by, double px, double py) {
+        return (bx - ax) * (py - ay) - (by - ay) * (px - ax);
+    }
+
+    /**
+     * Equirectangular projection to nautical miles around a reference latitude.
+     */
+    private record Projection(double cos) {
+        static Projection at(double referenceLatitude) {
+            return new Projection(Math.cos(Math.toRadians(referenceLatitude)));
+        }
+
+        double x(double longitude) {
+            return longitude * BoundingBox.NM_PER_DEGREE * cos;
+        }
+
+        double y(double latitude) {
+            return latitude * BoundingBox.NM_PER_DEGREE;
+        }
+    }
+}
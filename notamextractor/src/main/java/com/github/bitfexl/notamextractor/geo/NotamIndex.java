@@ -0,0 +1,140 @@
+package com.github.bitfexl.notamextractor.geo;
+
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.LongObjectMap;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.*;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Spatial index answering which notams affect a point, a bounding box or a corridor along a route.
+ * Built once from notam data (e.g. all countries of a run), backed by a PackedRTree over the bounding boxes
+ * of the notam geometries, candidates are then checked against the exact geometry (see NotamGeometry).
+ * Notams without a geometry are not indexed. The index is immutable and thread safe.
+ */
+public class NotamIndex {
+    private final NotamGeometry[] geometries;
+
+    private final PackedRTree tree;
+
+    /**
+     * Some bounding boxes exceed -180 or 180, queries are repeated shifted by 360°.
+     */
+    private final boolean wrapsAntimeridian;
+
+    /**
+     * Build an index.
+     * @param geometries The geometries to index.
+     */
+    public NotamIndex(Collection<NotamGeometry> geometries) {
+        this.geometries = geometries.toArray(new NotamGeometry[0]);
+        tree = new PackedRTree(geometries.stream().map(NotamGeometry::bounds).toList());
+        wrapsAntimeridian = geometries.stream().anyMatch(g -> g.bounds().minLongitude() < -180 || g.bounds().maxLongitude() > 180);
+    }
+
+    /**
+     * Build an index over notam data.
+     * @param notamData The notam data (e.g. of all countries), each with its coordinates lists.
+     *                  Notams contained in multiple data are only indexed once.
+     * @return The index.
+     */
+    public static NotamIndex of(Collection<NotamData> notamData) {
+        final LongObjectMap<NotamGeometry> indexed = new LongObjectMap<>();
+        final List<NotamGeometry> geometries = new ArrayList<>();
+        for (NotamData data : notamData) {
+            final Map<String, CoordinatesList> coordinatesLists = new HashMap<>();
+            if (data.coordinatesLists() != null) {
+                for (CoordinatesList coordinatesList : data.coordinatesLists()) {
+                    coordinatesLists.put(coordinatesList.hash(), coordinatesList);
+                }
+            }
+            for (DetailedNotam notam : data.notams()) {
+                if (!indexed.containsKey(notam.id())) {
+                    final NotamGeometry geometry = NotamGeometry.of(notam, coordinatesLists);
+                    if (geometry != null) {
+                        indexed.put(notam.id(), geometry);
+                        geometries.add(geometry);
+                    }
+                }
+            }
+        }
+        return new NotamIndex(geometries);
+    }
+
+    /**
+     * Find the notams affecting a point.
+     * @param latitude The latitude of the point.
+     * @param longitude The longitude of the point.
+     * @return The notams with a circle or polygon containing the point.
+     */
+    public List<DetailedNotam> queryPoint(double latitude, double longitude) {
+        final List<DetailedNotam> notams = new ArrayList<>();
+        search(new BoundingBox(latitude, longitude, latitude, longitude), index -> {
+            if (geometries[index].contains(latitude, longitude)) {
+                notams.add(geometries[index].notam());
+            }
+        });
+        return notams;
+    }
+
+    /**
+     * Find the notams affecting a bounding box.
+     * @param box The bounding box.
+     * @return The notams with a bounding box intersecting the box (not checked against the exact geometry).
+     */
+    public List<DetailedNotam> queryBox(BoundingBox box) {
+        final BitSet found = new BitSet(geometries.length);
+        search(box, found::set);
+        return found.stream().mapToObj(index -> geometries[index].notam()).toList();
+    }
+
+    /**
+     * Find the notams affecting a corridor along a route.
+     * @param route The route (at least one point).
+     * @param width The maximum distance from the route in nautical miles.
+     * @return The notams with a circle or coordinates list closer than width to any route segment.
+     */
+    public List<DetailedNotam> queryCorridor(List<Coordinates> route, double width) {
+        final BitSet found = new BitSet(geometries.length);
+
+        // a single point is a segment of length 0
+        final int segments = Math.max(1, route.size() - 1);
+        for (int i = 0; i < segments; i++) {
+            final Coordinates from = route.get(i);
+            final Coordinates to = route.get(Math.min(i + 1, route.size() - 1));
+
+            final BoundingBox segment = BoundingBox.union(
+                    BoundingBox.ofCircle(from.latitude(), from.longitude(), width),
+                    BoundingBox.ofCircle(to.latitude(), to.longitude(), width)
+            );
+            search(segment, index -> {
+                if (!found.get(index) && geometries[index].intersectsSegment(from, to, width)) {
+                    found.set(index);
+                }
+            });
+        }
+
+        return found.stream().mapToObj(index -> geometries[index].notam()).toList();
+    }
+
+    /**
+     * @return The number of indexed notams.
+     */
+    public int size() {
+        return geometries.length;
+    }
+
+    private void search(BoundingBox box, IntConsumer consumer) {
+        if (!wrapsAntimeridian) {
+            tree.search(box, consumer);
+            return;
+        }
+
+        final BitSet candidates = new BitSet(geometries.length);
+        tree.search(box, candidates::set);
+        for (int shift : new int[]{-360, 360}) {
+            tree.search(new BoundingBox(box.minLatitude(), box.minLongitude() + shift, box.maxLatitude(), box.maxLongitude() + shift), candidates::set);
+        }
+        candidates.stream().forEach(consumer);
+    }
+}
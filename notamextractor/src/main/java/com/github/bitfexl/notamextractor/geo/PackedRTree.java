@@ -0,0 +1,241 @@
+package com.github.bitfexl.notamextractor.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * A static packed Hilbert R-tree over bounding boxes.
+ * The boxes are sorted by the Hilbert curve value of their centers and packed bottom-up into full nodes,
+ * all nodes are stored in flat arrays (no node objects), so building is a single sort and searching allocates nothing
+ * but a small stack. Queries return the indices of the boxes (position in the list the tree was built from).
+ * The tree can not be modified after building and is thread safe.
+ */
+public class PackedRTree {
+    private static final int DEFAULT_NODE_SIZE = 16;
+
+    private static final int HILBERT_MAX = (1 << 16) - 1;
+
+    private final int nodeSize;
+
+    private final int numItems;
+
+    /**
+     * minLongitude, minLatitude, maxLongitude, maxLatitude of every item (sorted), then of all nodes level by level.
+     */
+    private final double[] boxes;
+
+    /**
+     * For items the original index, for nodes the position of the first child in boxes.
+     */
+    private final int[] indices;
+
+    /**
+     * The end (exclusive, position in boxes) of every level, leaves first.
+     */
+    private final int[] levelBounds;
+
+    /**
+     * Build a tree with the default node size (16).
+     * @param items The bounding boxes to index.
+     */
+    public PackedRTree(List<BoundingBox> items) {
+        this(items, DEFAULT_NODE_SIZE);
+    }
+
+    /**
+     * Build a tree.
+     * @param items The bounding boxes to index.
+     * @param nodeSize The maximum number of children of a node.
+     */
+    public PackedRTree(List<BoundingBox> items, int nodeSize) {
+        if (nodeSize < 2) {
+            throw new IllegalArgumentException("Node size must be at least 2, but got " + nodeSize + ".");
+        }
+        this.nodeSize = nodeSize;
+        this.numItems = items.size();
+
+        final List<Integer> bounds = new ArrayList<>();
+        int count = numItems;
+        int numNodes = numItems;
+        bounds.add(numNodes * 4);
+        while (count > 1) {
+            count = (count + nodeSize - 1) / nodeSize;
+            numNodes += count;
+            bounds.add(numNodes * 4);
+        }
+        levelBounds = bounds.stream().mapToInt(Integer::intValue).toArray();
+        boxes = new double[numNodes * 4];
+        indices = new int[numNodes];
+
+        if (numItems == 0) {
+            return;
+        }
+
+        // --- sort the items by the hilbert value of their centers ---
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (BoundingBox box : items) {
+            minX = Math.min(minX, box.minLongitude());
+            minY = Math.min(minY, box.minLatitude());
+            maxX = Math.max(maxX, box.maxLongitude());
+            maxY = Math.max(maxY, box.maxLatitude());
+        }
+        final double width = maxX - minX == 0 ? 1 : maxX - minX;
+        final double height = maxY - minY == 0 ? 1 : maxY - minY;
+
+        // hilbert value in the upper, index in the lower 32 bit
+        final long[] order = new long[numItems];
+        for (int i = 0; i < numItems; i++) {
+            final BoundingBox box = items.get(i);
+            final int x = (int) (HILBERT_MAX * ((box.minLongitude() + box.maxLongitude()) / 2 - minX) / width);
+            final int y = (int) (HILBERT_MAX * ((box.minLatitude() + box.maxLatitude()) / 2 - minY) / height);
+            order[i] = (Integer.toUnsignedLong(hilbert(x, y)) << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int pos = 0;
+        for (long entry : order) {
+            final int index = (int) entry;
+            final BoundingBox box = items.get(index);
+            indices[pos / 4] = index;
+            boxes[pos++] = box.minLongitude();
+            boxes[pos++] = box.minLatitude();
+            boxes[pos++] = box.maxLongitude();
+            boxes[pos++] = box.maxLatitude();
+        }
+
+        // --- pack the nodes level by level ---
+
+        int childPos = 0;
+        for (int level = 0; level < levelBounds.length - 1; level++) {
+            final int end = levelBounds[level];
+            while (childPos < end) {
+                final int firstChild = childPos;
+                double nodeMinX = Double.POSITIVE_INFINITY, nodeMinY = Double.POSITIVE_INFINITY;
+                double nodeMaxX = Double.NEGATIVE_INFINITY, nodeMaxY = Double.NEGATIVE_INFINITY;
+                for (int j = 0; j < nodeSize && childPos < end; j++) {
+                    nodeMinX = Math.min(nodeMinX, boxes[childPos++]);
+                    nodeMinY = Math.min(nodeMinY, boxes[childPos++]);
+                    nodeMaxX = Math.max(nodeMaxX, boxes[childPos++]);
+                    nodeMaxY = Math.max(nodeMaxY, boxes[childPos++]);
+                }
+                indices[pos / 4] = firstChild;
+                boxes[pos++] = nodeMinX;
+                boxes[pos++] = nodeMinY;
+                boxes[pos++] = nodeMaxX;
+                boxes[pos++] = nodeMaxY;
+            }
+        }
+    }
+
+    /**
+     * Find all items intersecting (or touching) a bounding box.
+     * @param box The bounding box to search.
+     * @param consumer Called with the index of every intersecting item (in no particular order).
+     */
+    public void search(BoundingBox box, IntConsumer consumer) {
+        if (numItems == 0) {
+            return;
+        }
+
+        final double minX = box.minLongitude();
+        final double minY = box.minLatitude();
+        final double maxX = box.maxLongitude();
+        final double maxY = box.maxLatitude();
+
+        final int[] stack = new int[levelBounds.length * nodeSize];
+        int stackSize = 0;
+        int nodePos = boxes.length - 4;
+
+        while (true) {
+            final int end = Math.min(nodePos + nodeSize * 4, upperLevelBound(nodePos));
+            final boolean leaf = nodePos < numItems * 4;
+
+            for (int pos = nodePos; pos < end; pos += 4) {
+                if (maxX < boxes[pos] || maxY < boxes[pos + 1] || minX > boxes[pos + 2] || minY > boxes[pos + 3]) {
+                    continue;
+                }
+                if (leaf) {
+                    consumer.accept(indices[pos / 4]);
+                } else {
+                    stack[stackSize++] = indices[pos / 4];
+                }
+            }
+
+            if (stackSize == 0) {
+                return;
+            }
+            nodePos = stack[--stackSize];
+        }
+    }
+
+    /**
+     * @return The number of indexed items.
+     */
+    public int size() {
+        return numItems;
+    }
+
+    private int upperLevelBound(int nodePos) {
+        for (int bound : levelBounds) {
+            if (bound > nodePos) {
+                return bound;
+            }
+        }
+        return levelBounds[levelBounds.length - 1];
+    }
+
+    /**
+     * Position of a point on a 16 bit Hilbert curve
+     * (<a href="https://github.com/rawrunprotected/hilbert_curves">rawrunprotected/hilbert_curves</a>).
+     */
+    private static int hilbert(int x, int y) {
+        int a = x ^ y;
+        int b = 0xFFFF ^ a;
+        int c = 0xFFFF ^ (x | y);
+        int d = x & (y ^ 0xFFFF);
+
+        int A = a | (b >>> 1);
+        int B = (a >>> 1) ^ a;
+        int C = ((c >>> 1) ^ (b & (d >>> 1))) ^ c;
+        int D = ((a & (c >>> 1)) ^ (d >>> 1)) ^ d;
+
+        a = A; b = B; c = C; d = D;
+        A = (a & (a >>> 2)) ^ (b & (b >>> 2));
+        B = (a & (b >>> 2)) ^ (b & ((a ^ b) >>> 2));
+        C ^= (a & (c >>> 2)) ^ (b & (d >>> 2));
+        D ^= (b & (c >>> 2)) ^ ((a ^ b) & (d >>> 2));
+
+        a = A; b = B; c = C; d = D;
+        A = (a & (a >>> 4)) ^ (b & (b >>> 4));
+        B = (a & (b >>> 4)) ^ (b & ((a ^ b) >>> 4));
+        C ^= (a & (c >>> 4)) ^ (b & (d >>> 4));
+        D ^= (b & (c >>> 4)) ^ ((a ^ b) & (d >>> 4));
+
+        a = A; b = B; c = C; d = D;
+        C ^= (a & (c >>> 8)) ^ (b & (d >>> 8));
+        D ^= (b & (c >>> 8)) ^ ((a ^ b) & (d >>> 8));
+
+        a = C ^ (C >>> 1);
+        b = D ^ (D >>> 1);
+
+        int i0 = x ^ y;
+        int i1 = b | (0xFFFF ^ (i0 | a));
+
+        return (interleave(i1) << 1) | interleave(i0);
+    }
+
+    /**
+     * Spread the lower 16 bit to the even bits.
+     */
+    private static int interleave(int value) {
+        value = (value | (value << 8)) & 0x00FF00FF;
+        value = (value | (value << 4)) & 0x0F0F0F0F;
+        value = (value | (value << 2)) & 0x33333333;
+        value = (value | (value << 1)) & 0x55555555;
+        return value;
+    }
+}
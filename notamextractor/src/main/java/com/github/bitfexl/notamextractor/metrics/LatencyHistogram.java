@@ -0,0 +1,114 @@
+package com.github.bitfexl.notamextractor.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency histogram (nanoseconds) with log-linear buckets like HdrHistogram:
+ * every power of two is split into SUB_BUCKETS linear buckets, so a recorded value is kept with a relative
+ * error below 1 / SUB_BUCKETS (~3%) over the whole long range in a fixed number of counters.
+ * Recording is lock-free (one counter increment, a sum and a max update). Instances are thread safe,
+ * a snapshot taken while recording might miss concurrently recorded values.
+ */
+public class LatencyHistogram {
+    /**
+     * The counts, quantiles and sum of a histogram.
+     * @param count The number of recorded values.
+     * @param sum The sum of all recorded values in nanoseconds.
+     * @param max The largest recorded value in nanoseconds.
+     * @param p50 The median in nanoseconds (upper bound of its bucket, at most max).
+     * @param p90 The 90th percentile in nanoseconds.
+     * @param p99 The 99th percentile in nanoseconds.
+     * @param p999 The 99.9th percentile in nanoseconds.
+     */
+    public record Snapshot(long count, long sum, long max, long p50, long p90, long p99, long p999) {}
+
+    private static final int SUB_BUCKET_BITS = 5;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Values below SUB_BUCKETS are counted exactly, every following power of two (up to 2^62) has SUB_BUCKETS buckets.
+     */
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record a value.
+     * @param nanos The latency in nanoseconds, negative values are recorded as 0.
+     */
+    public void record(long nanos) {
+        final long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Record the time elapsed since a start time.
+     * @param startNanos The start time (System.nanoTime()).
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return The current counts and quantiles.
+     */
+    public Snapshot snapshot() {
+        final long[] bucketCounts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            bucketCounts[i] = counts.get(i);
+            count += bucketCounts[i];
+        }
+        final long max = this.max.get();
+        return new Snapshot(count, sum.sum(), max,
+                quantile(bucketCounts, count, max, 0.5),
+                quantile(bucketCounts, count, max, 0.9),
+                quantile(bucketCounts, count, max, 0.99),
+                quantile(bucketCounts, count, max, 0.999));
+    }
+
+    private static long quantile(long[] bucketCounts, long count, long max, double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return Math.min(max, upperBound(i));
+            }
+        }
+        return max;
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * @return The largest value counted in a bucket.
+     */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = bucket / SUB_BUCKETS - 1;
+        final long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,191 @@
+package com.github.bitfexl.notamextractor.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters and latency histograms of an extraction run, exported at the end of the run
+ * as a json run report (report()) and a Prometheus textfile (writePrometheusFile, e.g. for the node exporter).
+ * Metrics are identified by their name and an optional label (e.g. the country), names follow the Prometheus
+ * conventions (counters end with "_total", latencies are exported in seconds).
+ * Lookups are meant for setup (or once per country), the returned counters and histograms are cheap to update.
+ * Instances are thread safe.
+ */
+public class Metrics {
+    /**
+     * The name and optional label of a metric.
+     * @param name The metric name.
+     * @param label The label name or null.
+     * @param value The label value or null.
+     */
+    private record Key(String name, String label, String value) implements Comparable<Key> {
+        private static final Comparator<Key> ORDER = Comparator.comparing(Key::name)
+                .thenComparing(Key::label, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(Key::value, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+
+        private Map<String, String> labels() {
+            return label == null ? null : Map.of(label, value);
+        }
+    }
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final Instant start = Instant.now();
+
+    private final Map<Key, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private final Map<Key, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private final Map<String, String> help = new ConcurrentHashMap<>();
+
+    /**
+     * Get or create a counter.
+     * @param name The metric name (ending with "_total").
+     * @param help The description of the metric.
+     * @return The counter.
+     */
+    public LongAdder counter(String name, String help) {
+        return counter(name, help, null, null);
+    }
+
+    /**
+     * Get or create a labeled counter.
+     * @param name The metric name (ending with "_total").
+     * @param help The description of the metric.
+     * @param label The label name (e.g. "country").
+     * @param value The label value.
+     * @return The counter.
+     */
+    public LongAdder counter(String name, String help, String label, String value) {
+        this.help.putIfAbsent(name, help);
+        return counters.computeIfAbsent(new Key(name, label, value), key -> new LongAdder());
+    }
+
+    /**
+     * Get or create a latency histogram.
+     * @param name The metric name (ending with "_seconds").
+     * @param help The description of the metric.
+     * @return The histogram.
+     */
+    public LatencyHistogram histogram(String name, String help) {
+        this.help.putIfAbsent(name, help);
+        return histograms.computeIfAbsent(new Key(name, null, null), key -> new LatencyHistogram());
+    }
+
+    /**
+     * Create the json run report of the current values.
+     * @return The report, metrics ordered by name.
+     */
+    public RunReport report() {
+        final Instant now = Instant.now();
+
+        final List<RunReport.Counter> counterValues = new ArrayList<>();
+        for (Map.Entry<Key, LongAdder> counter : new TreeMap<>(counters).entrySet()) {
+            counterValues.add(new RunReport.Counter(counter.getKey().name(), counter.getKey().labels(), counter.getValue().sum()));
+        }
+
+        final List<RunReport.Histogram> histogramValues = new ArrayList<>();
+        for (Map.Entry<Key, LatencyHistogram> histogram : new TreeMap<>(histograms).entrySet()) {
+            final LatencyHistogram.Snapshot snapshot = histogram.getValue().snapshot();
+            histogramValues.add(new RunReport.Histogram(
+                    histogram.getKey().name(),
+                    histogram.getKey().labels(),
+                    snapshot.count(),
+                    seconds(snapshot.sum()),
+                    seconds(snapshot.max()),
+                    seconds(snapshot.p50()),
+                    seconds(snapshot.p90()),
+                    seconds(snapshot.p99()),
+                    seconds(snapshot.p999())
+            ));
+        }
+
+        return new RunReport(start.toString(), now.toString(), seconds(Duration.between(start, now).toNanos()), counterValues, histogramValues);
+    }
+
+    /**
+     * Write the current values in the Prometheus text format. Counters are exported as counters,
+     * histograms as summaries (quantiles, _sum and _count), the run as notamextractor_run_* gauges.
+     * The file is written to a temporary file first and moved in place (atomic for the textfile collector).
+     * @param file The file to write (e.g. notamextractor.prom).
+     * @throws IOException If the file could not be written.
+     */
+    public void writePrometheusFile(Path file) throws IOException {
+        final RunReport report = report();
+        final StringBuilder text = new StringBuilder();
+
+        appendHeader(text, "notamextractor_run_timestamp_seconds", "The end of the last run (unix time).", "gauge");
+        text.append("notamextractor_run_timestamp_seconds ").append(Instant.parse(report.end()).getEpochSecond()).append('\n');
+        appendHeader(text, "notamextractor_run_duration_seconds", "The duration of the last run.", "gauge");
+        text.append("notamextractor_run_duration_seconds ").append(report.durationSeconds()).append('\n');
+
+        String name = null;
+        for (RunReport.Counter counter : report.counters()) {
+            if (!counter.name().equals(name)) {
+                name = counter.name();
+                appendHeader(text, name, help.get(name), "counter");
+            }
+            text.append(name).append(labels(counter.labels(), null)).append(' ').append(counter.value()).append('\n');
+        }
+
+        for (RunReport.Histogram histogram : report.histograms()) {
+            if (!histogram.name().equals(name)) {
+                name = histogram.name();
+                appendHeader(text, name, help.get(name), "summary");
+            }
+            appendQuantile(text, histogram, "0.5", histogram.p50Seconds());
+            appendQuantile(text, histogram, "0.9", histogram.p90Seconds());
+            appendQuantile(text, histogram, "0.99", histogram.p99Seconds());
+            appendQuantile(text, histogram, "0.999", histogram.p999Seconds());
+            text.append(name).append("_sum").append(labels(histogram.labels(), null)).append(' ').append(histogram.sumSeconds()).append('\n');
+            text.append(name).append("_count").append(labels(histogram.labels(), null)).append(' ').append(histogram.count()).append('\n');
+        }
+
+        final Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmpFile, text, StandardCharsets.UTF_8);
+        Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void appendHeader(StringBuilder text, String name, String help, String type) {
+        text.append("# HELP ").append(name).append(' ').append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void appendQuantile(StringBuilder text, RunReport.Histogram histogram, String quantile, double value) {
+        text.append(histogram.name()).append(labels(histogram.labels(), quantile)).append(' ').append(value).append('\n');
+    }
+
+    private static String labels(Map<String, String> labels, String quantile) {
+        final StringJoiner joiner = new StringJoiner(",", "{", "}").setEmptyValue("");
+        if (labels != null) {
+            for (Map.Entry<String, String> label : labels.entrySet()) {
+                joiner.add(label.getKey() + "=\"" + escapeLabelValue(label.getValue()) + "\"");
+            }
+        }
+        if (quantile != null) {
+            joiner.add("quantile=\"" + quantile + "\"");
+        }
+        return joiner.toString();
+    }
+
+    private static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / NANOS_PER_SECOND;
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.bitfexl.notamextractor.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The json report of an extraction run (see Metrics.report()).
+ * @param start The start of the run (ISO 8601).
+ * @param end The end of the run (ISO 8601).
+ * @param durationSeconds The duration of the run.
+ * @param counters All counters, ordered by name and label.
+ * @param histograms All latency histograms, ordered by name and label.
+ */
+public record RunReport(String start, String end, double durationSeconds, List<Counter> counters, List<Histogram> histograms) {
+    /**
+     * @param name The metric name.
+     * @param labels The labels or null.
+     * @param value The value.
+     */
+    public record Counter(String name, Map<String, String> labels, long value) {}
+
+    /**
+     * @param name The metric name.
+     * @param labels The labels or null.
+     * @param count The number of recorded latencies.
+     * @param sumSeconds The sum of all latencies.
+     * @param maxSeconds The largest latency.
+     * @param p50Seconds The median.
+     * @param p90Seconds The 90th percentile.
+     * @param p99Seconds The 99th percentile.
+     * @param p999Seconds The 99.9th percentile.
+     */
+    public record Histogram(String name, Map<String, String> labels, long count, double sumSeconds, double maxSeconds,
+                            double p50Seconds, double p90Seconds, double p99Seconds, double p999Seconds) {}
+}
@@ -1,13 +1,14 @@
 package com.github.bitfexl.notamextractor.notamclient;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.bitfexl.notamextractor.metrics.LatencyHistogram;
+import com.github.bitfexl.notamextractor.metrics.Metrics;
 import lombok.SneakyThrows;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -16,18 +17,106 @@ import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * https://www.daip.jcs.mil/daip/mobile/index
  */
 public class DODAISClient implements NotamClient {
-    private static final URI QUERY_URL = URI.create("https://www.daip.jcs.mil/daip/mobile/query");
+    public static final URI QUERY_URL = URI.create("https://www.daip.jcs.mil/daip/mobile/query");
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DODAISResponseReader responseReader = new DODAISResponseReader();
+
+    private final URI queryUrl;
+
+    /**
+     * If not null every response is recorded.
+     */
+    private final ResponseRecording recording;
 
     private final HttpClient httpClient;
 
+    /**
+     * Limits the number of requests in flight to the upstream server.
+     */
+    private final Semaphore requestPermits;
+
+    /**
+     * Request latency (from sending the request until the response is read) and counts, null without metrics.
+     */
+    private final LatencyHistogram requestLatency;
+
+    private final LongAdder requests;
+
+    private final LongAdder failedRequests;
+
+    private final LongAdder receivedNotams;
+
+    /**
+     * Runs the queries of the async mode (waiting for a permit, the response and reading it) without blocking the caller.
+     * Cancelling a query interrupts its thread, so its request is cancelled and its permit released.
+     */
+    private final ExecutorService blockingExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dodais-", 0).factory());
+
+    /**
+     * Create a new client with at most 8 requests in flight at once.
+     */
+    public DODAISClient() {
+        this(8);
+    }
+
+    /**
+     * Create a new client.
+     * @param maxConcurrentRequests The maximum number of requests in flight at once (shared by all threads using this client).
+     */
+    public DODAISClient(int maxConcurrentRequests) {
+        this(QUERY_URL, maxConcurrentRequests, null);
+    }
+
+    /**
+     * Create a new client.
+     * @param queryUrl The url of the query endpoint (e.g. a DODAISStandInServer), default is QUERY_URL.
+     * @param maxConcurrentRequests The maximum number of requests in flight at once (shared by all threads using this client).
+     * @param recording If not null every response is recorded (see ReplayNotamClient).
+     */
+    public DODAISClient(URI queryUrl, int maxConcurrentRequests, ResponseRecording recording) {
+        this(queryUrl, maxConcurrentRequests, recording, null);
+    }
+
+    /**
+     * Create a new client.
+     * @param queryUrl The url of the query endpoint (e.g. a DODAISStandInServer), default is QUERY_URL.
+     * @param maxConcurrentRequests The maximum number of requests in flight at once (shared by all threads using this client).
+     * @param recording If not null every response is recorded (see ReplayNotamClient).
+     * @param metrics If not null the latency and number of requests and received notams are recorded.
+     */
+    public DODAISClient(URI queryUrl, int maxConcurrentRequests, ResponseRecording recording, Metrics metrics) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("At least one concurrent request must be allowed, but got " + maxConcurrentRequests + ".");
+        }
+        this.queryUrl = queryUrl;
+        this.recording = recording;
+        requestPermits = new Semaphore(maxConcurrentRequests);
+
+        if (metrics == null) {
+            requestLatency = null;
+            requests = null;
+            failedRequests = null;
+            receivedNotams = null;
+        } else {
+            requestLatency = metrics.histogram("notamextractor_upstream_request_seconds", "Latency of upstream requests (50 locations) including reading the response.");
+            requests = metrics.counter("notamextractor_upstream_requests_total", "Upstream requests sent.");
+            failedRequests = metrics.counter("notamextractor_upstream_request_failures_total", "Upstream requests failed (error or unexpected status).");
+            receivedNotams = metrics.counter("notamextractor_upstream_notams_total", "Raw notams received from upstream.");
+        }
+    }
+
     {
         // http client which does not check certificates as they are incorrect for source
 
@@ -52,7 +141,7 @@ public class DODAISClient implements NotamClient {
             final SSLContext sslContext = SSLContext.getInstance("SSL");
             sslContext.init(null, new TrustManager[] { trustManager } , null);
 
-            httpClient = HttpClient.newBuilder().sslContext(sslContext).build();
+            httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).sslContext(sslContext).build();
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         }
@@ -69,48 +158,141 @@ public class DODAISClient implements NotamClient {
         return notams;
     }
 
-    @SneakyThrows
+    /**
+     * Query notams by dispatching all batches of 50 locations at once.
+     * The number of batches in flight is limited by the same limit as the blocking queries.
+     * Cancelling the returned future cancels all batches not completed yet: batches waiting for a permit
+     * are not sent, requests in flight are cancelled and their permits released.
+     * @param locations The ICAO location identifiers to query.
+     * @return The notams in the same order as returned by queryNotmas.
+     */
+    @Override
+    public CompletableFuture<List<String>> queryNotmasAsync(List<String> locations) {
+        final List<CompletableFuture<List<String>>> batches = new ArrayList<>();
+
+        for (int i = 0; i < locations.size(); i += 50) {
+            batches.add(query50NotamsAsync(locations.subList(i, Math.min(locations.size(), i + 50))));
+        }
+
+        final CompletableFuture<List<String>> notams = CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            final List<String> batchNotams = new ArrayList<>();
+            for (CompletableFuture<List<String>> batch : batches) {
+                batchNotams.addAll(batch.join());
+            }
+            return batchNotams;
+        });
+        notams.whenComplete((result, ex) -> {
+            if (notams.isCancelled()) {
+                batches.forEach(batch -> batch.cancel(true));
+            }
+        });
+        return notams;
+    }
+
+    private CompletableFuture<List<String>> query50NotamsAsync(List<String> icaoIdentifiers) {
+        final HttpRequest request = buildRequest(icaoIdentifiers);
+
+        final CompletableFuture<List<String>> notams = new CompletableFuture<>();
+        final Future<?> query = blockingExecutor.submit(() -> {
+            try {
+                notams.complete(query50Notams(icaoIdentifiers, request));
+            } catch (Throwable ex) {
+                notams.completeExceptionally(ex);
+            }
+        });
+        // CompletableFuture.cancel does not interrupt, the query is only cancelled through its thread
+        notams.whenComplete((result, ex) -> {
+            if (notams.isCancelled()) {
+                query.cancel(true);
+            }
+        });
+        return notams;
+    }
+
     private List<String> query50Notams(List<String> icaoIdentifiers) {
+        return query50Notams(icaoIdentifiers, buildRequest(icaoIdentifiers));
+    }
+
+    /**
+     * Query a batch, blocks until the response is read.
+     * If the thread is interrupted (waiting for a permit or the response or while reading it) the query fails
+     * with an InterruptedException or InterruptedIOException, the request is cancelled and the permit released.
+     */
+    @SneakyThrows
+    private List<String> query50Notams(List<String> icaoIdentifiers, HttpRequest request) {
+        requestPermits.acquire();
+        final long startNanos = System.nanoTime();
+        final CompletableFuture<HttpResponse<InputStream>> response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        List<String> notams = null;
+        try {
+            notams = readNotams(icaoIdentifiers, await(response));
+            return notams;
+        } finally {
+            // no effect if the response has been received
+            response.cancel(true);
+            requestPermits.release();
+            recordRequest(startNanos, notams);
+        }
+    }
+
+    /**
+     * Wait for a future, the same exceptions as HttpClient.send are thrown.
+     */
+    @SneakyThrows
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * @param notams The received notams or null if the request failed.
+     */
+    private void recordRequest(long startNanos, List<String> notams) {
+        if (requestLatency == null) {
+            return;
+        }
+        requestLatency.recordSince(startNanos);
+        requests.increment();
+        if (notams == null) {
+            failedRequests.increment();
+        } else {
+            receivedNotams.add(notams.size());
+        }
+    }
+
+    private HttpRequest buildRequest(List<String> icaoIdentifiers) {
         if (icaoIdentifiers.size() > 50) {
             throw new IllegalArgumentException("Can only query up to 50 ICAO identifiers at once.");
         }
 
-        final HttpRequest request = HttpRequest.newBuilder()
-                .uri(QUERY_URL)
+        return HttpRequest.newBuilder()
+                .uri(queryUrl)
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(getBody(icaoIdentifiers)))
                 .build();
-
-        final HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-        if (response.statusCode() != 200) {
-            throw new RuntimeException("Got response: " + response.statusCode());
-        }
-
-        return findNotams(response.body());
     }
 
     @SneakyThrows
-    private List<String> findNotams(String response) {
-        final JsonNode node = objectMapper.readTree(response);
-        final List<String> notams = new ArrayList<>();
-        iterateObjects(node, jsonObject -> {
-            if (jsonObject.has("rawtext")) {
-                notams.add(jsonObject.get("rawtext").asText().trim());
+    private List<String> readNotams(List<String> icaoIdentifiers, HttpResponse<InputStream> response) {
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new RuntimeException("Got response: " + response.statusCode());
             }
-        });
-        return notams;
-    }
 
-    private void iterateObjects(JsonNode jsonNode, Consumer<ObjectNode> consumer) {
-        if (jsonNode instanceof ObjectNode objectNode) {
-            consumer.accept(objectNode);
-        }
+            final List<String> notams = new ArrayList<>();
 
-        if (jsonNode.isObject() || jsonNode.isArray()) {
-            for (JsonNode child : jsonNode) {
-                iterateObjects(child, consumer);
+            if (recording != null) {
+                final byte[] bytes = body.readAllBytes();
+                recording.write(icaoIdentifiers, bytes);
+                responseReader.readNotams(new ByteArrayInputStream(bytes), notams::add);
+            } else {
+                responseReader.readNotams(body, notams::add);
             }
+
+            return notams;
         }
     }
 
@@ -0,0 +1,47 @@
+package com.github.bitfexl.notamextractor.notamclient;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Streams the raw notams out of a DODAIS query response.
+ * The response is read token by token, so only the current notam text is held in memory.
+ */
+public class DODAISResponseReader {
+    private static final String RAW_TEXT_FIELD = "rawtext";
+
+    private final JsonFactory jsonFactory = JsonFactory.builder().disable(StreamReadFeature.AUTO_CLOSE_SOURCE).build();
+
+    /**
+     * Read every "rawtext" field (at any depth) of the response.
+     * Non string values are emitted as text, objects and arrays as an empty string.
+     * @param response The json response, is not closed.
+     * @param consumer Receives every raw notam (trimmed) as soon as it is read.
+     * @throws IOException If the response could not be read or is not valid json.
+     */
+    public void readNotams(InputStream response, Consumer<String> consumer) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(response)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.FIELD_NAME || !RAW_TEXT_FIELD.equals(parser.currentName())) {
+                    continue;
+                }
+
+                token = parser.nextToken();
+
+                if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                    // nested objects are still searched
+                    consumer.accept("");
+                } else {
+                    consumer.accept(parser.getText().trim());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.bitfexl.notamextractor.notamclient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A local stand-in for the DODAIS query endpoint (/daip/mobile/query) serving recorded responses.
+ * Used to load test the extraction without network access, point the extractor to it
+ * with NOTAMEXTRACTOR_UPSTREAM_URL=http://localhost:port/daip/mobile/query.
+ * Queries without a recorded response are answered with 404.
+ */
+public class DODAISStandInServer implements AutoCloseable {
+    public static final String QUERY_PATH = "/daip/mobile/query";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ResponseRecording recording;
+
+    private final Duration latency;
+
+    private final double errorRate;
+
+    private final HttpServer httpServer;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Start a new stand-in server.
+     * @param recording The recorded responses to serve.
+     * @param port The port to listen on, 0 for any free port.
+     * @param latency The additional time every response is delayed.
+     * @param errorRate The fraction (0-1) of requests answered with 500.
+     * @throws IOException If the server could not be started.
+     */
+    public DODAISStandInServer(ResponseRecording recording, int port, Duration latency, double errorRate) throws IOException {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("The error rate must be between 0 and 1, but got " + errorRate + ".");
+        }
+
+        this.recording = recording;
+        this.latency = latency;
+        this.errorRate = errorRate;
+
+        httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        httpServer.createContext(QUERY_PATH, this::handleQuery);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+    }
+
+    /**
+     * Get the port the server is listening on.
+     * @return The port.
+     */
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        executor.close();
+    }
+
+    private void handleQuery(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            final JsonNode query = objectMapper.readTree(exchange.getRequestBody());
+            final List<String> icaoIdentifiers = Arrays.stream(query.path("locs").asText().split(",")).filter(l -> !l.isEmpty()).toList();
+
+            if (!latency.isZero()) {
+                try {
+                    Thread.sleep(latency);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+
+            try (InputStream response = recording.open(icaoIdentifiers)) {
+                if (response == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    response.transferTo(body);
+                }
+            }
+        }
+    }
+
+    /**
+     * Run a stand-in server until the process is stopped.
+     * Arguments: recording directory [port (default 8090)] [latency in ms (default 0)] [error rate (default 0)]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: DODAISStandInServer <recording directory> [port] [latency ms] [error rate]");
+            System.exit(1);
+        }
+
+        final DODAISStandInServer server = new DODAISStandInServer(
+                new ResponseRecording(Path.of(args[0])),
+                args.length > 1 ? Integer.parseInt(args[1]) : 8090,
+                Duration.ofMillis(args.length > 2 ? Long.parseLong(args[2]) : 0),
+                args.length > 3 ? Double.parseDouble(args[3]) : 0
+        );
+
+        System.out.println("Serving recorded responses at http://localhost:" + server.getPort() + QUERY_PATH);
+    }
+}
@@ -1,7 +1,18 @@
 package com.github.bitfexl.notamextractor.notamclient;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface NotamClient {
     List<String> queryNotmas(List<String> locations);
+
+    /**
+     * Query notams without blocking the caller.
+     * The default implementation runs queryNotmas asynchronously.
+     * @param locations The ICAO location identifiers to query.
+     * @return The raw notams in the same order as returned by queryNotmas.
+     */
+    default CompletableFuture<List<String>> queryNotmasAsync(List<String> locations) {
+        return CompletableFuture.supplyAsync(() -> queryNotmas(locations));
+    }
 }
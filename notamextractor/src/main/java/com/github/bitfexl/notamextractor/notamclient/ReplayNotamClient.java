@@ -0,0 +1,46 @@
+package com.github.bitfexl.notamextractor.notamclient;
+
+import lombok.SneakyThrows;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays responses recorded by a DODAISClient without any network access.
+ * Locations are queried in the same batches of 50 as in the DODAISClient.
+ */
+public class ReplayNotamClient implements NotamClient {
+    private final DODAISResponseReader responseReader = new DODAISResponseReader();
+
+    private final ResponseRecording recording;
+
+    /**
+     * Create a new replaying client.
+     * @param recording The recorded responses.
+     */
+    public ReplayNotamClient(ResponseRecording recording) {
+        this.recording = recording;
+    }
+
+    @Override
+    public List<String> queryNotmas(List<String> locations) {
+        final List<String> notams = new ArrayList<>();
+
+        for (int i = 0; i < locations.size(); i += 50) {
+            replay50Notams(locations.subList(i, Math.min(locations.size(), i + 50)), notams);
+        }
+
+        return notams;
+    }
+
+    @SneakyThrows
+    private void replay50Notams(List<String> icaoIdentifiers, List<String> notams) {
+        try (InputStream response = recording.open(icaoIdentifiers)) {
+            if (response == null) {
+                throw new IllegalStateException("No recorded response for " + String.join(",", icaoIdentifiers) + ".");
+            }
+            responseReader.readNotams(response, notams::add);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.bitfexl.notamextractor.notamclient;
+
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * A directory of recorded DODAIS query responses.
+ * Every response is stored in its own file named after the hash of the queried ICAO identifiers (in query order),
+ * so a recording can only be replayed with the same batches of locations.
+ */
+public class ResponseRecording {
+    private final Path directory;
+
+    /**
+     * Create a new recording.
+     * @param directory The directory the responses are stored in, created if it does not exist.
+     */
+    @SneakyThrows
+    public ResponseRecording(Path directory) {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * Store a response, an existing response for the same identifiers is replaced.
+     * @param icaoIdentifiers The queried ICAO identifiers.
+     * @param response The response body.
+     * @throws IOException If the response could not be written.
+     */
+    public void write(List<String> icaoIdentifiers, byte[] response) throws IOException {
+        final Path file = getFile(icaoIdentifiers);
+        final Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmpFile, response);
+        Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Open a recorded response.
+     * @param icaoIdentifiers The queried ICAO identifiers.
+     * @return The response body or null if no response was recorded for these identifiers.
+     * @throws IOException If the response could not be opened.
+     */
+    public InputStream open(List<String> icaoIdentifiers) throws IOException {
+        final Path file = getFile(icaoIdentifiers);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        return Files.newInputStream(file);
+    }
+
+    @SneakyThrows
+    private Path getFile(List<String> icaoIdentifiers) {
+        final byte[] hash = MessageDigest.getInstance("SHA-256").digest(String.join(",", icaoIdentifiers).getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(HexFormat.of().formatHex(hash, 0, 16) + ".json");
+    }
+}
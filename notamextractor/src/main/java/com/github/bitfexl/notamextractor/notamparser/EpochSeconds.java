@@ -0,0 +1,72 @@
+package com.github.bitfexl.notamextractor.notamparser;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Conversion of timestamps stored as epoch seconds (UTC) to and from the ISO 8601 wire format ("2024-01-31T12:00:00Z").
+ */
+public final class EpochSeconds {
+    private EpochSeconds() {}
+
+    /**
+     * @param epochSecond The timestamp in epoch seconds.
+     * @return The timestamp in the ISO 8601 format.
+     */
+    public static String format(long epochSecond) {
+        return Instant.ofEpochSecond(epochSecond).toString();
+    }
+
+    /**
+     * @param isoDateTime The timestamp in the ISO 8601 format.
+     * @return The timestamp in epoch seconds.
+     * @throws IllegalArgumentException If the timestamp is not a valid ISO 8601 instant.
+     */
+    public static long parse(String isoDateTime) {
+        try {
+            return Instant.parse(isoDateTime).getEpochSecond();
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid date-time '" + isoDateTime + "'.", ex);
+        }
+    }
+
+    /**
+     * Writes epoch seconds in the ISO 8601 format.
+     */
+    public static class Serializer extends StdSerializer<Long> {
+        public Serializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeString(format(value));
+        }
+    }
+
+    /**
+     * Reads epoch seconds from the ISO 8601 format.
+     */
+    public static class Deserializer extends StdDeserializer<Long> {
+        public Deserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            try {
+                return parse(parser.getValueAsString());
+            } catch (IllegalArgumentException ex) {
+                throw context.weirdStringException(parser.getValueAsString(), Long.class, ex.getMessage());
+            }
+        }
+    }
+}
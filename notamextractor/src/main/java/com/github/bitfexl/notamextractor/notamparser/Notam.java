@@ -1,13 +1,17 @@
 package com.github.bitfexl.notamextractor.notamparser;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Builder;
 import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 import java.util.List;
 import java.util.Objects;
 
 @Value
 @Builder
+@Jacksonized // deserialization (notam store)
 public class Notam {
     /**
      * The raw notam text.
@@ -113,19 +117,27 @@ public class Notam {
     List<String> locationIndicators;
 
     /**
-     * The date and time as provided in item B (UTC).
-     * In the ISO 8601 (https://en.wikipedia.org/wiki/ISO_8601) format.
+     * The date and time as provided in item B (UTC) in epoch seconds.
+     * Serialized in the ISO 8601 (https://en.wikipedia.org/wiki/ISO_8601) format,
+     * "2400" as the next day at "0000".
+     * Null if item B is missing or not a valid date-time group.
+     * Boxed, so missing times are left out of the json (Include.NON_NULL) and the builder.
      */
-    // TODO: REAL DATES
-    String from;
+    @JsonSerialize(using = EpochSeconds.Serializer.class)
+    @JsonDeserialize(using = EpochSeconds.Deserializer.class)
+    Long from;
 
     /**
-     * The date and time as provided in item C (UTC).
-     * In the ISO 8601 (https://en.wikipedia.org/wiki/ISO_8601) format.
-     * Might be null, in which case isPermanent should be true.
+     * The date and time as provided in item C (UTC) in epoch seconds.
+     * Serialized in the ISO 8601 (https://en.wikipedia.org/wiki/ISO_8601) format,
+     * "2400" as the next day at "0000".
+     * Null if isPermanent is true or item C is missing or not a valid date-time group.
      * Might be an estimation in which case isEstimation should be true.
+     * Boxed like from.
      */
-    String to;
+    @JsonSerialize(using = EpochSeconds.Serializer.class)
+    @JsonDeserialize(using = EpochSeconds.Deserializer.class)
+    Long to;
 
     /**
      * If item C (to) is "PERM".
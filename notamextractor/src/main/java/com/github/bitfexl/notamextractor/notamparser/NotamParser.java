@@ -1,15 +1,46 @@
 package com.github.bitfexl.notamextractor.notamparser;
 
+import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.util.*;
 
 /**
  * Parse notams according to Icao Doc 8126
  * https://www.icao.int/NACC/Documents/eDOCS/AIM/8126_unedited_en%20Jul2021.pdf
+ * <p>
+ * The raw notam is scanned in place using offsets, only the final field values are copied out of it.
+ * Line breaks in the notam body are read as spaces (the body is treated as a single line).
+ * With a string pool the short repetitive fields (fir, notam code, location indicators, schedule, limits,
+ * created and source) are deduplicated, the pool might be shared by parsers on different threads.
  */
 public class NotamParser {
     private final String CREATED_PREFIX = "CREATED:";
     private final String SOURCE_PREFIX = "SOURCE:";
 
+    private static final char[] ITEMS = {'Q', 'A', 'B', 'C', 'D', 'E', 'F', 'G'};
+    private static final int ITEM_Q = 0;
+    private static final int ITEM_E = 5;
+
+    /**
+     * The pool for repetitive fields, might be null.
+     */
+    private final StringPool stringPool;
+
+    /**
+     * Create a new parser without a string pool.
+     */
+    public NotamParser() {
+        this(null);
+    }
+
+    /**
+     * Create a new parser.
+     * @param stringPool The pool to deduplicate repetitive fields with, null for none.
+     */
+    public NotamParser(StringPool stringPool) {
+        this.stringPool = stringPool;
+    }
+
     /**
      * Parse a notam according to ICAO Annex 15 Appendix 6.
      * @param rawNotam The raw notam text.
@@ -23,94 +54,202 @@ public class NotamParser {
             return notam.build();
         }
 
-        final String[] lines = rawNotam.split("\n", 2);
+        final int headerEnd = rawNotam.indexOf('\n');
 
-        if (lines.length != 2) {
+        if (headerEnd == -1) {
             // might happen in NOTAMC?
             throw new IllegalArgumentException("Only header???");
         }
 
-        parseHeader(notam, lines[0]);
+        parseHeader(notam, rawNotam, headerEnd);
+
+        // --- parse created and source (last two lines) ---
+
+        final int bodyStart = headerEnd + 1;
+        int bodyEnd = rawNotam.length();
+
+        // trailing empty lines are ignored
+        while (bodyEnd > bodyStart && rawNotam.charAt(bodyEnd - 1) == '\n') {
+            bodyEnd--;
+        }
+
+        final int lastLineStart = rawNotam.lastIndexOf('\n', bodyEnd - 1) + 1;
+        final int secondLastLineStart = lastLineStart > bodyStart ? rawNotam.lastIndexOf('\n', lastLineStart - 2) + 1 : bodyStart;
 
-        // parse created and source
-        List<String> notamBody = new ArrayList<>(List.of(lines[1].split("\n")));
+        boolean hasCreated = false;
+        boolean hasSource = false;
 
-        if (notamBody.size() > 2) {
-            String s;
-            if ((s = notamBody.get(notamBody.size() - 2)).startsWith(CREATED_PREFIX)) {
-                notam.created(s.substring(CREATED_PREFIX.length()).trim());
-                notamBody.remove(notamBody.size() - 2);
+        // only if the body has more than two lines
+        if (secondLastLineStart > bodyStart) {
+            if (rawNotam.startsWith(CREATED_PREFIX, secondLastLineStart)) {
+                notam.created(trimmed(rawNotam, secondLastLineStart + CREATED_PREFIX.length(), lastLineStart - 1));
+                hasCreated = true;
             }
-            if ((s = notamBody.get(notamBody.size() - 1)).startsWith(SOURCE_PREFIX)) {
-                notam.source(s.substring(SOURCE_PREFIX.length()).trim());
-                notamBody.remove(notamBody.size() - 1);
+            if (rawNotam.startsWith(SOURCE_PREFIX, lastLineStart)) {
+                notam.source(trimmed(rawNotam, lastLineStart + SOURCE_PREFIX.length(), bodyEnd));
+                hasSource = true;
             }
         }
 
-        Map<Character, String> items = parseItems(String.join(" ", notamBody));
+        // --- parse items ---
 
-        for (char item : items.keySet()){
-            switch (item) {
-                case 'Q': parseItemQ(notam, items.get(item)); break;
-                case 'A': parseItemA(notam, items.get(item)); break;
-                case 'B': parseItemB(notam, items.get(item)); break;
-                case 'C': parseItemC(notam, items.get(item)); break;
-                case 'D': parseItemD(notam, items.get(item)); break;
-                case 'E': parseItemE(notam, items.get(item)); break;
-                case 'F': parseItemF(notam, items.get(item)); break;
-                case 'G': parseItemG(notam, items.get(item)); break;
-                default: throw new IllegalArgumentException("Unknown item '" + item + "'.");
+        final CharSequence body;
+        final int offset;
+        final int length;
+
+        if (hasCreated && !hasSource) {
+            // the created line is in between the body and the last line, which is still part of the body
+            body = rawNotam.substring(bodyStart, secondLastLineStart - 1) + " " + rawNotam.substring(lastLineStart, bodyEnd);
+            offset = 0;
+            length = body.length();
+        } else {
+            body = rawNotam;
+            offset = bodyStart;
+            length = Math.max(0, (hasCreated ? secondLastLineStart : hasSource ? lastLineStart : bodyEnd + 1) - 1 - bodyStart);
+        }
+
+        final int[] items = locateItems(body, offset, offset + length);
+
+        for (int i = 0; i < ITEMS.length; i++) {
+            final int start = items[i * 2];
+            final int end = items[i * 2 + 1];
+
+            if (start == -1) {
+                continue;
+            }
+
+            switch (ITEMS[i]) {
+                case 'Q': parseItemQ(notam, body, start, end); break;
+                case 'A': parseItemA(notam, body, start, end); break;
+                case 'B': parseItemB(notam, body, start, end); break;
+                case 'C': parseItemC(notam, body, start, end); break;
+                case 'D': notam.schedule(pooledText(body, start, end)); break;
+                case 'E': notam.notamText(text(body, start, end)); break;
+                case 'F': notam.lowerLimit(pooledText(body, start, end)); break;
+                case 'G': notam.upperLimit(pooledText(body, start, end)); break;
+                default: throw new IllegalArgumentException("Unknown item '" + ITEMS[i] + "'.");
             }
         }
 
         return notam.build();
     }
 
-    private void parseHeader(Notam.NotamBuilder notam, String header) {
-        final String[] parts = Arrays.stream(header.split("[/ ]")).filter(p -> !p.isEmpty()).toArray(String[]::new);
+    private void parseHeader(Notam.NotamBuilder notam, String raw, int headerEnd) {
+        // the header consists of up to 5 parts separated by "/" or " ":
+        // series + number, year, type, previous series + number, previous year
+        final int[] parts = new int[10];
+        int partCount = 0;
 
-        notam.series(parts[0].charAt(0));
-        notam.number(Integer.parseInt(parts[0].substring(1)));
+        for (int i = 0; i < headerEnd && partCount < 5; ) {
+            while (i < headerEnd && isHeaderSeparator(raw.charAt(i))) {
+                i++;
+            }
+            if (i == headerEnd) {
+                break;
+            }
+            final int start = i;
+            while (i < headerEnd && !isHeaderSeparator(raw.charAt(i))) {
+                i++;
+            }
+            parts[partCount * 2] = start;
+            parts[partCount * 2 + 1] = i;
+            partCount++;
+        }
 
-        notam.year(parseYear(Integer.parseInt(parts[1])));
+        if (partCount < 3) {
+            throw new IllegalArgumentException("Invalid header '" + raw.substring(0, headerEnd) + "'.");
+        }
+
+        notam.series(raw.charAt(parts[0]));
+        notam.number(Integer.parseInt(raw, parts[0] + 1, parts[1], 10));
 
-        final NotamType type = NotamType.parse(parts[2]);
+        notam.year(parseYear(Integer.parseInt(raw, parts[2], parts[3], 10)));
+
+        final NotamType type = parseType(raw, parts[4], parts[5]);
         notam.type(type);
 
         if (type != NotamType.NEW) {
+            if (partCount < 5) {
+                throw new IllegalArgumentException("Invalid header '" + raw.substring(0, headerEnd) + "', previous notam missing.");
+            }
             notam.previousNotam(
                 Notam.builder()
-                    .series(parts[3].charAt(0))
-                    .number(Integer.parseInt(parts[3].substring(1)))
-                    .year(parseYear(Integer.parseInt(parts[4])))
+                    .series(raw.charAt(parts[6]))
+                    .number(Integer.parseInt(raw, parts[6] + 1, parts[7], 10))
+                    .year(parseYear(Integer.parseInt(raw, parts[8], parts[9], 10)))
                     .build()
             );
         }
     }
 
+    private boolean isHeaderSeparator(char c) {
+        return c == '/' || c == ' ';
+    }
+
+    private NotamType parseType(String raw, int start, int end) {
+        if (end - start == 6 && raw.startsWith("NOTAM", start)) {
+            switch (raw.charAt(start + 5)) {
+                case 'N': return NotamType.NEW;
+                case 'R': return NotamType.REPLACE;
+                case 'C': return NotamType.CANCEL;
+            }
+        }
+        return NotamType.parse(raw.substring(start, end));
+    }
+
     /**
-     * Get a map of every item in the notam.
-     * @param raw The notam without header and CREATED, SOURCE at the bottom (from dins?), singele line.
-     * @return A map of every item contained in the notam.
+     * Find the start and end of every item in the notam body in a single pass.
+     * Item Q starts with "Q) ", every other item with " X) ".
+     * The items must be in the order Q, A, B, C, D, E, F, G, missing items are skipped.
+     * Item F and G are searched from the end (item E might contain " F) " or " G) ")
+     * and item D is ignored if it is found after item E (" D) " contained in item E).
+     * @param body The notam body (without header and CREATED, SOURCE at the bottom), line breaks are read as spaces.
+     * @param bodyStart The start of the body (inclusive).
+     * @param bodyEnd The end of the body (exclusive).
+     * @return The start and end of each item (Q, A, ..., G) in the body, -1 if the item is missing.
      */
-    private Map<Character, String> parseItems(String raw) {
-        Map<Character, String> items = new HashMap<>();
+    private int[] locateItems(CharSequence body, int bodyStart, int bodyEnd) {
+        int itemQ = -1;
 
-        Character currentItem = null;
-        int currentStartingIndex = 0;
+        // every occurrence of " X) " (X: A-G) as: position << 3 | item index - 1
+        int[] markers = new int[16];
+        int markerCount = 0;
 
-        for (char item : new char[] {'Q', 'A', 'B', 'C', 'D', 'E', 'F', 'G'}) {
-            // Q is the first item, so no space
-            final String nextItemName = item == 'Q' ? "Q) " : " " + item + ") ";
+        for (int i = bodyStart; i + 2 < bodyEnd; i++) {
+            if (body.charAt(i + 1) != ')' && body.charAt(i + 2) != ')') {
+                continue;
+            }
 
-            final int nextItemIndex;
+            final char c = body.charAt(i);
+
+            if (c == 'Q' && itemQ == -1 && body.charAt(i + 1) == ')' && isSpace(body.charAt(i + 2))) {
+                itemQ = i;
+            } else if (i + 3 < bodyEnd && isSpace(c) && body.charAt(i + 2) == ')' && isSpace(body.charAt(i + 3))) {
+                final char item = body.charAt(i + 1);
+                if (item >= 'A' && item <= 'G') {
+                    if (markerCount == markers.length) {
+                        markers = Arrays.copyOf(markers, markerCount * 2);
+                    }
+                    markers[markerCount++] = ((i - bodyStart) << 3) | (item - 'A');
+                }
+            }
+        }
+
+        final int[] items = new int[ITEMS.length * 2];
+        Arrays.fill(items, -1);
 
-            // item F and G are after item E but item E might contain " F) " or " G) "
+        int currentItem = -1;
+        int currentStartingIndex = bodyStart;
 
-            if (item == 'F' || item == 'G') {
-                nextItemIndex = raw.lastIndexOf(nextItemName);
+        for (int item = 0; item < ITEMS.length; item++) {
+            final int nextItemIndex;
+
+            if (item == ITEM_Q) {
+                nextItemIndex = itemQ;
+            } else if (ITEMS[item] == 'F' || ITEMS[item] == 'G') {
+                nextItemIndex = lastMarker(markers, markerCount, item, bodyStart);
             } else {
-                nextItemIndex = raw.indexOf(nextItemName, currentStartingIndex);
+                nextItemIndex = nextMarker(markers, markerCount, item, currentStartingIndex, bodyStart);
             }
 
             if (nextItemIndex == -1) {
@@ -118,111 +257,217 @@ public class NotamParser {
                 continue;
             }
 
-            // item D is optional and " D) " might be contained in item E
-
-            if (item == 'D') {
-                final int itemEIndex = raw.indexOf(" E) ", currentStartingIndex);
+            if (ITEMS[item] == 'D') {
+                final int itemEIndex = nextMarker(markers, markerCount, ITEM_E, currentStartingIndex, bodyStart);
                 if (itemEIndex != -1 && itemEIndex < nextItemIndex) {
                     // skip as item D does not exist (string is contained in item E)
                     continue;
                 }
             }
 
-            if (currentItem != null) {
-                items.put(currentItem, raw.substring(currentStartingIndex, nextItemIndex));
+            if (currentItem != -1) {
+                if (nextItemIndex < currentStartingIndex) {
+                    throw new IllegalArgumentException("Item '" + ITEMS[item] + "' found before item '" + ITEMS[currentItem] + "'.");
+                }
+                items[currentItem * 2] = currentStartingIndex;
+                items[currentItem * 2 + 1] = nextItemIndex;
             }
 
             currentItem = item;
-            currentStartingIndex = nextItemIndex + nextItemName.length();
+            currentStartingIndex = nextItemIndex + (item == ITEM_Q ? 3 : 4);
         }
 
-        if (currentItem != null) {
-            items.put(currentItem, raw.substring(currentStartingIndex));
+        if (currentItem != -1) {
+            items[currentItem * 2] = currentStartingIndex;
+            items[currentItem * 2 + 1] = bodyEnd;
         }
 
         return items;
     }
 
-    private void parseItemQ(Notam.NotamBuilder notam, String itemQ) {
-        itemQ = itemQ.trim();
+    /**
+     * Find the first marker of an item at or after a position.
+     * @return The position or -1 if not found.
+     */
+    private int nextMarker(int[] markers, int markerCount, int item, int from, int bodyStart) {
+        for (int i = 0; i < markerCount; i++) {
+            final int position = (markers[i] >>> 3) + bodyStart;
+            if ((markers[i] & 0b111) == item - 1 && position >= from) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the last marker of an item.
+     * @return The position or -1 if not found.
+     */
+    private int lastMarker(int[] markers, int markerCount, int item, int bodyStart) {
+        for (int i = markerCount - 1; i >= 0; i--) {
+            if ((markers[i] & 0b111) == item - 1) {
+                return (markers[i] >>> 3) + bodyStart;
+            }
+        }
+        return -1;
+    }
 
+    private void parseItemQ(Notam.NotamBuilder notam, CharSequence body, int start, int end) {
         // 8 fields separated by a stroke
-        String[] parts = itemQ.split("/", -1);
+        final int[] parts = new int[16];
+        int partCount = 0;
+        int partStart = start;
+
+        for (int i = start; i <= end; i++) {
+            if (i == end || body.charAt(i) == '/') {
+                if (partCount < 8) {
+                    parts[partCount * 2] = partStart;
+                    parts[partCount * 2 + 1] = i;
+                }
+                partCount++;
+                partStart = i + 1;
+            }
+        }
 
         // sometimes the items are also separated by space (no technically correct)
-        if (parts.length < 7 /* 8 but coordinates are often missing */) {
+        if (partCount < 7 /* 8 but coordinates are often missing */) {
             System.err.println("Got less than the required parts in Q line for notam:\n" + notam.build().getRaw());
-//            parts = itemQ.split("[/ ]", -1);
             // TODO: try something when separated by space, causes errors
         }
 
-        for (int i = 0; i < parts.length; i++) {
-            parts[i] = parts[i].trim();
+        // trim all parts
+        for (int i = 0; i < Math.min(partCount, 8); i++) {
+            int partEnd = parts[i * 2 + 1];
+            partStart = parts[i * 2];
+            while (partStart < partEnd && body.charAt(partStart) <= ' ') {
+                partStart++;
+            }
+            while (partEnd > partStart && body.charAt(partEnd - 1) <= ' ') {
+                partEnd--;
+            }
+            parts[i * 2] = partStart;
+            parts[i * 2 + 1] = partEnd;
         }
 
         // sometimes only the Q code is given
-        if (parts.length == 1 && parts[0].length() == 5 && parts[0].startsWith("Q")) {
-            notam.notamCode(parts[0].trim());
-        } else if (parts.length >= 1) {
-            notam.fir(parts[0].trim());
+        if (partCount == 1 && parts[1] - parts[0] == 5 && body.charAt(parts[0]) == 'Q') {
+            notam.notamCode(pooledText(body, parts[0], parts[1]));
+        } else {
+            notam.fir(pooledText(body, parts[0], parts[1]));
         }
-        if (parts.length > 1) {
-            notam.notamCode(parts[1].trim());
+        if (partCount > 1) {
+            notam.notamCode(pooledText(body, parts[2], parts[3]));
         }
-        if (parts.length > 2 && !parts[2].isEmpty()) {
-            notam.traffic(Traffic.parse(parts[2]));
+        if (partCount > 2 && parts[4] < parts[5]) {
+            notam.traffic(Traffic.parse(body, parts[4], parts[5]));
         }
-        if (parts.length > 3 && !parts[3].isEmpty()) {
-            notam.purposes(NotamPurpose.parse(parts[3]));
+        if (partCount > 3 && parts[6] < parts[7]) {
+            notam.purposes(NotamPurpose.parse(body, parts[6], parts[7]));
         }
-        if (parts.length > 4 && !parts[4].isEmpty()) {
-            notam.scopes(NotamScope.parse(parts[4]));
+        if (partCount > 4 && parts[8] < parts[9]) {
+            notam.scopes(NotamScope.parse(body, parts[8], parts[9]));
         }
-        if (parts.length > 5 && !parts[5].isEmpty()) {
-            notam.qLower(Integer.parseInt(parts[5]));
+        if (partCount > 5 && parts[10] < parts[11]) {
+            notam.qLower(Integer.parseInt(body, parts[10], parts[11], 10));
         }
-        if (parts.length > 6 && !parts[6].isEmpty()) {
-            notam.qUpper(Integer.parseInt(parts[6]));
+        if (partCount > 6 && parts[12] < parts[13]) {
+            notam.qUpper(Integer.parseInt(body, parts[12], parts[13], 10));
         }
-        if (parts.length > 7 && !parts[7].isEmpty()) {
-            parseCordsItemQ(notam, parts[7]);
+        if (partCount > 7 && parts[14] < parts[15]) {
+            parseCordsItemQ(notam, body, parts[14], parts[15]);
         }
     }
 
-    private void parseItemA(Notam.NotamBuilder notam, String itemA) {
-        notam.locationIndicators(Arrays.stream(itemA.split(" ")).filter(l -> l.length() > 0).toList());
+    private void parseItemA(Notam.NotamBuilder notam, CharSequence body, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (!isSpace(body.charAt(i)) && (i == start || isSpace(body.charAt(i - 1)))) {
+                count++;
+            }
+        }
+
+        final String[] locationIndicators = new String[count];
+        int index = 0;
+        int i = start;
+
+        while (index < count) {
+            while (isSpace(body.charAt(i))) {
+                i++;
+            }
+            final int locationStart = i;
+            while (i < end && !isSpace(body.charAt(i))) {
+                i++;
+            }
+            locationIndicators[index++] = stringPool == null ? body.subSequence(locationStart, i).toString() : stringPool.intern(body, locationStart, i);
+        }
+
+        notam.locationIndicators(List.of(locationIndicators));
     }
 
-    private void parseItemB(Notam.NotamBuilder notam, String itemB) {
+    private void parseItemB(Notam.NotamBuilder notam, CharSequence body, int start, int end) {
         // TODO: "WIE" ???
-        notam.from(parseDateTimeGroup(itemB.trim()));
+        final int trimmedStart = trimStart(body, start, end);
+        notam.from(parseDateTimeGroup(body, trimmedStart, trimEnd(body, trimmedStart, end)));
     }
 
-    private void parseItemC(Notam.NotamBuilder notam, String itemC) {
-        if (itemC.trim().equalsIgnoreCase("PERM")) {
+    private void parseItemC(Notam.NotamBuilder notam, CharSequence body, int start, int end) {
+        final int trimmedStart = trimStart(body, start, end);
+        final int trimmedEnd = trimEnd(body, trimmedStart, end);
+
+        if (trimmedEnd - trimmedStart == 4 && body.subSequence(trimmedStart, trimmedEnd).toString().equalsIgnoreCase("PERM")) {
             notam.isPermanent(true);
         } else {
-            notam.to(parseDateTimeGroup(itemC.trim()));
-            notam.isEstimation(itemC.contains("EST"));
+            final Long to = parseDateTimeGroup(body, trimmedStart, trimmedEnd);
+            notam.to(to);
+            if (to != null) {
+                notam.isEstimation(contains(body, start, end, "EST"));
+            }
         }
 
         // TODO: although explicitly forbidden some notams use "UFN"
     }
 
-    private void parseItemD(Notam.NotamBuilder notam, String itemD) {
-        notam.schedule(itemD);
-    }
+    private void parseCordsItemQ(Notam.NotamBuilder notam, CharSequence body, int start, int end) {
+        // https://en.wikipedia.org/wiki/ISO_6709
+        // fast path for digits only (e.g. "4807N01633E005"), everything else is parsed from a copy
+        int latitudeEnd = -1;
+        int longitudeEnd = -1;
+        boolean south = false;
+        boolean west = false;
+
+        for (int i = start; i < end; i++) {
+            final char c = body.charAt(i);
+            if (c == 'N' || c == 'S' || c == 'n' || c == 's') {
+                if (latitudeEnd != -1) {
+                    latitudeEnd = -2;
+                    break;
+                }
+                latitudeEnd = i;
+                south |= c == 'S' || c == 's';
+            } else if (c == 'E' || c == 'W' || c == 'e' || c == 'w') {
+                if (latitudeEnd < 0 || longitudeEnd != -1) {
+                    latitudeEnd = -2;
+                    break;
+                }
+                longitudeEnd = i;
+                west |= c == 'W' || c == 'w';
+            } else if (c < '0' || c > '9') {
+                latitudeEnd = -2;
+                break;
+            }
+        }
 
-    private void parseItemE(Notam.NotamBuilder notam, String itemE) {
-        notam.notamText(itemE);
-    }
+        if (latitudeEnd < 0 || longitudeEnd < 0) {
+            parseCordsItemQ(notam, body.subSequence(start, end).toString().replace('\n', ' '));
+            return;
+        }
 
-    private void parseItemF(Notam.NotamBuilder notam, String itemF) {
-        notam.lowerLimit(itemF);
-    }
+        notam.latitude(parseCord(body, start, latitudeEnd) * (south ? -1 : 1));
+        notam.longitude(parseCord(body, latitudeEnd + 1, longitudeEnd) * (west ? -1 : 1));
 
-    private void parseItemG(Notam.NotamBuilder notam, String itemG) {
-        notam.upperLimit(itemG);
+        if (longitudeEnd + 1 < end) {
+            notam.radius(Integer.parseInt(body, longitudeEnd + 1, end, 10));
+        }
     }
 
     private void parseCordsItemQ(Notam.NotamBuilder notam, String cords) {
@@ -251,6 +496,23 @@ public class NotamParser {
         }
     }
 
+    /**
+     * Parse a coordinate consisting of digits only.
+     */
+    private double parseCord(CharSequence c, int start, int end) {
+        final int length = end - start;
+        if (length < 4) {
+            throw new IllegalArgumentException("Invalid coordinate '" + c.subSequence(start, end) + "'.");
+        }
+        final int offset = length % 2;
+        double cord = digits(c, start, start + 2 + offset);
+        cord += (digits(c, start + 2 + offset, start + 4 + offset) / 60);
+        if (length > 5) {
+            cord += (digits(c, start + 4 + offset, start + 6 + offset) / 3600);
+        }
+        return cord;
+    }
+
     private double parseCord(String c) {
         // https://en.wikipedia.org/wiki/ISO_6709
         int offset = c.length() % 2;
@@ -262,14 +524,113 @@ public class NotamParser {
         return cord;
     }
 
+    private double digits(CharSequence s, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (s.charAt(i) - '0');
+        }
+        return value;
+    }
+
     /**
-     * Parse a ICAO date-time group to ISO 8601.
+     * Parse a ICAO date-time group ("YYMMDDhhmm", UTC) to epoch seconds.
+     * "2400" is the end of the day (the next day at "0000").
+     * @return The epoch seconds or null if the group is not a valid date-time group,
+     * so an invalid item B or C does not discard the rest of the notam.
      */
-    private String parseDateTimeGroup(String s) {
-        return parseYear(Integer.parseInt(s.substring(0, 2))) + "-" + s.substring(2, 4) + "-" + s.substring(4, 6) + "T" + s.substring(6, 8) + ":" + s.substring(8, 10) + ":00Z";
+    private Long parseDateTimeGroup(CharSequence s, int start, int end) {
+        if (end - start < 10) {
+            return null;
+        }
+        try {
+            final int year = parseYear(Integer.parseInt(s, start, start + 2, 10));
+            final int month = Integer.parseInt(s, start + 2, start + 4, 10);
+            final int day = Integer.parseInt(s, start + 4, start + 6, 10);
+            final int hour = Integer.parseInt(s, start + 6, start + 8, 10);
+            final int minute = Integer.parseInt(s, start + 8, start + 10, 10);
+            if (hour > 24 || minute > 59 || (hour == 24 && minute != 0)) {
+                return null;
+            }
+            return LocalDate.of(year, month, day).toEpochDay() * 86400 + hour * 3600L + minute * 60L;
+        } catch (NumberFormatException | DateTimeException ex) {
+            return null;
+        }
     }
 
     private int parseYear(int twoDigitYear) {
         return 2000 + twoDigitYear;
     }
+
+    /**
+     * Copy a range of the body, line breaks are replaced by spaces.
+     */
+    private String text(CharSequence body, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (body.charAt(i) == '\n') {
+                final char[] chars = new char[end - start];
+                for (int j = 0; j < chars.length; j++) {
+                    final char c = body.charAt(start + j);
+                    chars[j] = c == '\n' ? ' ' : c;
+                }
+                return new String(chars);
+            }
+        }
+        return body.subSequence(start, end).toString();
+    }
+
+    /**
+     * Same as text, but taken from the string pool if there is one (and the range has no line breaks).
+     */
+    private String pooledText(CharSequence body, int start, int end) {
+        if (stringPool == null) {
+            return text(body, start, end);
+        }
+        for (int i = start; i < end; i++) {
+            if (body.charAt(i) == '\n') {
+                return text(body, start, end);
+            }
+        }
+        return stringPool.intern(body, start, end);
+    }
+
+    /**
+     * Copy a range of a line with leading and trailing whitespace removed (like String.trim),
+     * taken from the string pool if there is one.
+     */
+    private String trimmed(String s, int start, int end) {
+        start = trimStart(s, start, end);
+        end = trimEnd(s, start, end);
+        return stringPool == null ? s.substring(start, end) : stringPool.intern(s, start, end);
+    }
+
+    private int trimStart(CharSequence s, int start, int end) {
+        while (start < end && s.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimEnd(CharSequence s, int start, int end) {
+        while (end > start && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private boolean contains(CharSequence s, int start, int end, String value) {
+        for (int i = start; i + value.length() <= end; i++) {
+            int j = 0;
+            while (j < value.length() && s.charAt(i + j) == value.charAt(j)) {
+                j++;
+            }
+            if (j == value.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isSpace(char c) {
+        return c == ' ' || c == '\n';
+    }
 }
@@ -35,21 +35,48 @@ public enum NotamPurpose {
      * @return A list of purpose(s).
      */
     static List<NotamPurpose> parse(String purpose) {
+        return parse(purpose, 0, purpose.length());
+    }
+
+    /**
+     * Same as parse(String) but for a range of a char sequence (no substring required).
+     * @param purpose The char sequence containing the information as provided in item Q.
+     * @param start The start of the information (inclusive).
+     * @param end The end of the information (exclusive).
+     * @return The parsed list.
+     */
+    static List<NotamPurpose> parse(CharSequence purpose, int start, int end) {
+        boolean hasN = false;
+        boolean hasB = false;
+        boolean hasO = false;
+        boolean hasM = false;
+        boolean hasK = false;
+
+        for (int i = start; i < end; i++) {
+            switch (purpose.charAt(i)) {
+                case 'N', 'n' -> hasN = true;
+                case 'B', 'b' -> hasB = true;
+                case 'O', 'o' -> hasO = true;
+                case 'M', 'm' -> hasM = true;
+                case 'K', 'k' -> hasK = true;
+            }
+        }
+
         List<NotamPurpose> purposeList = new ArrayList<>();
 
-        if (purpose.contains("N") || purpose.contains("n")) {
+        if (hasN) {
             purposeList.add(IMMEDIATE_ATTENTION);
         }
-        if (purpose.contains("B") || purpose.contains("b")) {
+        if (hasB) {
             purposeList.add(BULLETIN);
         }
-        if (purpose.contains("O") || purpose.contains("o")) {
+        if (hasO) {
             purposeList.add(OPERATIONS);
         }
-        if (purpose.contains("M") || purpose.contains("m")) {
+        if (hasM) {
             purposeList.add(MISCELLANEOUS);
         }
-        if (purpose.contains("K") || purpose.contains("k")) {
+        if (hasK) {
             purposeList.add(CHECKLIST);
         }
 
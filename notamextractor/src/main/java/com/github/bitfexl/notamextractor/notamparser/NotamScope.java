@@ -15,18 +15,43 @@ public enum NotamScope {
      * @return A list of scope(s).
      */
     static List<NotamScope> parse(String scope) {
+        return parse(scope, 0, scope.length());
+    }
+
+    /**
+     * Same as parse(String) but for a range of a char sequence (no substring required).
+     * @param scope The char sequence containing the information as provided in item Q.
+     * @param start The start of the information (inclusive).
+     * @param end The end of the information (exclusive).
+     * @return The parsed list.
+     */
+    static List<NotamScope> parse(CharSequence scope, int start, int end) {
+        boolean hasA = false;
+        boolean hasE = false;
+        boolean hasW = false;
+        boolean hasK = false;
+
+        for (int i = start; i < end; i++) {
+            switch (scope.charAt(i)) {
+                case 'A', 'a' -> hasA = true;
+                case 'E', 'e' -> hasE = true;
+                case 'W', 'w' -> hasW = true;
+                case 'K', 'k' -> hasK = true;
+            }
+        }
+
         List<NotamScope> scopes = new ArrayList<>();
 
-        if (scope.contains("A") || scope.contains("a")) {
+        if (hasA) {
             scopes.add(AERODROME);
         }
-        if (scope.contains("E") || scope.contains("e")) {
+        if (hasE) {
             scopes.add(ENROUTE);
         }
-        if (scope.contains("W") || scope.contains("w")) {
+        if (hasW) {
             scopes.add(NAV_WARNING);
         }
-        if (scope.contains("K") || scope.contains("k")) {
+        if (hasK) {
             scopes.add(CHECKLIST);
         }
 
@@ -0,0 +1,427 @@
+package com.github.bitfexl.notamextractor.notamparser;
+
+import java.util.*;
+
+/**
+ * Columnar (struct of arrays) in-memory representation of a set of notams, for holding large (worldwide) sets at once.
+ * Numeric fields are stored in primitive arrays, traffic, purposes and scopes as bitmasks (see EnumSet)
+ * and all strings except the raw text dictionary encoded (equal strings are stored once).
+ * Converting back to notams is lossless for notams created by the NotamParser: enum lists must be distinct
+ * and in declaration order, of the previous notam only series, number and year are kept.
+ * Null values are stored as: '\0' (series), NULL_INT, NaN (latitude, longitude) and NULL_LONG (from, to).
+ * Instances are immutable and thread safe.
+ */
+public final class NotamTable {
+    public static final int NULL_INT = Integer.MIN_VALUE;
+
+    public static final long NULL_LONG = Long.MIN_VALUE;
+
+    private static final char NULL_CHAR = '\0';
+
+    private static final int NULL_STRING = -1;
+
+    // --- flags: bit layout of a row ---
+
+    // 0 null, 1 false, 2 true
+    private static final int IS_PERMANENT_SHIFT = 0;
+    private static final int IS_ESTIMATION_SHIFT = 2;
+    // 0 null, ordinal + 1 otherwise
+    private static final int TYPE_SHIFT = 4;
+    // a presence bit followed by the enum mask
+    private static final int TRAFFIC_SHIFT = 6;
+    private static final int PURPOSES_SHIFT = 10;
+    private static final int SCOPES_SHIFT = 16;
+    private static final int HAS_LOCATION_INDICATORS = 1 << 21;
+    private static final int HAS_PREVIOUS_NOTAM = 1 << 22;
+
+    private static final Traffic[] TRAFFIC = Traffic.values();
+    private static final NotamPurpose[] PURPOSES = NotamPurpose.values();
+    private static final NotamScope[] SCOPES = NotamScope.values();
+    private static final NotamType[] TYPES = NotamType.values();
+
+    private final int size;
+
+    /**
+     * The dictionary of all string columns, a column stores the index or NULL_STRING.
+     */
+    private final String[] strings;
+
+    private final String[] raw;
+
+    private final int[] flags;
+
+    private final char[] series;
+    private final int[] number;
+    private final int[] year;
+
+    private final char[] previousSeries;
+    private final int[] previousNumber;
+    private final int[] previousYear;
+
+    private final int[] fir;
+    private final int[] notamCode;
+
+    private final int[] qLower;
+    private final int[] qUpper;
+    private final double[] latitude;
+    private final double[] longitude;
+    private final int[] radius;
+
+    /**
+     * The location indicators of row i are locationIndicators[locationIndicatorOffsets[i]] to
+     * locationIndicators[locationIndicatorOffsets[i + 1]] (exclusive).
+     */
+    private final int[] locationIndicatorOffsets;
+    private final int[] locationIndicators;
+
+    private final long[] from;
+    private final long[] to;
+
+    private final int[] schedule;
+    private final int[] notamText;
+    private final int[] lowerLimit;
+    private final int[] upperLimit;
+    private final int[] created;
+    private final int[] source;
+
+    private NotamTable(Collection<Notam> notams) {
+        size = notams.size();
+
+        raw = new String[size];
+        flags = new int[size];
+        series = new char[size];
+        number = new int[size];
+        year = new int[size];
+        previousSeries = new char[size];
+        previousNumber = new int[size];
+        previousYear = new int[size];
+        fir = new int[size];
+        notamCode = new int[size];
+        qLower = new int[size];
+        qUpper = new int[size];
+        latitude = new double[size];
+        longitude = new double[size];
+        radius = new int[size];
+        locationIndicatorOffsets = new int[size + 1];
+        from = new long[size];
+        to = new long[size];
+        schedule = new int[size];
+        notamText = new int[size];
+        lowerLimit = new int[size];
+        upperLimit = new int[size];
+        created = new int[size];
+        source = new int[size];
+
+        final Map<String, Integer> dictionary = new HashMap<>();
+        final List<String> dictionaryStrings = new ArrayList<>();
+        final List<Integer> locationIndicatorCodes = new ArrayList<>();
+
+        int row = 0;
+        for (Notam notam : notams) {
+            raw[row] = notam.getRaw();
+
+            int rowFlags = bool(notam.getIsPermanent()) << IS_PERMANENT_SHIFT
+                    | bool(notam.getIsEstimation()) << IS_ESTIMATION_SHIFT
+                    | (notam.getType() == null ? 0 : notam.getType().ordinal() + 1) << TYPE_SHIFT
+                    | mask(notam.getTraffic()) << TRAFFIC_SHIFT
+                    | mask(notam.getPurposes()) << PURPOSES_SHIFT
+                    | mask(notam.getScopes()) << SCOPES_SHIFT;
+
+            series[row] = notam.getSeries() == null ? NULL_CHAR : notam.getSeries();
+            number[row] = integer(notam.getNumber());
+            year[row] = integer(notam.getYear());
+
+            final Notam previous = notam.getPreviousNotam();
+            if (previous != null) {
+                rowFlags |= HAS_PREVIOUS_NOTAM;
+                previousSeries[row] = previous.getSeries() == null ? NULL_CHAR : previous.getSeries();
+                previousNumber[row] = integer(previous.getNumber());
+                previousYear[row] = integer(previous.getYear());
+            }
+
+            fir[row] = encode(dictionary, dictionaryStrings, notam.getFir());
+            notamCode[row] = encode(dictionary, dictionaryStrings, notam.getNotamCode());
+
+            qLower[row] = integer(notam.getqLower());
+            qUpper[row] = integer(notam.getqUpper());
+            latitude[row] = notam.getLatitude() == null ? Double.NaN : notam.getLatitude();
+            longitude[row] = notam.getLongitude() == null ? Double.NaN : notam.getLongitude();
+            radius[row] = integer(notam.getRadius());
+
+            if (notam.getLocationIndicators() != null) {
+                rowFlags |= HAS_LOCATION_INDICATORS;
+                for (String locationIndicator : notam.getLocationIndicators()) {
+                    locationIndicatorCodes.add(encode(dictionary, dictionaryStrings, locationIndicator));
+                }
+            }
+            locationIndicatorOffsets[row + 1] = locationIndicatorCodes.size();
+
+            from[row] = notam.getFrom() == null ? NULL_LONG : notam.getFrom();
+            to[row] = notam.getTo() == null ? NULL_LONG : notam.getTo();
+
+            schedule[row] = encode(dictionary, dictionaryStrings, notam.getSchedule());
+            notamText[row] = encode(dictionary, dictionaryStrings, notam.getNotamText());
+            lowerLimit[row] = encode(dictionary, dictionaryStrings, notam.getLowerLimit());
+            upperLimit[row] = encode(dictionary, dictionaryStrings, notam.getUpperLimit());
+            created[row] = encode(dictionary, dictionaryStrings, notam.getCreated());
+            source[row] = encode(dictionary, dictionaryStrings, notam.getSource());
+
+            flags[row] = rowFlags;
+            row++;
+        }
+
+        strings = dictionaryStrings.toArray(new String[0]);
+        locationIndicators = locationIndicatorCodes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Create a table of notams.
+     * @param notams The notams, rows are in iteration order.
+     * @return The table.
+     * @throws IllegalArgumentException If traffic, purposes or scopes of a notam are not distinct or not in declaration order.
+     */
+    public static NotamTable of(Collection<Notam> notams) {
+        return new NotamTable(notams);
+    }
+
+    /**
+     * @return The number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of distinct strings (all columns except raw).
+     */
+    public int distinctStrings() {
+        return strings.length;
+    }
+
+    /**
+     * Convert a row back to a notam.
+     * @param row The row.
+     * @return The notam, equal in all fields to the notam the row was created from.
+     */
+    public Notam get(int row) {
+        Objects.checkIndex(row, size);
+        final int rowFlags = flags[row];
+
+        final int type = (rowFlags >>> TYPE_SHIFT) & 0b11;
+        final List<String> rowLocationIndicators;
+        if ((rowFlags & HAS_LOCATION_INDICATORS) != 0) {
+            rowLocationIndicators = new ArrayList<>(locationIndicatorOffsets[row + 1] - locationIndicatorOffsets[row]);
+            for (int i = locationIndicatorOffsets[row]; i < locationIndicatorOffsets[row + 1]; i++) {
+                rowLocationIndicators.add(strings[locationIndicators[i]]);
+            }
+        } else {
+            rowLocationIndicators = null;
+        }
+
+        return Notam.builder()
+                .raw(raw[row])
+                .series(character(series[row]))
+                .number(integer(number[row]))
+                .year(integer(year[row]))
+                .type(type == 0 ? null : TYPES[type - 1])
+                .previousNotam((rowFlags & HAS_PREVIOUS_NOTAM) == 0 ? null : Notam.builder()
+                        .series(character(previousSeries[row]))
+                        .number(integer(previousNumber[row]))
+                        .year(integer(previousYear[row]))
+                        .build())
+                .fir(decode(fir[row]))
+                .notamCode(decode(notamCode[row]))
+                .traffic(list(rowFlags >>> TRAFFIC_SHIFT, TRAFFIC))
+                .purposes(list(rowFlags >>> PURPOSES_SHIFT, PURPOSES))
+                .scopes(list(rowFlags >>> SCOPES_SHIFT, SCOPES))
+                .qLower(integer(qLower[row]))
+                .qUpper(integer(qUpper[row]))
+                .latitude(Double.isNaN(latitude[row]) ? null : latitude[row])
+                .longitude(Double.isNaN(longitude[row]) ? null : longitude[row])
+                .radius(integer(radius[row]))
+                .locationIndicators(rowLocationIndicators)
+                .from(from[row] == NULL_LONG ? null : from[row])
+                .to(to[row] == NULL_LONG ? null : to[row])
+                .isPermanent(bool(rowFlags >>> IS_PERMANENT_SHIFT))
+                .isEstimation(bool(rowFlags >>> IS_ESTIMATION_SHIFT))
+                .schedule(decode(schedule[row]))
+                .notamText(decode(notamText[row]))
+                .lowerLimit(decode(lowerLimit[row]))
+                .upperLimit(decode(upperLimit[row]))
+                .created(decode(created[row]))
+                .source(decode(source[row]))
+                .build();
+    }
+
+    /**
+     * Convert all rows back to notams.
+     * @return The notams in row order.
+     */
+    public List<Notam> toNotams() {
+        final List<Notam> notams = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            notams.add(get(row));
+        }
+        return notams;
+    }
+
+    // --- column access without converting a row ---
+
+    /**
+     * @return Item B in epoch seconds or NULL_LONG.
+     */
+    public long from(int row) {
+        return from[row];
+    }
+
+    /**
+     * @return Item C in epoch seconds or NULL_LONG.
+     */
+    public long to(int row) {
+        return to[row];
+    }
+
+    /**
+     * @return The item Q latitude or NaN.
+     */
+    public double latitude(int row) {
+        return latitude[row];
+    }
+
+    /**
+     * @return The item Q longitude or NaN.
+     */
+    public double longitude(int row) {
+        return longitude[row];
+    }
+
+    /**
+     * @return The item Q radius or NULL_INT.
+     */
+    public int radius(int row) {
+        return radius[row];
+    }
+
+    /**
+     * @return The item Q lower limit or NULL_INT.
+     */
+    public int qLower(int row) {
+        return qLower[row];
+    }
+
+    /**
+     * @return The item Q upper limit or NULL_INT.
+     */
+    public int qUpper(int row) {
+        return qUpper[row];
+    }
+
+    /**
+     * @return The item Q fir or null.
+     */
+    public String fir(int row) {
+        return decode(fir[row]);
+    }
+
+    /**
+     * @return The traffic (empty if null).
+     */
+    public EnumSet<Traffic> traffic(int row) {
+        return enumSet(flags[row] >>> TRAFFIC_SHIFT, TRAFFIC, Traffic.class);
+    }
+
+    /**
+     * @return The purposes (empty if null).
+     */
+    public EnumSet<NotamPurpose> purposes(int row) {
+        return enumSet(flags[row] >>> PURPOSES_SHIFT, PURPOSES, NotamPurpose.class);
+    }
+
+    /**
+     * @return The scopes (empty if null).
+     */
+    public EnumSet<NotamScope> scopes(int row) {
+        return enumSet(flags[row] >>> SCOPES_SHIFT, SCOPES, NotamScope.class);
+    }
+
+    // --- encoding ---
+
+    private static int encode(Map<String, Integer> dictionary, List<String> strings, String value) {
+        if (value == null) {
+            return NULL_STRING;
+        }
+        return dictionary.computeIfAbsent(value, v -> {
+            strings.add(v);
+            return strings.size() - 1;
+        });
+    }
+
+    private String decode(int index) {
+        return index == NULL_STRING ? null : strings[index];
+    }
+
+    /**
+     * @return A presence bit (bit 0) followed by a bit per ordinal, 0 if null.
+     */
+    private static int mask(List<? extends Enum<?>> values) {
+        if (values == null) {
+            return 0;
+        }
+        int mask = 0;
+        int lastOrdinal = -1;
+        for (Enum<?> value : values) {
+            if (value.ordinal() <= lastOrdinal) {
+                throw new IllegalArgumentException("Enum list must be distinct and in declaration order, but got " + values + ".");
+            }
+            lastOrdinal = value.ordinal();
+            mask |= 1 << value.ordinal();
+        }
+        return mask << 1 | 1;
+    }
+
+    private static <T extends Enum<T>> List<T> list(int mask, T[] values) {
+        if ((mask & 1) == 0) {
+            return null;
+        }
+        final List<T> list = new ArrayList<>();
+        for (T value : values) {
+            if ((mask & (1 << (value.ordinal() + 1))) != 0) {
+                list.add(value);
+            }
+        }
+        return list;
+    }
+
+    private static <T extends Enum<T>> EnumSet<T> enumSet(int mask, T[] values, Class<T> type) {
+        final EnumSet<T> set = EnumSet.noneOf(type);
+        final List<T> list = list(mask, values);
+        if (list != null) {
+            set.addAll(list);
+        }
+        return set;
+    }
+
+    private static int bool(Boolean value) {
+        return value == null ? 0 : value ? 2 : 1;
+    }
+
+    private static Boolean bool(int bits) {
+        return switch (bits & 0b11) {
+            case 1 -> false;
+            case 2 -> true;
+            default -> null;
+        };
+    }
+
+    private static int integer(Integer value) {
+        return value == null ? NULL_INT : value;
+    }
+
+    private static Integer integer(int value) {
+        return value == NULL_INT ? null : value;
+    }
+
+    private static Character character(char value) {
+        return value == NULL_CHAR ? null : value;
+    }
+}
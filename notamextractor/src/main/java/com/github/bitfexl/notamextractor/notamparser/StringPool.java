@@ -0,0 +1,146 @@
+package com.github.bitfexl.notamextractor.notamparser;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deduplicates short, highly repetitive strings (firs, notam codes, location indicators, ...) while parsing.
+ * A lookup hashes the characters in place, on a hit the pooled string is returned without allocating.
+ * The pool is a fixed size hash table of buckets (BUCKET_SIZE slots), a full bucket replaces one of its strings,
+ * so the pool never grows and rarely used strings are dropped again.
+ * The pool is lock-free: the table is read and written without synchronization, which is safe as strings are
+ * immutable (final fields), a lost write only costs a later miss. Instances are thread safe.
+ */
+public class StringPool {
+    /**
+     * Hits, misses and the estimated number of bytes not allocated because of hits.
+     */
+    public record Stats(long hits, long misses, long bytesSaved) {
+        public double hitRate() {
+            return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d hits, %d misses (%.1f%% hit rate), %.1f MB saved", hits, misses, hitRate() * 100, bytesSaved / 1e6);
+        }
+    }
+
+    private static final int BUCKET_SIZE = 4;
+
+    /**
+     * Longer strings are not pooled (mostly unique).
+     */
+    private static final int MAX_LENGTH = 64;
+
+    private final String[] table;
+
+    private final int bucketMask;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * Create a pool with 16384 slots.
+     */
+    public StringPool() {
+        this(1 << 14);
+    }
+
+    /**
+     * Create a new pool.
+     * @param capacity The number of slots (rounded up to a power of two, at least BUCKET_SIZE).
+     */
+    public StringPool(int capacity) {
+        final int size = Math.max(BUCKET_SIZE, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+        table = new String[size];
+        bucketMask = size / BUCKET_SIZE - 1;
+    }
+
+    /**
+     * Get the pooled string equal to a range of characters.
+     * @param s The characters.
+     * @param start The start of the range (inclusive).
+     * @param end The end of the range (exclusive).
+     * @return The pooled string or a new string (added to the pool).
+     */
+    public String intern(CharSequence s, int start, int end) {
+        final int length = end - start;
+        if (length > MAX_LENGTH) {
+            return s.subSequence(start, end).toString();
+        }
+
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + s.charAt(i);
+        }
+        final int bucket = ((hash ^ (hash >>> 16)) & bucketMask) * BUCKET_SIZE;
+
+        for (int slot = bucket; slot < bucket + BUCKET_SIZE; slot++) {
+            final String candidate = table[slot];
+            if (candidate == null) {
+                break;
+            }
+            if (candidate.hashCode() == hash && equals(candidate, s, start, end)) {
+                hits.increment();
+                bytesSaved.add(estimatedSize(length));
+                return candidate;
+            }
+        }
+
+        misses.increment();
+        final String value = s.subSequence(start, end).toString();
+        insert(bucket, value, hash);
+        return value;
+    }
+
+    /**
+     * Get the pooled string equal to a string.
+     * @param s The string.
+     * @return The pooled string or s (added to the pool).
+     */
+    public String intern(String s) {
+        // substring of the full range is s itself, so s is added on a miss
+        return intern(s, 0, s.length());
+    }
+
+    /**
+     * @return The current statistics.
+     */
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), bytesSaved.sum());
+    }
+
+    private void insert(int bucket, String value, int hash) {
+        for (int slot = bucket; slot < bucket + BUCKET_SIZE; slot++) {
+            if (table[slot] == null) {
+                table[slot] = value;
+                return;
+            }
+        }
+        // full bucket: replace a slot chosen by the higher hash bits
+        table[bucket + ((hash >>> 28) & (BUCKET_SIZE - 1))] = value;
+    }
+
+    private static boolean equals(String candidate, CharSequence s, int start, int end) {
+        if (candidate.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < candidate.length(); i++) {
+            if (candidate.charAt(i) != s.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The retained size of a compact (latin 1) string: object header and fields, byte array header and content,
+     * both 8 byte aligned (64 bit vm, compressed oops).
+     */
+    private static long estimatedSize(int length) {
+        return 24 + ((16 + length + 7) & ~7);
+    }
+}
@@ -18,15 +18,38 @@ public enum Traffic {
      * @return A list of affected traffic.
      */
     static List<Traffic> parse(String traffic) {
+        return parse(traffic, 0, traffic.length());
+    }
+
+    /**
+     * Same as parse(String) but for a range of a char sequence (no substring required).
+     * @param traffic The char sequence containing the information as provided in item Q.
+     * @param start The start of the information (inclusive).
+     * @param end The end of the information (exclusive).
+     * @return The parsed list.
+     */
+    static List<Traffic> parse(CharSequence traffic, int start, int end) {
+        boolean hasI = false;
+        boolean hasV = false;
+        boolean hasK = false;
+
+        for (int i = start; i < end; i++) {
+            switch (traffic.charAt(i)) {
+                case 'I', 'i' -> hasI = true;
+                case 'V', 'v' -> hasV = true;
+                case 'K', 'k' -> hasK = true;
+            }
+        }
+
         List<Traffic> trafficList = new ArrayList<>();
 
-        if (traffic.contains("I") || traffic.contains("i")) {
+        if (hasI) {
             trafficList.add(IFR);
         }
-        if (traffic.contains("V") || traffic.contains("v")) {
+        if (hasV) {
             trafficList.add(VFR);
         }
-        if (traffic.contains("K") || traffic.contains("k")) {
+        if (hasK) {
             trafficList.add(CHECKLIST);
         }
 
@@ -0,0 +1,234 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.Coordinates;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds runs of coordinates in a text in a single linear pass, used like a Matcher.
+ * Matches exactly what DetailedNotamParser.COORDINATES_PATTERN matches, without backtracking:
+ * one or more "DDMMSS[NS] DDDMMSS[EW]" pairs (whitespace between latitude and longitude optional,
+ * longitude might miss the leading 0) each followed by an optional separator (whitespace, "-" or "/").
+ */
+class CoordinatesScanner {
+    private final String text;
+
+    private int position = 0;
+
+    private int start = -1;
+
+    private int end = -1;
+
+    /**
+     * Create a new scanner.
+     * @param text The text to scan.
+     */
+    CoordinatesScanner(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Find the next run of coordinates.
+     * @return true: a run was found (see start() and end()), false: no more runs.
+     */
+    boolean find() {
+        final int length = text.length();
+
+        for (int i = position; i < length; i++) {
+            int pairEnd = matchPair(i);
+            if (pairEnd == -1) {
+                continue;
+            }
+
+            int runEnd;
+            do {
+                runEnd = skipSeparator(pairEnd);
+                pairEnd = matchPair(runEnd);
+            } while (pairEnd != -1);
+
+            start = i;
+            end = runEnd;
+            position = runEnd;
+            return true;
+        }
+
+        start = -1;
+        end = -1;
+        position = length;
+        return false;
+    }
+
+    /**
+     * @return The start of the last found run (inclusive).
+     */
+    int start() {
+        return start;
+    }
+
+    /**
+     * @return The end of the last found run (exclusive), includes the separator after the last pair.
+     */
+    int end() {
+        return end;
+    }
+
+    /**
+     * Decode the coordinates of the last found run.
+     * The run is split into parts at whitespace, "-" and "/", parts with a length of 7 or 8 are a latitude or longitude,
+     * parts with a length of 15 a latitude directly followed by a longitude, all other parts are ignored.
+     * @return The decoded coordinates or null if the run contains irregular parts (or an odd number),
+     * which must be decoded the slow way (DetailedNotamParser.parseCoordinatesList).
+     */
+    List<Coordinates> coordinates() {
+        final List<Coordinates> coordinates = new ArrayList<>();
+
+        double latitude = 0;
+        boolean hasLatitude = false;
+
+        int partStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && !isSeparator(text.charAt(i))) {
+                continue;
+            }
+
+            final int partLength = i - partStart;
+            final int subParts = partLength == 7 || partLength == 8 ? 1 : partLength == 15 ? 2 : 0;
+
+            for (int p = 0; p < subParts; p++) {
+                final int from = p == 0 ? partStart : partStart + 7;
+                final int to = subParts == 1 || p == 1 ? i : partStart + 7;
+
+                final double value = decode(from, to);
+                if (Double.isNaN(value)) {
+                    return null;
+                }
+
+                if (hasLatitude) {
+                    coordinates.add(new Coordinates(latitude, value));
+                } else {
+                    latitude = value;
+                }
+                hasLatitude = !hasLatitude;
+            }
+
+            partStart = i + 1;
+        }
+
+        return hasLatitude ? null : coordinates;
+    }
+
+    /**
+     * Decode a single latitude ("DDMMSS[NS]") or longitude ("DDDMMSS[EW]" or "DDMMSS[EW]").
+     * @return The decoded value or NaN if the part is not all digits in front of the last character.
+     */
+    private double decode(int from, int to) {
+        final int degreesEnd = to - 5;
+
+        int degrees = 0;
+        for (int i = from; i < degreesEnd; i++) {
+            final int digit = digit(i);
+            if (digit == -1) {
+                return Double.NaN;
+            }
+            degrees = degrees * 10 + digit;
+        }
+
+        final int minutesHigh = digit(degreesEnd);
+        final int minutesLow = digit(degreesEnd + 1);
+        final int secondsHigh = digit(degreesEnd + 2);
+        final int secondsLow = digit(degreesEnd + 3);
+        if (minutesHigh == -1 || minutesLow == -1 || secondsHigh == -1 || secondsLow == -1) {
+            return Double.NaN;
+        }
+
+        // same operations as parsing the parts with Double.parseDouble, so the result is identical
+        double value = degrees;
+        value += (minutesHigh * 10 + minutesLow) / 60.0;
+        value += (secondsHigh * 10 + secondsLow) / 3600.0;
+
+        final char direction = text.charAt(to - 1);
+        if (direction == 'S' || direction == 's' || direction == 'W' || direction == 'w') {
+            value *= -1;
+        }
+        return value;
+    }
+
+    /**
+     * Match a single latitude longitude pair.
+     * @return The end of the pair (exclusive) or -1 if there is no pair at that position.
+     */
+    private int matchPair(int i) {
+        final int length = text.length();
+
+        if (i + 14 > length || digitsAt(i, 6) != 6) {
+            return -1;
+        }
+
+        final char latitudeDirection = text.charAt(i + 6);
+        if (latitudeDirection != 'N' && latitudeDirection != 'S') {
+            return -1;
+        }
+
+        int j = i + 7;
+        while (j < length && isWhitespace(text.charAt(j))) {
+            j++;
+        }
+
+        final int longitudeDigits = digitsAt(j, 7);
+        if (longitudeDigits < 6 || j + longitudeDigits >= length) {
+            return -1;
+        }
+
+        final char longitudeDirection = text.charAt(j + longitudeDigits);
+        if (longitudeDirection != 'E' && longitudeDirection != 'W') {
+            return -1;
+        }
+
+        return j + longitudeDigits + 1;
+    }
+
+    private int skipSeparator(int i) {
+        final int length = text.length();
+
+        while (i < length && isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '/')) {
+            i++;
+        }
+        while (i < length && isWhitespace(text.charAt(i))) {
+            i++;
+        }
+
+        return i;
+    }
+
+    /**
+     * @return The number of consecutive digits at i (at most max).
+     */
+    private int digitsAt(int i, int max) {
+        final int end = Math.min(i + max, text.length());
+        int count = 0;
+        while (i + count < end && digit(i + count) != -1) {
+            count++;
+        }
+        return count;
+    }
+
+    private int digit(int i) {
+        final char c = text.charAt(i);
+        return c >= '0' && c <= '9' ? c - '0' : -1;
+    }
+
+    /**
+     * Same as \s in a regex (without unicode character classes).
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isSeparator(char c) {
+        return isWhitespace(c) || c == '-' || c == '/';
+    }
+}
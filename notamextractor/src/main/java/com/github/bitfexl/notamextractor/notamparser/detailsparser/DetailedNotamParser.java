@@ -2,21 +2,90 @@ package com.github.bitfexl.notamextractor.notamparser.detailsparser;
 
 import com.github.bitfexl.notamextractor.notamparser.Notam;
 import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.*;
+import com.github.bitfexl.notamextractor.store.NotamStore;
+import com.github.bitfexl.notamextractor.store.StoredNotam;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.function.Function;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 // todo: add date of query
 
 public class DetailedNotamParser {
-    private static final String NOTAM_DATA_VERSION = "1.0";
-    private static final byte ID_VERSION = 1;
+    /**
+     * The version of notam data with coordinates lists.
+     */
+    public static final String NOTAM_DATA_VERSION = "1.0";
+    // same as 1.0, but the coordinates lists are stored in a shared geometry file
+    private static final String SHARED_GEOMETRY_DATA_VERSION = "1.1";
+    /**
+     * Same as 1.1 (the geometry file is optional), but the coordinates lists are written as
+     * delta encoded fixed-point arrays (deltaCoordinates, see NotamDataSerializer).
+     */
+    public static final String DELTA_COORDINATES_DATA_VERSION = "1.2";
     // some latitudes are incorrectly represented without the leading 0 hence 6,7 for latitude matching
-    private static final Pattern COORDINATES_PATTERN = Pattern.compile("(?:\\d{6}[NS]\\s*\\d{6,7}[EW](?:\\s*[-/]?\\s*)?)+");
+    // replaced by the CoordinatesScanner, kept as reference for benchmarks
+    static final Pattern COORDINATES_PATTERN = Pattern.compile("(?:\\d{6}[NS]\\s*\\d{6,7}[EW](?:\\s*[-/]?\\s*)?)+");
+
+    /**
+     * The maximum number of notams detailed ahead of the consumer when streaming in parallel.
+     */
+    private static final int DETAIL_WINDOW = 64;
+
+    /**
+     * Receives streamed notams (see parseNotams(List, NotamStore, NotamChainResolver, DetailedNotamConsumer)).
+     */
+    @FunctionalInterface
+    public interface DetailedNotamConsumer {
+        /**
+         * @param notam The detailed notam.
+         * @param coordinatesLists The coordinates lists referenced by the text nodes of the notam.
+         * @throws IOException If the notam could not be consumed (e.g. written), the parser stops.
+         */
+        void accept(DetailedNotam notam, List<CoordinatesList> coordinatesLists) throws IOException;
+    }
+
+    /**
+     * If true notams are detailed in parallel (common fork join pool).
+     */
+    private final boolean parallel;
+
+    private final GeometryRegistry geometryRegistry;
+
+    private final ScheduleCompiler scheduleCompiler = new ScheduleCompiler();
+
+    /**
+     * Create a new sequential parser with its own geometry registry.
+     */
+    public DetailedNotamParser() {
+        this(false);
+    }
+
+    /**
+     * Create a new parser with its own geometry registry.
+     * @param parallel If true notams are detailed in parallel, the output is the same as with a sequential parser.
+     */
+    public DetailedNotamParser(boolean parallel) {
+        this(parallel, new GeometryRegistry());
+    }
+
+    /**
+     * Create a new parser.
+     * @param parallel If true notams are detailed in parallel, the output is the same as with a sequential parser.
+     * @param geometryRegistry The registry for coordinates lists, might be shared by multiple parsers.
+     */
+    public DetailedNotamParser(boolean parallel, GeometryRegistry geometryRegistry) {
+        this.parallel = parallel;
+        this.geometryRegistry = geometryRegistry;
+    }
 
     /**
      * Generate notam data with details for a number of notams.
@@ -24,34 +93,168 @@ public class DetailedNotamParser {
      * @return The parsed data.
      */
     public NotamData parseNotams(List<Notam> notams) {
-        final Map<Long, DetailedNotam> detailedNotams = new HashMap<>();
-        final Map<String, CoordinatesList> coordinates = new HashMap<>();
+        return parseNotams(notams, null);
+    }
 
-        for (Notam notam : notams) {
-            final long notamId = computeId(notam);
+    /**
+     * Generate notam data with details for a number of notams.
+     * Details of notams already in the store are reused, new notams are added to the store.
+     * The notams are ordered by id and the coordinates lists by hash, so the output does not
+     * depend on the order of the input or on parallel execution.
+     * @param notams The notams to extract details for.
+     * @param store The store to reuse details from, might be null.
+     * @return The parsed data.
+     */
+    public NotamData parseNotams(List<Notam> notams, NotamStore store) {
+        final LongObjectMap<Notam> uniqueNotams = uniqueNotams(notams);
 
-            if (!detailedNotams.containsKey(notamId)) {
-                detailedNotams.put(notamId, new DetailedNotam(
-                        notam,
-                        notamId,
-                        notam.getPreviousNotam() == null ? null : computeId(notam.getPreviousNotam(), notam.getFir()),
-                        parseTextNodes(notam, coordinates),
-                        parsePeriods(notam)
-                ));
+        final LongStream ids = Arrays.stream(uniqueNotams.sortedKeys());
+        final List<StoredNotam> detailedNotams = (parallel ? ids.parallel() : ids)
+                .mapToObj(id -> detailNotam(id, uniqueNotams.get(id), store))
+                .toList();
+
+        final Map<String, CoordinatesList> coordinates = new TreeMap<>();
+        for (StoredNotam detailedNotam : detailedNotams) {
+            for (CoordinatesList coordinatesList : detailedNotam.coordinatesLists()) {
+                coordinates.put(coordinatesList.hash(), coordinatesList);
             }
         }
 
         return new NotamData(
                 NOTAM_DATA_VERSION,
                 Instant.now().toString(),
-                detailedNotams.values().stream().toList(),
-                coordinates.values().stream().toList()
+                detailedNotams.stream().map(StoredNotam::detailedNotam).toList(),
+                List.copyOf(coordinates.values()),
+                null
+        );
+    }
+
+    /**
+     * Detail notams one by one and pass them to a consumer without keeping them, e.g. to write them
+     * while the next notams are detailed. The notams are the same and in the same order as the notams of parseNotams,
+     * the coordinates lists are not deduplicated.
+     * A parallel parser details at most DETAIL_WINDOW notams ahead of the consumer, which is always called by the calling thread.
+     * @param notams The notams to extract details for.
+     * @param store The store to reuse details from, might be null.
+     * @param chainResolver If not null, notams superseded by another notam are skipped and the others annotated (see NotamChainResolver).
+     * @param consumer The consumer of the detailed notams.
+     * @return The number of notams passed to the consumer.
+     * @throws IOException If the consumer failed.
+     * @throws InterruptedIOException If the calling thread was interrupted while waiting for a notam.
+     */
+    public int parseNotams(List<Notam> notams, NotamStore store, NotamChainResolver chainResolver, DetailedNotamConsumer consumer) throws IOException {
+        final LongObjectMap<Notam> uniqueNotams = uniqueNotams(notams);
+        long[] ids = uniqueNotams.sortedKeys();
+
+        final NotamChainResolver.Chains chains = chainResolver == null ? null : chainResolver.resolve(ids, uniqueNotams);
+        if (chains != null && chains.supersededCount() > 0) {
+            ids = Arrays.stream(ids).filter(id -> !chains.isSuperseded(id)).toArray();
+        }
+
+        final Deque<Future<StoredNotam>> window = new ArrayDeque<>(DETAIL_WINDOW);
+        int next = 0;
+
+        try {
+            for (final long id : ids) {
+                final StoredNotam detailedNotam;
+                if (parallel) {
+                    while (next < ids.length && window.size() < DETAIL_WINDOW) {
+                        final long nextId = ids[next++];
+                        window.add(ForkJoinPool.commonPool().submit(() -> detailNotam(nextId, uniqueNotams.get(nextId), store)));
+                    }
+                    detailedNotam = await(window.remove());
+                } else {
+                    detailedNotam = detailNotam(id, uniqueNotams.get(id), store);
+                }
+                consumer.accept(chains == null ? detailedNotam.detailedNotam() : chains.annotate(detailedNotam.detailedNotam()), detailedNotam.coordinatesLists());
+            }
+        } finally {
+            // the consumer failed or the thread was interrupted
+            window.forEach(detailedNotam -> detailedNotam.cancel(false));
+        }
+
+        return ids.length;
+    }
+
+    /**
+     * Get the version of notam data.
+     * @param sharedGeometry true: the coordinates lists are in a shared geometry file.
+     * @param deltaCoordinates true: the coordinates lists are written delta encoded.
+     * @return The data version.
+     */
+    public static String dataVersion(boolean sharedGeometry, boolean deltaCoordinates) {
+        if (deltaCoordinates) {
+            return DELTA_COORDINATES_DATA_VERSION;
+        }
+        return sharedGeometry ? SHARED_GEOMETRY_DATA_VERSION : NOTAM_DATA_VERSION;
+    }
+
+    /**
+     * Create the shared geometry data.
+     * @param coordinatesLists The coordinates lists of all countries.
+     * @param deltaCoordinates true: write the coordinates lists delta encoded.
+     * @return The geometry data.
+     */
+    public static GeometryData toGeometryData(List<CoordinatesList> coordinatesLists, boolean deltaCoordinates) {
+        final String version = deltaCoordinates ? DELTA_COORDINATES_DATA_VERSION : SHARED_GEOMETRY_DATA_VERSION;
+        return new GeometryData(version, Instant.now().toString(), coordinatesLists);
+    }
+
+    /**
+     * The first notam with an id is used.
+     */
+    private static LongObjectMap<Notam> uniqueNotams(List<Notam> notams) {
+        final LongObjectMap<Notam> uniqueNotams = new LongObjectMap<>(notams.size());
+        for (Notam notam : notams) {
+            uniqueNotams.putIfAbsent(NotamId.of(notam), notam);
+        }
+        return uniqueNotams;
+    }
+
+    private static StoredNotam await(Future<StoredNotam> detailedNotam) throws InterruptedIOException {
+        try {
+            return detailedNotam.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while detailing notams.");
+        } catch (ExecutionException ex) {
+            // the same exceptions as a sequential parser
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(ex.getCause());
+        }
+    }
+
+    private StoredNotam detailNotam(long notamId, Notam notam, NotamStore store) {
+        final StoredNotam storedNotam = store == null ? null : store.get(notamId, notam.getRaw());
+        if (storedNotam != null) {
+            return storedNotam;
+        }
+
+        final Map<String, CoordinatesList> notamCoordinates = new LinkedHashMap<>();
+        final StoredNotam detailedNotam = new StoredNotam(
+                notamId,
+                store == null || notam.getRaw() == null ? 0 : NotamStore.hashRaw(notam.getRaw()),
+                new DetailedNotam(
+                        notam,
+                        notamId,
+                        notam.getPreviousNotam() == null ? null : NotamId.of(notam.getPreviousNotam(), notam.getFir()),
+                        parseTextNodes(notam, notamCoordinates),
+                        parsePeriods(notam),
+                        null
+                ),
+                List.copyOf(notamCoordinates.values())
         );
+        if (store != null && notam.getRaw() != null) {
+            store.put(detailedNotam);
+        }
+        return detailedNotam;
     }
 
     private List<Period> parsePeriods(Notam notam) {
-        // TODO: implement periods parsing
-        return null;
+        final Schedule schedule = scheduleCompiler.compile(notam);
+        return schedule == null ? null : schedule.toPeriods();
     }
 
     /**
@@ -74,33 +277,58 @@ public class DetailedNotamParser {
 
         // --- find coordinates ---
 
-        final Matcher matcher = COORDINATES_PATTERN.matcher(text);
+        final CoordinatesScanner scanner = new CoordinatesScanner(text);
 
-        while (matcher.find()) {
-            final String coordinatesGroup = matcher.group();
-            final CoordinatesList coordinatesList = parseCoordinatesList(coordinatesGroup);
+        while (scanner.find()) {
+            final String coordinatesGroup = text.substring(scanner.start(), scanner.end());
+            final CoordinatesList coordinatesList = geometryRegistry.get(coordinatesGroup, group -> {
+                final List<Coordinates> scannedCoordinates = scanner.coordinates();
+                return scannedCoordinates == null ? parseCoordinatesList(group) : scannedCoordinates;
+            });
             coordinates.put(coordinatesList.hash(), coordinatesList);
-            int end = matcher.end();
+            int end = scanner.end();
             if (coordinatesGroup.endsWith(" ")) {
                 end--;
             }
             textSnippets.add(new TextSnippet(
-                    matcher.start(), end, new TextNode(coordinatesGroup, Reference.coordinatesList(coordinatesList.hash()))
+                    scanner.start(), end, new TextNode(coordinatesGroup, Reference.coordinatesList(coordinatesList.hash()))
             ));
         }
 
-        // --- find links ---
+        // --- find links, abbreviations and notam numbers ---
 
-        final String[] words = text.split(" ");
-        int linkStartIndex = 0;
-        for (String word : words) {
-            final String lowercaseWord = word.toLowerCase();
-            if ((lowercaseWord.startsWith("https://") || lowercaseWord.startsWith("http://") || lowercaseWord.startsWith("www.")) && word.indexOf(".", 4) != -1) {
-                textSnippets.add(new TextSnippet(linkStartIndex, linkStartIndex + word.length(),
-                        new TextNode(word, Reference.webLink(lowercaseWord.charAt(0) == 'w' ? "https://" + word : word))
+        final int coordinatesSnippets = textSnippets.size();
+        int coordinatesSnippet = 0;
+
+        for (TextTokenizer.Token token : TextTokenizer.getDefault().tokenize(text)) {
+            final String tokenText = text.substring(token.start(), token.end());
+
+            if (token.type() == TextTokenizer.Type.LINK) {
+                textSnippets.add(new TextSnippet(token.start(), token.end(),
+                        new TextNode(tokenText, Reference.webLink(Character.toLowerCase(tokenText.charAt(0)) == 'w' ? "https://" + tokenText : tokenText))
                 ));
+                continue;
+            }
+
+            // coordinates take precedence (e.g. "N" or "E" in coordinates)
+            while (coordinatesSnippet < coordinatesSnippets && textSnippets.get(coordinatesSnippet).end <= token.start()) {
+                coordinatesSnippet++;
             }
-            linkStartIndex += word.length() + 1; // + 1 for removed space
+            if (coordinatesSnippet < coordinatesSnippets && textSnippets.get(coordinatesSnippet).start < token.end()) {
+                continue;
+            }
+
+            final Reference reference;
+            if (token.type() == TextTokenizer.Type.ABBREVIATION) {
+                reference = Reference.abbreviation(token.abbreviation());
+            } else {
+                final long notamId = NotamId.ofNotamNumber(tokenText, notam.getFir());
+                if (notamId == 0) {
+                    continue;
+                }
+                reference = Reference.notamId(notamId);
+            }
+            textSnippets.add(new TextSnippet(token.start(), token.end(), new TextNode(tokenText, reference)));
         }
 
         // --- build text node list ---
@@ -121,14 +349,18 @@ public class DetailedNotamParser {
             startIndex = snippet.end;
         }
 
-        if (startIndex != text.length() - 1) {
+        if (startIndex < text.length()) {
             textNodes.add(new TextNode(text.substring(startIndex), null));
         }
 
         return textNodes;
     }
 
-    private CoordinatesList parseCoordinatesList(String rawCoordinatesList) {
+    /**
+     * Parse a coordinates list the slow way, only used for irregular runs the CoordinatesScanner can not decode
+     * (and as reference for the CoordinatesScanner).
+     */
+    static List<Coordinates> parseCoordinatesList(String rawCoordinatesList) {
         final List<String> rawCoordinates = Arrays.stream(rawCoordinatesList.split("[\\s-/]"))
                 .flatMap(
                         (Function<String, Stream<String>>) s -> // parse different coordinate notations
@@ -147,12 +379,10 @@ public class DetailedNotamParser {
             parsedCoordinates.add(new Coordinates(parseCordPart(rawCoordinates.get(i)), parseCordPart(rawCoordinates.get(i + 1))));
         }
 
-        // todo: maybe a better hash code
-        final String hash = String.valueOf(parsedCoordinates.hashCode());
-        return new CoordinatesList(hash, parsedCoordinates);
+        return parsedCoordinates;
     }
 
-    private double parseCordPart(String cordPart) {
+    private static double parseCordPart(String cordPart) {
         // https://en.wikipedia.org/wiki/ISO_6709 with 6 and 7 digits
         final int offset = cordPart.length() - 7;
         double cord = Double.parseDouble(cordPart.substring(0, 2 + offset));
@@ -165,91 +395,4 @@ public class DetailedNotamParser {
         }
         return cord;
     }
-
-    private long computeId(Notam notam, String fir) {
-        if (notam.getYear() == null || notam.getSeries() == null || notam.getNumber() == null || fir == null) {
-            return 0;
-        }
-        return computeId(notam.getYear(), notam.getSeries(), notam.getNumber(), fir, true);
-    }
-
-    private long computeId(Notam notam) {
-        if (notam.getYear() == null || notam.getSeries() == null || notam.getNumber() == null || notam.getFir() == null) {
-            return 0;
-        }
-        return computeId(notam.getYear(), notam.getSeries(), notam.getNumber(), notam.getFir(), true);
-    }
-
-    /**
-     * Compute a notam id.
-     * @param year The year the notam was published.
-     * @param series The series (a litter from A-Z without S and T).
-     * @param number The number of the notam in the series.
-     * @param fir The fir the notam was published in.
-     * @return A unique id, always positive.
-     */
-    private long computeId(int year, char series, int number, String fir, boolean ignoreFirErrors) {
-        // 1 byte id version, first bit reserved to stay positive
-        // 1 + 1/2 byte year (to 4095)
-        // 2 + 1/2 byte series + number
-        //   5 bit series (letter)
-        //   1 byte + 7 bit number
-        // 3 byte ifr
-        //   4 bit padding
-        //   20 bit = 4 letters (5 bit) fir
-
-        long id = 0;
-
-        id |= ID_VERSION;
-
-        id = id << 12;
-        id |= (year & 0xfff);
-
-        byte seriesByte = letterToByte(series);
-        if (seriesByte == -1) {
-            throw new IllegalArgumentException("Series must be a single uppercase letter (A-Z), but got '" + series + "'.");
-        }
-
-        id = id << 5;
-        id |= seriesByte;
-
-        id = id << 15;
-        id |= (number & 0x7fff);
-
-        if (ignoreFirErrors && fir.length() < 4) {
-            fir = "X".repeat(4 - fir.length()) + fir;
-        }
-
-        if (fir.length() != 4) {
-            throw new IllegalArgumentException("FIR must be a four letter string (uppercase, A-Z), but got '" + fir + "'.");
-        }
-
-        id = id << 4;
-        for (int i = 0; i < 4; i++) {
-            byte ifrByte = letterToByte(fir.charAt(i));
-            if (ifrByte == -1) {
-                throw new IllegalArgumentException("FIR must consist of only uppercase letters (A-Z), but got '" + fir + "'.");
-            }
-            id = id << 5;
-            id |= ifrByte;
-        }
-
-        return id;
-    }
-
-    private byte letterToByte(char letter) {
-        if (letter < 65 || letter > 90) {
-            return -1;
-        }
-        return (byte)(letter - 65);
-    }
-
-    private String longToBin(long num) {
-        String bin = Long.toString(num, 2);
-        bin = "0".repeat(64 - bin.length()) + bin;
-        for (int i = 7; i >= 0; i--) {
-            bin = bin.substring(0, i * 8) + " " + bin.substring(i * 8);
-        }
-        return bin;
-    }
 }
@@ -0,0 +1,119 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.Coordinates;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.CoordinatesList;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.PackedCoordinates;
+import lombok.SneakyThrows;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Registry of all coordinates lists of an extraction run, shared by all countries.
+ * Coordinates lists are identified by a content hash (128 bit), equal lists are only stored once
+ * and a coordinates text (e.g. an airspace polygon used in multiple notams) is only parsed once.
+ * A packing registry stores the lists as PackedCoordinates (rounded to 1e-6 degrees, for the delta encoded output),
+ * otherwise the parsed values are kept exactly.
+ * The registry is thread safe.
+ */
+public class GeometryRegistry {
+    /**
+     * Coordinates lists by the text they were parsed from.
+     */
+    private final Map<String, CoordinatesList> coordinatesListsByText = new ConcurrentHashMap<>();
+
+    /**
+     * Coordinates lists by hash.
+     */
+    private final Map<String, CoordinatesList> coordinatesLists = new ConcurrentHashMap<>();
+
+    /**
+     * If true the coordinates are stored as PackedCoordinates.
+     */
+    private final boolean packed;
+
+    /**
+     * Create a new registry keeping the exact coordinates.
+     */
+    public GeometryRegistry() {
+        this(false);
+    }
+
+    /**
+     * Create a new registry.
+     * @param packed If true the coordinates are stored as PackedCoordinates (rounded to 1e-6 degrees),
+     *               only for the delta encoded output (DetailedNotamParser.DELTA_COORDINATES_DATA_VERSION).
+     */
+    public GeometryRegistry(boolean packed) {
+        this.packed = packed;
+    }
+
+    /**
+     * Get the coordinates list of a text, the text is only parsed if it has not been parsed before.
+     * @param text The text of the coordinates (a run of coordinates in a notam text).
+     * @param parser The function to parse the text with.
+     * @return The registered coordinates list.
+     */
+    CoordinatesList get(String text, Function<String, List<Coordinates>> parser) {
+        return coordinatesListsByText.computeIfAbsent(text, t -> register(parser.apply(t)));
+    }
+
+    /**
+     * Register a coordinates list, if an equal list is already registered the existing list is returned.
+     * @param coordinates The coordinates.
+     * @return The registered coordinates list.
+     */
+    public CoordinatesList register(List<Coordinates> coordinates) {
+        if (packed) {
+            final PackedCoordinates packedCoordinates = PackedCoordinates.of(coordinates);
+            return coordinatesLists.computeIfAbsent(hashFixedPoint(packedCoordinates), h -> new CoordinatesList(h, packedCoordinates));
+        }
+        return coordinatesLists.computeIfAbsent(hash(coordinates), h -> new CoordinatesList(h, List.copyOf(coordinates)));
+    }
+
+    /**
+     * @return The number of distinct registered coordinates lists.
+     */
+    public int size() {
+        return coordinatesLists.size();
+    }
+
+    /**
+     * Compute the content hash of coordinates.
+     * @param coordinates The coordinates to hash.
+     * @return The first 16 bytes of the SHA-256 hash of all latitudes and longitudes (hex).
+     */
+    public static String hash(List<Coordinates> coordinates) {
+        final ByteBuffer buffer = ByteBuffer.allocate(coordinates.size() * 2 * Double.BYTES);
+        for (Coordinates c : coordinates) {
+            buffer.putDouble(c.latitude());
+            buffer.putDouble(c.longitude());
+        }
+        return hash(buffer);
+    }
+
+    /**
+     * Compute the content hash of packed coordinates.
+     * @param coordinates The coordinates to hash.
+     * @return The first 16 bytes of the SHA-256 hash of all fixed-point latitudes and longitudes (hex).
+     */
+    public static String hashFixedPoint(PackedCoordinates coordinates) {
+        final ByteBuffer buffer = ByteBuffer.allocate(coordinates.size() * 2 * Integer.BYTES);
+        for (int i = 0; i < coordinates.size(); i++) {
+            buffer.putInt(coordinates.latitude(i));
+            buffer.putInt(coordinates.longitude(i));
+        }
+        return hash(buffer);
+    }
+
+    @SneakyThrows
+    private static String hash(ByteBuffer buffer) {
+        final byte[] hash = MessageDigest.getInstance("SHA-256").digest(buffer.array());
+        return HexFormat.of().formatHex(hash, 0, 16);
+    }
+}
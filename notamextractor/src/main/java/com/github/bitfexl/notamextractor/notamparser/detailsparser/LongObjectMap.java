@@ -0,0 +1,205 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A hash map from long keys (notam ids, raw hashes) to objects without boxing the keys.
+ * Open addressing with linear probing in parallel key and value arrays, resized at half load.
+ * Null values are not supported (get returns null for missing keys), entries can not be removed.
+ * Not thread safe, but safe for concurrent reads once filled and safely published.
+ * @param <V> The type of the values.
+ */
+public class LongObjectMap<V> {
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    /**
+     * Key 0 marks an empty slot, an entry with key 0 is kept outside of the table.
+     */
+    private long[] keys;
+
+    private Object[] values;
+
+    private int size;
+
+    private V zeroKeyValue;
+
+    /**
+     * Create an empty map.
+     */
+    public LongObjectMap() {
+        this(8);
+    }
+
+    /**
+     * Create an empty map.
+     * @param expectedSize The number of entries the map holds without resizing.
+     */
+    public LongObjectMap(int expectedSize) {
+        final int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        keys = new long[capacity];
+        values = new Object[capacity];
+    }
+
+    /**
+     * @return The value of the key or null if the map does not contain the key.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0) {
+            return zeroKeyValue;
+        }
+        final int mask = keys.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+            if (keys[slot] == 0) {
+                return null;
+            }
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Add or replace an entry.
+     * @param key The key.
+     * @param value The value (not null).
+     * @return The previous value or null if there was none.
+     */
+    public V put(long key, V value) {
+        return put(key, value, true);
+    }
+
+    /**
+     * Add an entry if the map does not contain the key.
+     * @param key The key.
+     * @param value The value (not null).
+     * @return The existing value (not replaced) or null if the entry was added.
+     */
+    public V putIfAbsent(long key, V value) {
+        return put(key, value, false);
+    }
+
+    /**
+     * @return The number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return All keys, in no particular order.
+     */
+    public long[] keys() {
+        final long[] result = new long[size];
+        int i = 0;
+        if (zeroKeyValue != null) {
+            result[i++] = 0;
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                result[i++] = key;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return All keys in ascending order.
+     */
+    public long[] sortedKeys() {
+        final long[] result = keys();
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Call a consumer for all entries, in no particular order.
+     * @param consumer The consumer.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> consumer) {
+        if (zeroKeyValue != null) {
+            consumer.accept(0, zeroKeyValue);
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                consumer.accept(keys[slot], (V) values[slot]);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V put(long key, V value, boolean replace) {
+        Objects.requireNonNull(value, "value");
+
+        if (key == 0) {
+            final V previous = zeroKeyValue;
+            if (previous == null) {
+                size++;
+            }
+            if (previous == null || replace) {
+                zeroKeyValue = value;
+            }
+            return previous;
+        }
+
+        final int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                final V previous = (V) values[slot];
+                if (replace) {
+                    values[slot] = value;
+                }
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+        return null;
+    }
+
+    private void resize() {
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+
+        final int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i], mask);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Spread all key bits (ids differ mostly in the middle bits, raw hashes are random) over the slot index.
+     */
+    private static int slot(long key, int mask) {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,177 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.NotamType;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resolves replacement (NOTAMR) and cancellation (NOTAMC) chains of notam data:
+ * notams replaced or cancelled by another notam of the data are dropped, the remaining notams
+ * are annotated with the ids of the dropped notams they supersede (DetailedNotam.supersededNotamIds),
+ * the previous notam first, followed by the notams replaced by it (the replacement chain).
+ * Notams superseding a notam which is not part of the data are left unchanged.
+ * Cancellations are kept, only their targets are dropped.
+ * Runs in linear time: every notam is superseded by at most one notam (the first one in the data),
+ * so every notam is part of at most one chain. Instances are stateless and thread safe.
+ */
+public class NotamChainResolver {
+    /**
+     * The resolved chains of a set of notams, only the ids are kept.
+     */
+    public static class Chains {
+        /**
+         * All ids of the set, mapped to the link to the previous notam if the notam supersedes another notam of the set.
+         */
+        private final LongObjectMap<Link> links;
+
+        // superseded id -> the link of the notam superseding it
+        private final LongObjectMap<Link> supersededBy;
+
+        private Chains(int size) {
+            links = new LongObjectMap<>(size);
+            supersededBy = new LongObjectMap<>(size);
+        }
+
+        /**
+         * @return true: the notam is replaced or cancelled by another notam of the set and is dropped.
+         */
+        public boolean isSuperseded(long id) {
+            return supersededBy.containsKey(id);
+        }
+
+        /**
+         * @return The number of dropped notams.
+         */
+        public int supersededCount() {
+            return supersededBy.size();
+        }
+
+        /**
+         * Annotate a notam of the set with the ids of the notams it supersedes.
+         * @param notam The notam (not superseded).
+         * @return The annotated notam or the same notam if it does not supersede any notam of the set.
+         */
+        public DetailedNotam annotate(DetailedNotam notam) {
+            if (notam.id() == null) {
+                return notam;
+            }
+
+            final List<Long> superseded = new ArrayList<>();
+            Link link = links.get(notam.id());
+            // only follow the links owned by this chain, a notam is never visited twice
+            while (link != null && supersededBy.get(link.previousId) == link) {
+                superseded.add(link.previousId);
+                link = links.get(link.previousId);
+            }
+
+            if (superseded.isEmpty()) {
+                return notam;
+            }
+            return new DetailedNotam(notam.notam(), notam.id(), notam.previousNotamId(), notam.textNodes(), notam.activePeriods(), List.copyOf(superseded));
+        }
+
+        private void add(long id) {
+            if (id != 0) {
+                links.putIfAbsent(id, NO_LINK);
+            }
+        }
+
+        private void link(long id, long previousId, NotamType type) {
+            if (id == 0 || previousId == 0 || previousId == id || (type != NotamType.REPLACE && type != NotamType.CANCEL)) {
+                return;
+            }
+            // only the first notam with an id links
+            if (links.get(id) != NO_LINK || !links.containsKey(previousId)) {
+                return;
+            }
+            final Link link = new Link(previousId);
+            links.put(id, link);
+            supersededBy.putIfAbsent(previousId, link);
+        }
+    }
+
+    private record Link(long previousId) {}
+
+    /**
+     * The link of notams not superseding another notam of the set (previous id 0 is never superseded).
+     */
+    private static final Link NO_LINK = new Link(0);
+
+    /**
+     * Resolve the chains of notam data.
+     * @param notamData The notam data (e.g. of a country), with or without coordinates lists.
+     * @return The data without superseded notams and coordinates lists only referenced by them.
+     */
+    public NotamData resolve(NotamData notamData) {
+        final List<DetailedNotam> notams = notamData.notams();
+
+        final Chains chains = new Chains(notams.size());
+        for (DetailedNotam notam : notams) {
+            chains.add(id(notam.id()));
+        }
+        for (DetailedNotam notam : notams) {
+            chains.link(id(notam.id()), id(notam.previousNotamId()), notam.notam() == null ? null : notam.notam().getType());
+        }
+
+        final List<DetailedNotam> survivors = new ArrayList<>(notams.size() - chains.supersededCount());
+        for (DetailedNotam notam : notams) {
+            if (!chains.isSuperseded(id(notam.id()))) {
+                survivors.add(chains.annotate(notam));
+            }
+        }
+
+        final List<CoordinatesList> coordinatesLists = chains.supersededCount() == 0 ? notamData.coordinatesLists() : referencedCoordinatesLists(survivors, notamData.coordinatesLists());
+        return new NotamData(notamData.version(), notamData.date(), survivors, coordinatesLists, notamData.geometryFile());
+    }
+
+    /**
+     * Resolve the chains of notams before they are detailed (e.g. to skip superseded notams, see DetailedNotamParser).
+     * The result is the same as for the detailed notams in the order of the ids.
+     * @param ids The notam ids (NotamId.of).
+     * @param notams The notams by id.
+     * @return The resolved chains.
+     */
+    public Chains resolve(long[] ids, LongObjectMap<Notam> notams) {
+        final Chains chains = new Chains(ids.length);
+        for (long id : ids) {
+            chains.add(id);
+        }
+        for (long id : ids) {
+            final Notam notam = notams.get(id);
+            if (notam != null && notam.getPreviousNotam() != null) {
+                chains.link(id, NotamId.of(notam.getPreviousNotam(), notam.getFir()), notam.getType());
+            }
+        }
+        return chains;
+    }
+
+    /**
+     * Notams without id (null or 0, see NotamId.of) are never part of a chain.
+     */
+    private static long id(Long id) {
+        return id == null ? 0 : id;
+    }
+
+    private static List<CoordinatesList> referencedCoordinatesLists(List<DetailedNotam> notams, List<CoordinatesList> coordinatesLists) {
+        if (coordinatesLists == null) {
+            return null;
+        }
+        final Set<String> referenced = new HashSet<>();
+        for (DetailedNotam notam : notams) {
+            if (notam.textNodes() == null) {
+                continue;
+            }
+            for (TextNode textNode : notam.textNodes()) {
+                if (textNode.reference() != null && textNode.reference().coordinatesList() != null) {
+                    referenced.add(textNode.reference().coordinatesList());
+                }
+            }
+        }
+        return coordinatesLists.stream().filter(coordinatesList -> referenced.contains(coordinatesList.hash())).toList();
+    }
+}
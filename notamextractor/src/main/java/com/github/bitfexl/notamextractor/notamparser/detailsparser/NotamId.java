@@ -0,0 +1,176 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+
+/**
+ * The id of a notam, encoded as a positive long which is unique per year, series, number and fir:
+ * <pre>
+ * 1 byte id version, first bit reserved to stay positive
+ * 1 + 1/2 byte year (to 4095)
+ * 2 + 1/2 byte series + number
+ *   5 bit series (letter)
+ *   1 byte + 7 bit number
+ * 3 byte fir
+ *   4 bit padding
+ *   20 bit = 4 letters (5 bit) fir
+ * </pre>
+ * Firs shorter than 4 letters are padded with leading "X".
+ * @param year The year the notam was published.
+ * @param series The series (a letter from A-Z without S and T).
+ * @param number The number of the notam in the series.
+ * @param fir The fir the notam was published in.
+ */
+public record NotamId(int year, char series, int number, String fir) {
+    public static final byte VERSION = 1;
+
+    private static final int FIR_LETTERS = 4;
+
+    /**
+     * @return The encoded id.
+     * @throws IllegalArgumentException If the series or the fir contain other characters than A-Z.
+     */
+    public long encode() {
+        return encode(year, series, number, fir);
+    }
+
+    /**
+     * Encode a notam id.
+     * @return A unique id, always positive.
+     * @throws IllegalArgumentException If the series or the fir contain other characters than A-Z.
+     */
+    public static long encode(int year, char series, int number, String fir) {
+        long id = 0;
+
+        id |= VERSION;
+
+        id = id << 12;
+        id |= (year & 0xfff);
+
+        final byte seriesByte = letterToByte(series);
+        if (seriesByte == -1) {
+            throw new IllegalArgumentException("Series must be a single uppercase letter (A-Z), but got '" + series + "'.");
+        }
+
+        id = id << 5;
+        id |= seriesByte;
+
+        id = id << 15;
+        id |= (number & 0x7fff);
+
+        if (fir.length() < FIR_LETTERS) {
+            fir = "X".repeat(FIR_LETTERS - fir.length()) + fir;
+        }
+
+        if (fir.length() != FIR_LETTERS) {
+            throw new IllegalArgumentException("FIR must be a four letter string (uppercase, A-Z), but got '" + fir + "'.");
+        }
+
+        id = id << 4;
+        for (int i = 0; i < FIR_LETTERS; i++) {
+            final byte firByte = letterToByte(fir.charAt(i));
+            if (firByte == -1) {
+                throw new IllegalArgumentException("FIR must consist of only uppercase letters (A-Z), but got '" + fir + "'.");
+            }
+            id = id << 5;
+            id |= firByte;
+        }
+
+        return id;
+    }
+
+    /**
+     * Encode the id of a notam.
+     * @param notam The notam.
+     * @return The id or 0 if year, series, number or fir are missing.
+     * @throws IllegalArgumentException If the series or the fir contain other characters than A-Z.
+     */
+    public static long of(Notam notam) {
+        return of(notam, notam.getFir());
+    }
+
+    /**
+     * Encode the id of a notam published in a fir (e.g. a previous notam, which has no fir set).
+     * @param notam The notam (year, series and number are used).
+     * @param fir The fir.
+     * @return The id or 0 if year, series, number or fir are missing.
+     * @throws IllegalArgumentException If the series or the fir contain other characters than A-Z.
+     */
+    public static long of(Notam notam, String fir) {
+        if (notam.getYear() == null || notam.getSeries() == null || notam.getNumber() == null || fir == null) {
+            return 0;
+        }
+        return encode(notam.getYear(), notam.getSeries(), notam.getNumber(), fir);
+    }
+
+    /**
+     * Encode the id of a notam referenced by its number (e.g. in a notam text).
+     * @param notamNumber The notam number (e.g. "A1234/24").
+     * @param fir The fir of the referenced notam.
+     * @return The id or 0 if the fir is unknown (null).
+     * @throws IllegalArgumentException If the number is not in the format "A1234/24" or the fir contains other characters than A-Z.
+     */
+    public static long ofNotamNumber(String notamNumber, String fir) {
+        if (fir == null) {
+            return 0;
+        }
+        if (notamNumber.length() != 8 || notamNumber.charAt(5) != '/') {
+            throw new IllegalArgumentException("Notam number must be in the format 'A1234/24', but got '" + notamNumber + "'.");
+        }
+        final int number = Integer.parseInt(notamNumber, 1, 5, 10);
+        final int year = 2000 + Integer.parseInt(notamNumber, 6, 8, 10);
+        return encode(year, notamNumber.charAt(0), number, fir);
+    }
+
+    /**
+     * Decode an id.
+     * @param id The encoded id.
+     * @return The decoded id (padded fir).
+     * @throws IllegalArgumentException If the id is not positive or has an unknown version.
+     */
+    public static NotamId decode(long id) {
+        if (id <= 0 || id >>> 56 != VERSION) {
+            throw new IllegalArgumentException("Not a notam id (version " + VERSION + "): " + id + ".");
+        }
+        final char[] fir = new char[FIR_LETTERS];
+        for (int i = 0; i < FIR_LETTERS; i++) {
+            fir[i] = (char) ('A' + ((id >>> (5 * (FIR_LETTERS - 1 - i))) & 0x1f));
+        }
+        return new NotamId(year(id), series(id), number(id), new String(fir));
+    }
+
+    /**
+     * @return The year of an encoded id.
+     */
+    public static int year(long id) {
+        return (int) ((id >>> 44) & 0xfff);
+    }
+
+    /**
+     * @return The series of an encoded id.
+     */
+    public static char series(long id) {
+        return (char) ('A' + ((id >>> 39) & 0x1f));
+    }
+
+    /**
+     * @return The number of an encoded id.
+     */
+    public static int number(long id) {
+        return (int) ((id >>> 24) & 0x7fff);
+    }
+
+    /**
+     * @return The notam number and fir, e.g. "A1234/24 LOWW".
+     */
+    @Override
+    public String toString() {
+        return String.format("%c%04d/%02d %s", series, number, year % 100, fir);
+    }
+
+    private static byte letterToByte(char letter) {
+        if (letter < 'A' || letter > 'Z') {
+            return -1;
+        }
+        return (byte) (letter - 'A');
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.Period;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A compiled item D schedule (see ScheduleCompiler): the sorted, non-overlapping intervals a notam is active,
+ * expanded across item B to C. Evaluating a time is a binary search, the schedule text is not needed any more.
+ * Instances are immutable and thread safe.
+ */
+public final class Schedule {
+    /**
+     * No sunrise or sunset offset.
+     */
+    static final int NO_OFFSET = Integer.MIN_VALUE;
+
+    /**
+     * Epoch seconds, starts (inclusive) ascending, ends exclusive.
+     */
+    private final long[] starts;
+
+    private final long[] ends;
+
+    private final int[] sunriseOffsets;
+
+    private final int[] sunsetOffsets;
+
+    Schedule(long[] starts, long[] ends, int[] sunriseOffsets, int[] sunsetOffsets) {
+        this.starts = starts;
+        this.ends = ends;
+        this.sunriseOffsets = sunriseOffsets;
+        this.sunsetOffsets = sunsetOffsets;
+    }
+
+    /**
+     * @param epochSecond The time.
+     * @return true: the time is inside an interval.
+     */
+    public boolean isActive(long epochSecond) {
+        int index = Arrays.binarySearch(starts, epochSecond);
+        if (index < 0) {
+            // the last interval starting before the time
+            index = -index - 2;
+        }
+        return index >= 0 && epochSecond < ends[index];
+    }
+
+    /**
+     * @return The number of intervals.
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * @param index The index of the interval.
+     * @return The start in epoch seconds (inclusive).
+     */
+    public long start(int index) {
+        return starts[index];
+    }
+
+    /**
+     * @param index The index of the interval.
+     * @return The end in epoch seconds (exclusive).
+     */
+    public long end(int index) {
+        return ends[index];
+    }
+
+    /**
+     * Convert to periods. Start and end are the computed times, periods starting at sunrise or ending at sunset
+     * (computed at the item Q coordinates) additionally have the offset in minutes to sunrise or sunset set.
+     * @return The periods.
+     */
+    public List<Period> toPeriods() {
+        final List<Period> periods = new ArrayList<>(starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            periods.add(new Period(
+                    new Date(starts[i] * 1000),
+                    new Date(ends[i] * 1000),
+                    sunriseOffsets[i] == NO_OFFSET ? null : sunriseOffsets[i],
+                    sunsetOffsets[i] == NO_OFFSET ? null : sunsetOffsets[i]
+            ));
+        }
+        return periods;
+    }
+}
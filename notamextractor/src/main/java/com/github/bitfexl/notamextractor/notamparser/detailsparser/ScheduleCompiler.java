@@ -0,0 +1,377 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compiles the schedule of a notam (item D) into a Schedule expanded across item B to C.
+ * Supported are (separated by spaces or commas, multiple rules after each other):
+ * <ul>
+ *     <li>days: "DAILY", "DLY", weekdays ("MON", "MON-FRI", "FRI-MON"), "EXC" followed by weekdays
+ *     (before or after the times of the rule: "MON-FRI EXC WED 0700-1500", "DAILY 0700-1500 EXC SUN"),
+ *     dates ("JAN 05 07 10-15") and days of the month ("05 07 10-15")</li>
+ *     <li>times: "0700-1500" (ending on the next day if the end is before the start), "H24",
+ *     sunrise and sunset ("SR-SS", "SR MINUS30-1500", "0700-SS PLUS15")</li>
+ * </ul>
+ * A rule without days applies to every day. Notams without a schedule are not compiled (they are active from item B to C).
+ * Public holidays are not known, "EXC HOL" is ignored (the periods include holidays).
+ * Item C estimations are used as the end. Schedules that can not be expanded completely
+ * (unknown syntax, permanent notams, sunrise or sunset without item Q coordinates, too many periods) are not compiled.
+ * Instances are stateless and thread safe.
+ */
+public class ScheduleCompiler {
+    private static final int MAX_PERIODS = 1000;
+
+    private static final long SECONDS_PER_DAY = 86400;
+
+    private static final String[] WEEKDAYS = {"MON", "TUE", "WED", "THU", "FRI", "SAT", "SUN"};
+
+    private static final String[] MONTHS = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+
+    private enum Reference {
+        UTC,
+        SUNRISE,
+        SUNSET
+    }
+
+    /**
+     * A start or end of a time range.
+     * @param minutes Minutes after midnight (UTC) or the offset to sunrise or sunset.
+     */
+    private record Time(Reference reference, int minutes) {}
+
+    private record TimeRange(Time start, Time end) {}
+
+    /**
+     * The times of a rule apply on all days matching all set day filters.
+     */
+    private static class Rule {
+        int weekdays;
+
+        int excludedWeekdays;
+
+        /**
+         * month * 32 + day, null if not filtered by date.
+         */
+        BitSet dates;
+
+        /**
+         * Bit per day of the month, 0 if not filtered by day of the month.
+         */
+        int monthDays;
+
+        final List<TimeRange> times = new ArrayList<>();
+
+        boolean matches(long epochDay) {
+            final int weekday = (int) Math.floorMod(epochDay + 3, 7); // 1970-01-01 is a thursday
+            if (weekdays != 0 && (weekdays & (1 << weekday)) == 0 || (excludedWeekdays & (1 << weekday)) != 0) {
+                return false;
+            }
+            if (dates == null && monthDays == 0) {
+                return true;
+            }
+            final LocalDate date = LocalDate.ofEpochDay(epochDay);
+            return (dates != null && dates.get(date.getMonthValue() * 32 + date.getDayOfMonth()))
+                    || (monthDays & (1 << date.getDayOfMonth())) != 0;
+        }
+    }
+
+    /**
+     * Compile the schedule of a notam.
+     * @param notam The notam (item B, C, D and for sunrise and sunset item Q coordinates are used).
+     * @return The compiled schedule or null if the notam has no schedule or it can not be compiled.
+     */
+    public Schedule compile(Notam notam) {
+        if (notam.getSchedule() == null || notam.getSchedule().isBlank()
+                || notam.getFrom() == null || notam.getTo() == null || Boolean.TRUE.equals(notam.getIsPermanent())) {
+            return null;
+        }
+        final long from = notam.getFrom();
+        final long to = notam.getTo();
+        if (to <= from) {
+            return null;
+        }
+
+        final List<Rule> rules = parse(notam.getSchedule());
+        if (rules == null) {
+            return null;
+        }
+        return expand(rules, from, to, notam.getLatitude(), notam.getLongitude());
+    }
+
+    private List<Rule> parse(String schedule) {
+        final String[] tokens = schedule.toUpperCase()
+                .replace(',', ' ')
+                .replaceAll("\\s+(MINUS|PLUS)", "$1")
+                .replaceAll("\\s*-\\s*", "-")
+                .trim()
+                .split("\\s+");
+
+        final List<Rule> rules = new ArrayList<>();
+        Rule rule = new Rule();
+        int month = -1;
+        boolean excluding = false;
+        // "EXC" after the times of a rule ("DAILY 0700-1500 EXC SUN")
+        boolean excludingAfterTimes = false;
+
+        for (String token : tokens) {
+            final TimeRange timeRange = token.equals("H24")
+                    ? new TimeRange(new Time(Reference.UTC, 0), new Time(Reference.UTC, 24 * 60))
+                    : parseTimeRange(token);
+            if (timeRange != null) {
+                if (excludingAfterTimes) {
+                    // "DAILY 0700-1500 EXC SUN MON 0800-1000": the excluded days can not be told apart from the next rule
+                    return null;
+                }
+                rule.times.add(timeRange);
+                continue;
+            }
+
+            if (token.equals("EXC")) {
+                excludingAfterTimes = !rule.times.isEmpty();
+                excluding = true;
+                continue;
+            }
+
+            if (excludingAfterTimes) {
+                final int weekdays = parseWeekdays(token);
+                if (weekdays != 0) {
+                    rule.excludedWeekdays |= weekdays;
+                    continue;
+                }
+                if (token.equals("HOL")) {
+                    continue;
+                }
+                return null;
+            }
+
+            // days after times start a new rule
+            if (!rule.times.isEmpty()) {
+                rules.add(rule);
+                rule = new Rule();
+                month = -1;
+                excluding = false;
+            }
+
+            if (token.equals("DAILY") || token.equals("DLY")) {
+                continue;
+            }
+            if (token.equals("HOL") && excluding) {
+                continue;
+            }
+
+            final int weekdays = parseWeekdays(token);
+            if (weekdays != 0) {
+                if (excluding) {
+                    rule.excludedWeekdays |= weekdays;
+                } else {
+                    rule.weekdays |= weekdays;
+                }
+                continue;
+            }
+
+            final int monthIndex = indexOf(MONTHS, token);
+            if (monthIndex != -1 && !excluding) {
+                month = monthIndex + 1;
+                continue;
+            }
+
+            final int[] days = parseDays(token);
+            if (days == null || excluding) {
+                return null;
+            }
+            for (int day = days[0]; day <= days[1]; day++) {
+                if (month == -1) {
+                    rule.monthDays |= 1 << day;
+                } else {
+                    if (rule.dates == null) {
+                        rule.dates = new BitSet(13 * 32);
+                    }
+                    rule.dates.set(month * 32 + day);
+                }
+            }
+        }
+
+        if (rule.times.isEmpty()) {
+            return null;
+        }
+        rules.add(rule);
+        return rules;
+    }
+
+    private Schedule expand(List<Rule> rules, long from, long to, Double latitude, Double longitude) {
+        final boolean usesSun = rules.stream().flatMap(r -> r.times.stream())
+                .anyMatch(t -> t.start().reference() != Reference.UTC || t.end().reference() != Reference.UTC);
+        if (usesSun && (latitude == null || longitude == null)) {
+            return null;
+        }
+
+        // start, end, sunrise offset, sunset offset
+        final List<long[]> intervals = new ArrayList<>();
+
+        // from the day before (times crossing midnight) to the last day
+        final long lastDay = Math.floorDiv(to - 1, SECONDS_PER_DAY);
+        for (long day = Math.floorDiv(from, SECONDS_PER_DAY) - 1; day <= lastDay; day++) {
+            final long[] sun = usesSun ? Sun.sunriseSunset(day, latitude, longitude) : null;
+            final long[] nextSun = usesSun ? Sun.sunriseSunset(day + 1, latitude, longitude) : null;
+
+            for (Rule rule : rules) {
+                if (!rule.matches(day)) {
+                    continue;
+                }
+                for (TimeRange range : rule.times) {
+                    final long start = time(range.start(), day, sun);
+                    long end = time(range.end(), day, sun);
+                    if (end <= start) {
+                        end = time(range.end(), day + 1, nextSun);
+                    }
+
+                    final long clippedStart = Math.max(start, from);
+                    final long clippedEnd = Math.min(end, to);
+                    if (clippedStart >= clippedEnd) {
+                        continue;
+                    }
+                    intervals.add(new long[]{
+                            clippedStart,
+                            clippedEnd,
+                            clippedStart == start && range.start().reference() == Reference.SUNRISE ? range.start().minutes() : Schedule.NO_OFFSET,
+                            clippedEnd == end && range.end().reference() == Reference.SUNSET ? range.end().minutes() : Schedule.NO_OFFSET
+                    });
+                    if (intervals.size() > MAX_PERIODS * 2) {
+                        return null;
+                    }
+                }
+            }
+        }
+
+        intervals.sort(Comparator.comparingLong(interval -> interval[0]));
+
+        // merge overlapping and adjacent intervals
+        final List<long[]> merged = new ArrayList<>();
+        for (long[] interval : intervals) {
+            final long[] last = merged.isEmpty() ? null : merged.getLast();
+            if (last != null && interval[0] <= last[1]) {
+                if (interval[1] > last[1]) {
+                    last[1] = interval[1];
+                    last[3] = interval[3];
+                }
+            } else {
+                merged.add(interval);
+            }
+        }
+        if (merged.size() > MAX_PERIODS) {
+            return null;
+        }
+
+        final long[] starts = new long[merged.size()];
+        final long[] ends = new long[merged.size()];
+        final int[] sunriseOffsets = new int[merged.size()];
+        final int[] sunsetOffsets = new int[merged.size()];
+        for (int i = 0; i < merged.size(); i++) {
+            starts[i] = merged.get(i)[0];
+            ends[i] = merged.get(i)[1];
+            sunriseOffsets[i] = (int) merged.get(i)[2];
+            sunsetOffsets[i] = (int) merged.get(i)[3];
+        }
+        return new Schedule(starts, ends, sunriseOffsets, sunsetOffsets);
+    }
+
+    private static long time(Time time, long day, long[] sun) {
+        return switch (time.reference()) {
+            case UTC -> day * SECONDS_PER_DAY + time.minutes() * 60L;
+            case SUNRISE -> sun[0] + time.minutes() * 60L;
+            case SUNSET -> sun[1] + time.minutes() * 60L;
+        };
+    }
+
+    /**
+     * Parse "hhmm-hhmm", "SR-SS", "SRMINUS30-hhmm", ... (spaces already removed).
+     */
+    private static TimeRange parseTimeRange(String token) {
+        final int dash = token.indexOf('-');
+        if (dash == -1 || token.indexOf('-', dash + 1) != -1) {
+            return null;
+        }
+        final Time start = parseTime(token.substring(0, dash));
+        final Time end = parseTime(token.substring(dash + 1));
+        return start == null || end == null ? null : new TimeRange(start, end);
+    }
+
+    private static Time parseTime(String s) {
+        if (s.length() == 4 && isDigits(s)) {
+            final int hours = Integer.parseInt(s, 0, 2, 10);
+            final int minutes = Integer.parseInt(s, 2, 4, 10);
+            if (hours > 24 || minutes > 59 || (hours == 24 && minutes != 0)) {
+                return null;
+            }
+            return new Time(Reference.UTC, hours * 60 + minutes);
+        }
+
+        final Reference reference = s.startsWith("SR") ? Reference.SUNRISE : s.startsWith("SS") ? Reference.SUNSET : null;
+        if (reference == null) {
+            return null;
+        }
+        final String offset = s.substring(2);
+        if (offset.isEmpty()) {
+            return new Time(reference, 0);
+        }
+        final int sign = offset.startsWith("MINUS") ? -1 : offset.startsWith("PLUS") ? 1 : 0;
+        final String minutes = offset.substring(sign == -1 ? 5 : 4);
+        if (sign == 0 || minutes.isEmpty() || minutes.length() > 3 || !isDigits(minutes)) {
+            return null;
+        }
+        return new Time(reference, sign * Integer.parseInt(minutes));
+    }
+
+    /**
+     * @return Bit per weekday (0 = monday) of "MON" or "MON-FRI" (wrapping around sunday), 0 if not a weekday.
+     */
+    private static int parseWeekdays(String token) {
+        final int dash = token.indexOf('-');
+        final int first = indexOf(WEEKDAYS, dash == -1 ? token : token.substring(0, dash));
+        final int last = dash == -1 ? first : indexOf(WEEKDAYS, token.substring(dash + 1));
+        if (first == -1 || last == -1) {
+            return 0;
+        }
+        int mask = 0;
+        for (int day = first; ; day = (day + 1) % 7) {
+            mask |= 1 << day;
+            if (day == last) {
+                return mask;
+            }
+        }
+    }
+
+    /**
+     * @return {first, last} of "05" or "05-15", null if not a day (range).
+     */
+    private static int[] parseDays(String token) {
+        final int dash = token.indexOf('-');
+        final String first = dash == -1 ? token : token.substring(0, dash);
+        final String last = dash == -1 ? token : token.substring(dash + 1);
+        if (first.length() != 2 || last.length() != 2 || !isDigits(first) || !isDigits(last)) {
+            return null;
+        }
+        final int[] days = {Integer.parseInt(first), Integer.parseInt(last)};
+        return days[0] < 1 || days[1] > 31 || days[0] > days[1] ? null : days;
+    }
+
+    private static boolean isDigits(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) < '0' || s.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(String[] values, String value) {
+        return Arrays.asList(values).indexOf(value);
+    }
+}
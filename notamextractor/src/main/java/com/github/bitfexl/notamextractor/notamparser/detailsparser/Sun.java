@@ -0,0 +1,50 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+/**
+ * Sunrise and sunset times (sunrise equation, accurate to about a minute outside of polar regions).
+ */
+final class Sun {
+    private static final double JULIAN_DAY_EPOCH = 2440587.5; // 1970-01-01T00:00Z
+
+    private static final double JULIAN_DAY_J2000 = 2451545.0;
+
+    private Sun() {}
+
+    /**
+     * Compute sunrise and sunset of a day.
+     * If the sun does not set (midnight sun) the day is returned, if it does not rise (polar night) both are solar noon.
+     * @param epochDay The day (UTC).
+     * @param latitude The latitude of the observer.
+     * @param longitude The longitude of the observer (east positive).
+     * @return {sunrise, sunset} in epoch seconds.
+     */
+    static long[] sunriseSunset(long epochDay, double latitude, double longitude) {
+        // days since J2000 (noon) to noon of the day, then mean solar noon at the longitude
+        final double n = epochDay + 0.5 + JULIAN_DAY_EPOCH - JULIAN_DAY_J2000;
+        final double meanNoon = n + 0.0009 - longitude / 360;
+
+        final double meanAnomaly = Math.toRadians((357.5291 + 0.98560028 * meanNoon) % 360);
+        final double center = 1.9148 * Math.sin(meanAnomaly) + 0.0200 * Math.sin(2 * meanAnomaly) + 0.0003 * Math.sin(3 * meanAnomaly);
+        final double eclipticLongitude = Math.toRadians((Math.toDegrees(meanAnomaly) + center + 180 + 102.9372) % 360);
+        final double transit = JULIAN_DAY_J2000 + meanNoon + 0.0053 * Math.sin(meanAnomaly) - 0.0069 * Math.sin(2 * eclipticLongitude);
+
+        final double declination = Math.asin(Math.sin(eclipticLongitude) * Math.sin(Math.toRadians(23.4397)));
+        final double phi = Math.toRadians(latitude);
+        final double cosHourAngle = (Math.sin(Math.toRadians(-0.833)) - Math.sin(phi) * Math.sin(declination)) / (Math.cos(phi) * Math.cos(declination));
+
+        final long transitSeconds = toEpochSecond(transit);
+        if (cosHourAngle < -1) {
+            return new long[]{epochDay * 86400, (epochDay + 1) * 86400};
+        }
+        if (cosHourAngle > 1) {
+            return new long[]{transitSeconds, transitSeconds};
+        }
+
+        final double hourAngle = Math.toDegrees(Math.acos(cosHourAngle));
+        return new long[]{toEpochSecond(transit - hourAngle / 360), toEpochSecond(transit + hourAngle / 360)};
+    }
+
+    private static long toEpochSecond(double julianDay) {
+        return Math.round((julianDay - JULIAN_DAY_EPOCH) * 86400);
+    }
+}
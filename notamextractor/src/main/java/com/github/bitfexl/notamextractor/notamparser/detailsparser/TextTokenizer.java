@@ -0,0 +1,298 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.Abbreviation;
+import lombok.SneakyThrows;
+
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Splits a notam text into tokens (links, abbreviations and notam numbers) in a single pass.
+ * Abbreviations and notam numbers ("A1234/24") are found with a precompiled Aho-Corasick automaton,
+ * so the cost per text does not depend on the size of the dictionary.
+ * Abbreviations and notam numbers only match whole words (not preceded or followed by a letter or digit)
+ * and are case-sensitive. Links are space separated words starting with "http://", "https://" or "www.".
+ * Instances are immutable and thread safe.
+ */
+class TextTokenizer {
+    /**
+     * A token in a text.
+     * @param start The start of the token (inclusive).
+     * @param end The end of the token (exclusive).
+     * @param type The token type.
+     * @param abbreviation The abbreviation code if type is ABBREVIATION, null otherwise.
+     */
+    record Token(int start, int end, Type type, String abbreviation) {}
+
+    enum Type {
+        LINK,
+        ABBREVIATION,
+        /**
+         * A notam number: series letter, 4 digit number, "/", 2 digit year.
+         */
+        NOTAM_NUMBER
+    }
+
+    // automaton alphabet: A-Z, any digit, "/"
+    private static final int DIGIT = 26;
+    private static final int SLASH = 27;
+    private static final int ALPHABET_SIZE = 28;
+
+    private static final String NOTAM_NUMBER_PATTERN = "#####/##"; // first # is replaced by the series letter
+
+    private static final String[] LINK_PREFIXES = {"https://", "http://", "www."};
+
+    private static TextTokenizer defaultTokenizer;
+
+    /**
+     * transitions[state * ALPHABET_SIZE + symbol]: the next state, failure transitions are already resolved.
+     */
+    private final int[] transitions;
+
+    /**
+     * The pattern ending exactly in a state, -1 if none.
+     */
+    private final int[] statePatterns;
+
+    /**
+     * The nearest state of a proper suffix with a pattern, -1 if none.
+     * Following these links lists all (shorter) patterns ending at the same position.
+     */
+    private final int[] outputLinks;
+
+    private final int[] patternLengths;
+
+    /**
+     * The abbreviation code of a pattern, null for notam numbers.
+     */
+    private final String[] patternCodes;
+
+    /**
+     * Build the automaton for a dictionary.
+     * @param abbreviations The abbreviations to match (codes consisting of A-Z and "/").
+     */
+    TextTokenizer(List<Abbreviation> abbreviations) {
+        final List<int[]> patterns = new ArrayList<>();
+        final List<String> codes = new ArrayList<>();
+
+        for (Abbreviation abbreviation : abbreviations) {
+            final int[] pattern = new int[abbreviation.code().length()];
+            for (int i = 0; i < pattern.length; i++) {
+                pattern[i] = symbol(abbreviation.code().charAt(i));
+                if (pattern[i] == -1 || pattern[i] == DIGIT) {
+                    throw new IllegalArgumentException("Abbreviation code must consist of only uppercase letters (A-Z) and '/', but got '" + abbreviation.code() + "'.");
+                }
+            }
+            patterns.add(pattern);
+            codes.add(abbreviation.code());
+        }
+
+        for (char series = 'A'; series <= 'Z'; series++) {
+            final int[] pattern = new int[NOTAM_NUMBER_PATTERN.length()];
+            for (int i = 0; i < pattern.length; i++) {
+                pattern[i] = i == 0 ? symbol(series) : NOTAM_NUMBER_PATTERN.charAt(i) == '#' ? DIGIT : SLASH;
+            }
+            patterns.add(pattern);
+            codes.add(null);
+        }
+
+        // --- trie ---
+
+        int maxStates = 1;
+        for (int[] pattern : patterns) {
+            maxStates += pattern.length;
+        }
+
+        final int[] trie = new int[maxStates * ALPHABET_SIZE];
+        Arrays.fill(trie, -1);
+        final int[] stateOutputs = new int[maxStates];
+        Arrays.fill(stateOutputs, -1);
+        int states = 1;
+
+        patternLengths = new int[patterns.size()];
+        patternCodes = codes.toArray(new String[0]);
+
+        for (int p = 0; p < patterns.size(); p++) {
+            final int[] pattern = patterns.get(p);
+            int state = 0;
+            for (int symbol : pattern) {
+                if (trie[state * ALPHABET_SIZE + symbol] == -1) {
+                    trie[state * ALPHABET_SIZE + symbol] = states++;
+                }
+                state = trie[state * ALPHABET_SIZE + symbol];
+            }
+            // the first of duplicate patterns is used
+            if (stateOutputs[state] == -1) {
+                stateOutputs[state] = p;
+            }
+            patternLengths[p] = pattern.length;
+        }
+
+        // --- failure links (breadth first), resolved into the transitions ---
+
+        transitions = Arrays.copyOf(trie, states * ALPHABET_SIZE);
+        statePatterns = Arrays.copyOf(stateOutputs, states);
+        outputLinks = new int[states];
+        Arrays.fill(outputLinks, -1);
+        final int[] failures = new int[states];
+
+        final Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            final int next = transitions[symbol];
+            if (next == -1) {
+                transitions[symbol] = 0;
+            } else {
+                failures[next] = 0;
+                queue.add(next);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            final int state = queue.remove();
+            final int failure = failures[state];
+
+            if (failure != 0) {
+                outputLinks[state] = statePatterns[failure] != -1 ? failure : outputLinks[failure];
+            }
+
+            for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+                final int next = transitions[state * ALPHABET_SIZE + symbol];
+                if (next == -1) {
+                    transitions[state * ALPHABET_SIZE + symbol] = transitions[failure * ALPHABET_SIZE + symbol];
+                } else {
+                    failures[next] = transitions[failure * ALPHABET_SIZE + symbol];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the tokenizer for the ICAO abbreviations (resource abbreviations.json).
+     * @return The shared tokenizer.
+     */
+    static synchronized TextTokenizer getDefault() {
+        if (defaultTokenizer == null) {
+            defaultTokenizer = new TextTokenizer(loadAbbreviations());
+        }
+        return defaultTokenizer;
+    }
+
+    /**
+     * Load the ICAO abbreviations (resource abbreviations.json).
+     * The dictionary is partial: abbreviations common in notams picked from ICAO Doc 8400, not the full list.
+     * @return The abbreviations.
+     */
+    @SneakyThrows
+    static List<Abbreviation> loadAbbreviations() {
+        try (InputStream inputStream = TextTokenizer.class.getResourceAsStream("/abbreviations.json")) {
+            return new ObjectMapper().readValue(inputStream, new TypeReference<>(){});
+        }
+    }
+
+    /**
+     * Tokenize a text.
+     * @param text The text to tokenize.
+     * @return The tokens ordered by start, tokens never overlap.
+     */
+    List<Token> tokenize(String text) {
+        final List<Token> tokens = new ArrayList<>();
+        final int length = text.length();
+
+        int state = 0;
+        int linkEnd = -1;
+
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+
+            // links are whole space separated words, nothing is matched inside them
+            if (i > linkEnd && (i == 0 || text.charAt(i - 1) == ' ')) {
+                final int wordEnd = wordEnd(text, i);
+                if (isLink(text, i, wordEnd)) {
+                    tokens.add(new Token(i, wordEnd, Type.LINK, null));
+                    linkEnd = wordEnd;
+                    state = 0;
+                }
+            }
+            if (i < linkEnd) {
+                continue;
+            }
+
+            final int symbol = symbol(c);
+            if (symbol == -1) {
+                state = 0;
+                continue;
+            }
+            state = transitions[state * ALPHABET_SIZE + symbol];
+
+            final int firstOutput = statePatterns[state] != -1 ? state : outputLinks[state];
+            if (firstOutput == -1 || (i + 1 < length && isWordCharacter(text.charAt(i + 1)))) {
+                continue;
+            }
+
+            // the longest pattern ending here which starts at a word boundary
+            for (int output = firstOutput; output != -1; output = outputLinks[output]) {
+                final int pattern = statePatterns[output];
+                final int start = i + 1 - patternLengths[pattern];
+                if (start == 0 || !isWordCharacter(text.charAt(start - 1))) {
+                    // a longer match replaces shorter ones inside it ("A/C" replaces "A")
+                    while (!tokens.isEmpty() && tokens.getLast().type() != Type.LINK && tokens.getLast().end() > start) {
+                        tokens.removeLast();
+                    }
+                    tokens.add(new Token(start, i + 1, patternCodes[pattern] == null ? Type.NOTAM_NUMBER : Type.ABBREVIATION, patternCodes[pattern]));
+                    break;
+                }
+            }
+        }
+
+        return tokens;
+    }
+
+    private static int wordEnd(String text, int start) {
+        final int end = text.indexOf(' ', start);
+        return end == -1 ? text.length() : end;
+    }
+
+    private static boolean isLink(String text, int start, int end) {
+        for (String prefix : LINK_PREFIXES) {
+            if (end - start >= prefix.length() && startsWithLowercase(text, start, prefix)) {
+                // same as word.indexOf(".", 4) != -1
+                final int dot = text.indexOf('.', start + 4);
+                return dot != -1 && dot < end;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWithLowercase(String text, int start, String prefix) {
+        for (int i = 0; i < prefix.length(); i++) {
+            if (Character.toLowerCase(text.charAt(start + i)) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWordCharacter(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= '0' && c <= '9') {
+            return DIGIT;
+        }
+        if (c == '/') {
+            return SLASH;
+        }
+        return -1;
+    }
+}
@@ -2,5 +2,10 @@ package com.github.bitfexl.notamextractor.notamparser.detailsparser.data;
 
 import java.util.List;
 
+/**
+ * A list of coordinates (e.g. the points of a polygon) referenced by text nodes.
+ * @param hash The content hash identifying the list.
+ * @param coordinates The coordinates, PackedCoordinates if registered in a packing GeometryRegistry.
+ */
 public record CoordinatesList(String hash, List<Coordinates> coordinates) {
 }
@@ -13,6 +13,7 @@ import java.util.List;
  * @param textNodes     The notam text as preprocessed text nodes.
  * @param activePeriods A list of periods where the notam is active.
  *                      Must be a complete list if present.
+ * @param supersededNotamIds The ids of the notams replaced or cancelled by this notam and dropped from the data (see NotamChainResolver) or null.
  */
-public record DetailedNotam(Notam notam, Long id, Long previousNotamId, List<TextNode> textNodes, List<Period> activePeriods) {
+public record DetailedNotam(Notam notam, Long id, Long previousNotamId, List<TextNode> textNodes, List<Period> activePeriods, List<Long> supersededNotamIds) {
 }
@@ -0,0 +1,12 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser.data;
+
+import java.util.List;
+
+/**
+ * The coordinates lists of all countries, shared by the notam data files.
+ * @param version The data version.
+ * @param date The date the data was generated.
+ * @param coordinatesLists All coordinates lists referenced by the notam data files.
+ */
+public record GeometryData(String version, String date, List<CoordinatesList> coordinatesLists) {
+}
@@ -4,5 +4,14 @@ import com.github.bitfexl.notamextractor.notamparser.Notam;
 
 import java.util.List;
 
-public record NotamData(String version, String date, List<DetailedNotam> notams, List<CoordinatesList> coordinatesLists) {
+/**
+ * The notam data of a country.
+ * @param version The data version.
+ * @param date The date the data was generated.
+ * @param notams The notams.
+ * @param coordinatesLists The coordinates lists referenced by the notams,
+ *                         null if they are stored in a shared geometry file.
+ * @param geometryFile The shared geometry file (GeometryData) containing the referenced coordinates lists or null.
+ */
+public record NotamData(String version, String date, List<DetailedNotam> notams, List<CoordinatesList> coordinatesLists, String geometryFile) {
 }
@@ -0,0 +1,86 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser.data;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of coordinates stored as fixed-point integers (1e-6 degrees, about 0.1 m),
+ * latitudes and longitudes interleaved in a single int array.
+ * Needs 8 bytes per coordinates instead of about 36 for a list of Coordinates objects,
+ * the Coordinates returned by get are created on demand.
+ */
+public final class PackedCoordinates extends AbstractList<Coordinates> implements RandomAccess {
+    /**
+     * Fixed-point units per degree.
+     */
+    public static final int SCALE = 1_000_000;
+
+    private static final PackedCoordinates EMPTY = new PackedCoordinates(new int[0]);
+
+    /**
+     * latitude0, longitude0, latitude1, longitude1, ...
+     */
+    private final int[] values;
+
+    private PackedCoordinates(int[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Pack coordinates.
+     * @param coordinates The coordinates to pack.
+     * @return The packed coordinates (the same instance if already packed).
+     */
+    public static PackedCoordinates of(List<Coordinates> coordinates) {
+        if (coordinates instanceof PackedCoordinates packedCoordinates) {
+            return packedCoordinates;
+        }
+        if (coordinates.isEmpty()) {
+            return EMPTY;
+        }
+
+        final int[] values = new int[coordinates.size() * 2];
+        int i = 0;
+        for (Coordinates c : coordinates) {
+            values[i++] = toFixedPoint(c.latitude());
+            values[i++] = toFixedPoint(c.longitude());
+        }
+        return new PackedCoordinates(values);
+    }
+
+    /**
+     * Convert degrees to fixed-point units.
+     * @param degrees The latitude or longitude in degrees.
+     * @return The rounded fixed-point value.
+     */
+    public static int toFixedPoint(double degrees) {
+        return (int) Math.round(degrees * SCALE);
+    }
+
+    /**
+     * @param index The index of the coordinates.
+     * @return The fixed-point latitude.
+     */
+    public int latitude(int index) {
+        return values[index * 2];
+    }
+
+    /**
+     * @param index The index of the coordinates.
+     * @return The fixed-point longitude.
+     */
+    public int longitude(int index) {
+        return values[index * 2 + 1];
+    }
+
+    @Override
+    public Coordinates get(int index) {
+        return new Coordinates(latitude(index) / (double) SCALE, longitude(index) / (double) SCALE);
+    }
+
+    @Override
+    public int size() {
+        return values.length / 2;
+    }
+}
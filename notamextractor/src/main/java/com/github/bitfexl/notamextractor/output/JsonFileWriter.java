@@ -0,0 +1,262 @@
+package com.github.bitfexl.notamextractor.output;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.bitfexl.notamextractor.metrics.LatencyHistogram;
+import com.github.bitfexl.notamextractor.metrics.Metrics;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.CoordinatesList;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.GeometryData;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.NotamData;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes compact json files together with precompressed (gzip and brotli) versions.
+ * Files are only replaced if writing was successful.
+ */
+public class JsonFileWriter {
+    private final ObjectWriter writer;
+
+    private final NotamDataSerializer notamDataSerializer;
+
+    /**
+     * Write latency (serialization and compression of a file) and counts, null without metrics.
+     */
+    private final LatencyHistogram writeLatency;
+
+    private final LongAdder writtenFiles;
+
+    private final LongAdder failedFiles;
+
+    /**
+     * The written bytes of the file, file.gz and file.br.
+     */
+    private final List<LongAdder> writtenBytes;
+
+    /**
+     * Create a new json file writer.
+     * @param objectMapper The object mapper used for serialization.
+     */
+    public JsonFileWriter(ObjectMapper objectMapper) {
+        this(objectMapper, null);
+    }
+
+    /**
+     * Create a new json file writer.
+     * @param objectMapper The object mapper used for serialization.
+     * @param metrics If not null the latency, number and size of the written files are recorded.
+     */
+    public JsonFileWriter(ObjectMapper objectMapper, Metrics metrics) {
+        // the stream must not be closed by jackson on errors as closing replaces the files
+        writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        notamDataSerializer = new NotamDataSerializer(objectMapper.getFactory());
+
+        if (metrics == null) {
+            writeLatency = null;
+            writtenFiles = null;
+            failedFiles = null;
+            writtenBytes = null;
+        } else {
+            writeLatency = metrics.histogram("notamextractor_write_seconds", "Latency of writing a json file with its compressed copies.");
+            writtenFiles = metrics.counter("notamextractor_written_files_total", "Json files written (each with a .gz and .br copy).");
+            failedFiles = metrics.counter("notamextractor_write_failures_total", "Json files not written because of an error.");
+            writtenBytes = List.of(
+                    metrics.counter("notamextractor_written_bytes_total", "Bytes written by encoding.", "encoding", "identity"),
+                    metrics.counter("notamextractor_written_bytes_total", "Bytes written by encoding.", "encoding", "gzip"),
+                    metrics.counter("notamextractor_written_bytes_total", "Bytes written by encoding.", "encoding", "br")
+            );
+        }
+    }
+
+    /**
+     * Write a value to a file (and file.gz, file.br).
+     * @param file The file to write.
+     * @param value The value to serialize.
+     * @throws IOException If the files could not be written.
+     */
+    public void write(Path file, Object value) throws IOException {
+        writeAtomically(file, outputStream -> writer.writeValue(outputStream, value));
+    }
+
+    /**
+     * Write notam data to a file (and file.gz, file.br) using the NotamDataSerializer.
+     * @param file The file to write.
+     * @param notamData The notam data to serialize.
+     * @throws IOException If the files could not be written.
+     */
+    public void write(Path file, NotamData notamData) throws IOException {
+        writeAtomically(file, outputStream -> notamDataSerializer.write(notamData, outputStream));
+    }
+
+    /**
+     * Write shared geometry data to a file (and file.gz, file.br) using the NotamDataSerializer.
+     * @param file The file to write.
+     * @param geometryData The geometry data to serialize.
+     * @throws IOException If the files could not be written.
+     */
+    public void write(Path file, GeometryData geometryData) throws IOException {
+        writeAtomically(file, outputStream -> notamDataSerializer.write(geometryData, outputStream));
+    }
+
+    /**
+     * Write notam data to a file (and file.gz, file.br) notam by notam, so the notams do not have to be kept in memory.
+     * If no notam is written the files are not replaced.
+     * @param file The file to write.
+     * @param version The data version (without shared geometry file).
+     * @param date The date of the data.
+     * @param content Writes the notams.
+     * @return The number of notams written.
+     * @throws IOException If the files could not be written.
+     */
+    public int write(Path file, String version, String date, NotamDataContent content) throws IOException {
+        final PendingNotamFile pendingFile = writePending(file, version, date, null, content);
+        if (pendingFile == null) {
+            return 0;
+        }
+        pendingFile.commit();
+        return pendingFile.getNotamCount();
+    }
+
+    /**
+     * Write notam data notam by notam like write(Path, String, String, NotamDataContent), but the files are only
+     * replaced when the returned file is committed (e.g. after the shared geometry file referenced by the data).
+     * @param file The file to write.
+     * @param version The data version.
+     * @param date The date of the data.
+     * @param geometryFile If not null the coordinates lists are not written, but referenced in this shared geometry file.
+     * @param content Writes the notams.
+     * @return The written file or null if no notam was written (the files are not replaced).
+     * @throws IOException If the files could not be written.
+     */
+    public PendingNotamFile writePending(Path file, String version, String date, String geometryFile, NotamDataContent content) throws IOException {
+        final long startNanos = System.nanoTime();
+        final PrecompressedFileOutputStream outputStream = new PrecompressedFileOutputStream(file);
+        final NotamDataStreamWriter streamWriter;
+        try {
+            final JsonGenerator generator = writer.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            streamWriter = new NotamDataStreamWriter(generator, notamDataSerializer, version, date, geometryFile);
+            content.writeTo(streamWriter);
+            if (streamWriter.getNotamCount() == 0) {
+                outputStream.abort();
+                return null;
+            }
+            streamWriter.finish();
+            generator.close();
+            outputStream.finish();
+        } catch (IOException | RuntimeException ex) {
+            outputStream.abort();
+            recordFailure();
+            throw ex;
+        }
+        return new PendingNotamFile(outputStream, System.nanoTime() - startNanos, streamWriter);
+    }
+
+    private void writeAtomically(Path file, Serialization serialization) throws IOException {
+        final long startNanos = System.nanoTime();
+        final PrecompressedFileOutputStream outputStream = new PrecompressedFileOutputStream(file);
+        try {
+            serialization.writeTo(outputStream);
+        } catch (IOException | RuntimeException ex) {
+            outputStream.abort();
+            recordFailure();
+            throw ex;
+        }
+        try {
+            outputStream.close();
+        } catch (IOException ex) {
+            recordFailure();
+            throw ex;
+        }
+        recordWritten(outputStream, System.nanoTime() - startNanos);
+    }
+
+    private void recordWritten(PrecompressedFileOutputStream outputStream, long writeNanos) throws IOException {
+        if (writeLatency != null) {
+            writeLatency.record(writeNanos);
+            writtenFiles.increment();
+            final List<Path> files = outputStream.getFiles();
+            for (int i = 0; i < files.size(); i++) {
+                writtenBytes.get(i).add(Files.size(files.get(i)));
+            }
+        }
+    }
+
+    private void recordFailure() {
+        if (failedFiles != null) {
+            failedFiles.increment();
+        }
+    }
+
+    /**
+     * Notam data written to temporary files, see writePending.
+     */
+    public class PendingNotamFile {
+        private final PrecompressedFileOutputStream outputStream;
+
+        private final long writeNanos;
+
+        private final NotamDataStreamWriter streamWriter;
+
+        private PendingNotamFile(PrecompressedFileOutputStream outputStream, long writeNanos, NotamDataStreamWriter streamWriter) {
+            this.outputStream = outputStream;
+            this.writeNanos = writeNanos;
+            this.streamWriter = streamWriter;
+        }
+
+        /**
+         * @return The number of notams written.
+         */
+        public int getNotamCount() {
+            return streamWriter.getNotamCount();
+        }
+
+        /**
+         * @return The coordinates lists referenced by the notams, ordered by hash.
+         */
+        public List<CoordinatesList> getCoordinatesLists() {
+            return streamWriter.getCoordinatesLists();
+        }
+
+        /**
+         * Replace the files with the written data.
+         * @throws IOException If the files could not be replaced.
+         */
+        public void commit() throws IOException {
+            try {
+                outputStream.commit();
+            } catch (IOException ex) {
+                outputStream.abort();
+                recordFailure();
+                throw ex;
+            }
+            recordWritten(outputStream, writeNanos);
+        }
+
+        /**
+         * Discard the written data, the files are not replaced.
+         */
+        public void abort() {
+            outputStream.abort();
+        }
+    }
+
+    /**
+     * The notams of a file written notam by notam.
+     */
+    @FunctionalInterface
+    public interface NotamDataContent {
+        void writeTo(NotamDataStreamWriter writer) throws IOException;
+    }
+
+    private interface Serialization {
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+}
@@ -0,0 +1,339 @@
+package com.github.bitfexl.notamextractor.output;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.github.bitfexl.notamextractor.notamparser.EpochSeconds;
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.DetailedNotamParser;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Hand-written serializer for notam data without reflection or intermediate trees.
+ * The output is byte-compatible with the databind serialization using Include.NON_NULL
+ * (same property order, null values are skipped), see notamextractor.d.ts for the schema.
+ * Data with the version DetailedNotamParser.DELTA_COORDINATES_DATA_VERSION is written with delta encoded coordinates lists:
+ * "deltaCoordinates" instead of "coordinates", a flat array of fixed-point (PackedCoordinates.SCALE) integers,
+ * the first latitude and longitude absolute, all following the difference to the previous latitude or longitude.
+ */
+public class NotamDataSerializer {
+    private final JsonFactory jsonFactory;
+
+    /**
+     * Create a new serializer.
+     * @param jsonFactory The factory to create the generators with (e.g. ObjectMapper.getFactory()).
+     */
+    public NotamDataSerializer(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Write notam data (utf-8) to an output stream.
+     * @param notamData The notam data to write.
+     * @param outputStream The stream to write to, is flushed but not closed.
+     * @throws IOException If writing failed.
+     */
+    public void write(NotamData notamData, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            write(notamData, generator);
+        }
+    }
+
+    /**
+     * Write notam data to a generator.
+     * @param notamData The notam data to write.
+     * @param generator The generator to write to.
+     * @throws IOException If writing failed.
+     */
+    public void write(NotamData notamData, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "version", notamData.version());
+        writeString(generator, "date", notamData.date());
+        if (notamData.notams() != null) {
+            generator.writeArrayFieldStart("notams");
+            for (DetailedNotam notam : notamData.notams()) {
+                writeDetailedNotam(generator, notam);
+            }
+            generator.writeEndArray();
+        }
+        writeCoordinatesLists(generator, notamData.coordinatesLists(), isDeltaEncoded(notamData.version()));
+        writeString(generator, "geometryFile", notamData.geometryFile());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Start writing notam data notam by notam (see NotamDataStreamWriter): the version, date and the start of the notams.
+     * @param generator The generator to write to.
+     * @param version The data version.
+     * @param date The date of the data.
+     * @throws IOException If writing failed.
+     */
+    void writeStart(JsonGenerator generator, String version, String date) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "version", version);
+        writeString(generator, "date", date);
+        generator.writeArrayFieldStart("notams");
+    }
+
+    /**
+     * Finish notam data started with writeStart: the end of the notams and the coordinates lists or geometry file.
+     * @param generator The generator to write to.
+     * @param version The data version.
+     * @param coordinatesLists The coordinates lists, null with a shared geometry file.
+     * @param geometryFile The shared geometry file, null if the coordinates lists are written.
+     * @throws IOException If writing failed.
+     */
+    void writeEnd(JsonGenerator generator, String version, List<CoordinatesList> coordinatesLists, String geometryFile) throws IOException {
+        generator.writeEndArray();
+        writeCoordinatesLists(generator, coordinatesLists, isDeltaEncoded(version));
+        writeString(generator, "geometryFile", geometryFile);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Write shared geometry data (utf-8) to an output stream.
+     * @param geometryData The geometry data to write.
+     * @param outputStream The stream to write to, is flushed but not closed.
+     * @throws IOException If writing failed.
+     */
+    public void write(GeometryData geometryData, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            writeString(generator, "version", geometryData.version());
+            writeString(generator, "date", geometryData.date());
+            writeCoordinatesLists(generator, geometryData.coordinatesLists(), isDeltaEncoded(geometryData.version()));
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Write a single detailed notam to a generator.
+     * @param generator The generator to write to.
+     * @param notam The notam to write.
+     * @throws IOException If writing failed.
+     */
+    public void writeDetailedNotam(JsonGenerator generator, DetailedNotam notam) throws IOException {
+        if (notam == null) {
+            generator.writeNull();
+            return;
+        }
+
+        generator.writeStartObject();
+        if (notam.notam() != null) {
+            generator.writeFieldName("notam");
+            writeNotam(generator, notam.notam());
+        }
+        writeNumber(generator, "id", notam.id());
+        writeNumber(generator, "previousNotamId", notam.previousNotamId());
+        if (notam.textNodes() != null) {
+            generator.writeArrayFieldStart("textNodes");
+            for (TextNode textNode : notam.textNodes()) {
+                writeTextNode(generator, textNode);
+            }
+            generator.writeEndArray();
+        }
+        if (notam.activePeriods() != null) {
+            generator.writeArrayFieldStart("activePeriods");
+            for (Period period : notam.activePeriods()) {
+                writePeriod(generator, period);
+            }
+            generator.writeEndArray();
+        }
+        if (notam.supersededNotamIds() != null) {
+            generator.writeArrayFieldStart("supersededNotamIds");
+            for (Long id : notam.supersededNotamIds()) {
+                generator.writeNumber(id);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeNotam(JsonGenerator generator, Notam notam) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "raw", notam.getRaw());
+        if (notam.getSeries() != null) {
+            generator.writeStringField("series", String.valueOf(notam.getSeries()));
+        }
+        writeNumber(generator, "number", notam.getNumber());
+        writeNumber(generator, "year", notam.getYear());
+        writeEnum(generator, "type", notam.getType());
+        if (notam.getPreviousNotam() != null) {
+            generator.writeFieldName("previousNotam");
+            writeNotam(generator, notam.getPreviousNotam());
+        }
+        writeString(generator, "fir", notam.getFir());
+        writeString(generator, "notamCode", notam.getNotamCode());
+        writeEnums(generator, "traffic", notam.getTraffic());
+        writeEnums(generator, "purposes", notam.getPurposes());
+        writeEnums(generator, "scopes", notam.getScopes());
+        writeNumber(generator, "qLower", notam.getqLower());
+        writeNumber(generator, "qUpper", notam.getqUpper());
+        writeNumber(generator, "latitude", notam.getLatitude());
+        writeNumber(generator, "longitude", notam.getLongitude());
+        writeNumber(generator, "radius", notam.getRadius());
+        if (notam.getLocationIndicators() != null) {
+            generator.writeArrayFieldStart("locationIndicators");
+            for (String locationIndicator : notam.getLocationIndicators()) {
+                generator.writeString(locationIndicator);
+            }
+            generator.writeEndArray();
+        }
+        writeEpochSeconds(generator, "from", notam.getFrom());
+        writeEpochSeconds(generator, "to", notam.getTo());
+        writeBoolean(generator, "isPermanent", notam.getIsPermanent());
+        writeBoolean(generator, "isEstimation", notam.getIsEstimation());
+        writeString(generator, "schedule", notam.getSchedule());
+        writeString(generator, "notamText", notam.getNotamText());
+        writeString(generator, "lowerLimit", notam.getLowerLimit());
+        writeString(generator, "upperLimit", notam.getUpperLimit());
+        writeString(generator, "created", notam.getCreated());
+        writeString(generator, "source", notam.getSource());
+        generator.writeEndObject();
+    }
+
+    private void writeTextNode(JsonGenerator generator, TextNode textNode) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "text", textNode.text());
+        final Reference reference = textNode.reference();
+        if (reference != null) {
+            generator.writeObjectFieldStart("reference");
+            writeString(generator, "abbreviation", reference.abbreviation());
+            writeString(generator, "coordinatesList", reference.coordinatesList());
+            writeString(generator, "webLink", reference.webLink());
+            writeNumber(generator, "notamId", reference.notamId());
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private void writePeriod(JsonGenerator generator, Period period) throws IOException {
+        generator.writeStartObject();
+        writeDate(generator, "start", period.start());
+        writeDate(generator, "end", period.end());
+        writeNumber(generator, "sunriseOffset", period.sunriseOffset());
+        writeNumber(generator, "sunsetOffset", period.sunsetOffset());
+        generator.writeEndObject();
+    }
+
+    private void writeCoordinatesLists(JsonGenerator generator, List<CoordinatesList> coordinatesLists, boolean deltaEncoded) throws IOException {
+        if (coordinatesLists == null) {
+            return;
+        }
+        generator.writeArrayFieldStart("coordinatesLists");
+        for (CoordinatesList coordinatesList : coordinatesLists) {
+            if (deltaEncoded) {
+                writeDeltaCoordinatesList(generator, coordinatesList);
+            } else {
+                writeCoordinatesList(generator, coordinatesList);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeDeltaCoordinatesList(JsonGenerator generator, CoordinatesList coordinatesList) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "hash", coordinatesList.hash());
+        if (coordinatesList.coordinates() != null) {
+            final PackedCoordinates coordinates = PackedCoordinates.of(coordinatesList.coordinates());
+            generator.writeArrayFieldStart("deltaCoordinates");
+            int latitude = 0;
+            int longitude = 0;
+            for (int i = 0; i < coordinates.size(); i++) {
+                generator.writeNumber(coordinates.latitude(i) - latitude);
+                generator.writeNumber(coordinates.longitude(i) - longitude);
+                latitude = coordinates.latitude(i);
+                longitude = coordinates.longitude(i);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeCoordinatesList(JsonGenerator generator, CoordinatesList coordinatesList) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "hash", coordinatesList.hash());
+        if (coordinatesList.coordinates() != null) {
+            generator.writeArrayFieldStart("coordinates");
+            for (Coordinates coordinates : coordinatesList.coordinates()) {
+                generator.writeStartObject();
+                generator.writeNumberField("latitude", coordinates.latitude());
+                generator.writeNumberField("longitude", coordinates.longitude());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private static boolean isDeltaEncoded(String version) {
+        return DetailedNotamParser.DELTA_COORDINATES_DATA_VERSION.equals(version);
+    }
+
+    private static void writeString(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator generator, String name, Integer value) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator generator, String name, Long value) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator generator, String name, Double value) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    private static void writeBoolean(JsonGenerator generator, String name, Boolean value) throws IOException {
+        if (value != null) {
+            generator.writeBooleanField(name, value);
+        }
+    }
+
+    private static void writeDate(JsonGenerator generator, String name, Date value) throws IOException {
+        // databind default: dates as epoch milliseconds
+        if (value != null) {
+            generator.writeNumberField(name, value.getTime());
+        }
+    }
+
+    private static void writeEpochSeconds(JsonGenerator generator, String name, Long value) throws IOException {
+        // same as the Notam field serializer: ISO 8601
+        if (value != null) {
+            generator.writeStringField(name, EpochSeconds.format(value));
+        }
+    }
+
+    private static void writeEnum(JsonGenerator generator, String name, Enum<?> value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value.name());
+        }
+    }
+
+    private static void writeEnums(JsonGenerator generator, String name, List<? extends Enum<?>> values) throws IOException {
+        if (values != null) {
+            generator.writeArrayFieldStart(name);
+            for (Enum<?> value : values) {
+                generator.writeString(value.name());
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.bitfexl.notamextractor.output;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.CoordinatesList;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.DetailedNotam;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes notam data notam by notam, see JsonFileWriter.write(Path, String, String, NotamDataContent).
+ * Only the coordinates lists are kept until the end, they are deduplicated and ordered by hash
+ * (like DetailedNotamParser.parseNotams), so the output is the same as writing the notam data at once.
+ * With a shared geometry file the coordinates lists are not written, but collected for the geometry file.
+ */
+public class NotamDataStreamWriter {
+    private final JsonGenerator generator;
+
+    private final NotamDataSerializer serializer;
+
+    private final String version;
+
+    private final String geometryFile;
+
+    private final Map<String, CoordinatesList> coordinatesLists = new TreeMap<>();
+
+    private int notamCount = 0;
+
+    NotamDataStreamWriter(JsonGenerator generator, NotamDataSerializer serializer, String version, String date, String geometryFile) throws IOException {
+        this.generator = generator;
+        this.serializer = serializer;
+        this.version = version;
+        this.geometryFile = geometryFile;
+        serializer.writeStart(generator, version, date);
+    }
+
+    /**
+     * Write the next notam.
+     * @param notam The notam.
+     * @param coordinatesLists The coordinates lists referenced by the notam, written at the end (or to the geometry file).
+     * @throws IOException If writing failed.
+     */
+    public void write(DetailedNotam notam, List<CoordinatesList> coordinatesLists) throws IOException {
+        serializer.writeDetailedNotam(generator, notam);
+        for (CoordinatesList coordinatesList : coordinatesLists) {
+            this.coordinatesLists.putIfAbsent(coordinatesList.hash(), coordinatesList);
+        }
+        notamCount++;
+    }
+
+    /**
+     * @return The number of notams written so far.
+     */
+    public int getNotamCount() {
+        return notamCount;
+    }
+
+    /**
+     * @return The coordinates lists referenced by the notams written so far, ordered by hash.
+     */
+    public List<CoordinatesList> getCoordinatesLists() {
+        return List.copyOf(coordinatesLists.values());
+    }
+
+    void finish() throws IOException {
+        serializer.writeEnd(generator, version, geometryFile == null ? getCoordinatesLists() : null, geometryFile);
+    }
+}
@@ -0,0 +1,161 @@
+package com.github.bitfexl.notamextractor.output;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a file together with its gzip (.gz) and brotli (.br) compressed siblings in a single pass,
+ * so the webserver can serve precompressed files.
+ * All three files are written to temporary files first and only moved in place when the stream is closed
+ * (or finished and committed later), on errors abort() must be called instead of close().
+ */
+public class PrecompressedFileOutputStream extends OutputStream {
+    private static final int BROTLI_QUALITY = 9;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path[] files;
+
+    private final Path[] tmpFiles;
+
+    private final OutputStream[] outputs;
+
+    private boolean finished = false;
+
+    private boolean closed = false;
+
+    /**
+     * Open a new precompressed file.
+     * @param file The uncompressed file, compressed files are written next to it (file.gz, file.br).
+     * @throws IOException If a file could not be opened.
+     */
+    public PrecompressedFileOutputStream(Path file) throws IOException {
+        Brotli4jLoader.ensureAvailability();
+
+        files = new Path[] {file, file.resolveSibling(file.getFileName() + ".gz"), file.resolveSibling(file.getFileName() + ".br")};
+        tmpFiles = new Path[files.length];
+        outputs = new OutputStream[files.length];
+
+        try {
+            for (int i = 0; i < files.length; i++) {
+                tmpFiles[i] = files[i].resolveSibling(files[i].getFileName() + ".tmp");
+            }
+
+            outputs[0] = new BufferedOutputStream(Files.newOutputStream(tmpFiles[0]), BUFFER_SIZE);
+            outputs[1] = new GZIPOutputStream(Files.newOutputStream(tmpFiles[1]), BUFFER_SIZE);
+            outputs[2] = new BrotliOutputStream(Files.newOutputStream(tmpFiles[2]), new Encoder.Parameters().setQuality(BROTLI_QUALITY), BUFFER_SIZE);
+        } catch (IOException ex) {
+            abort();
+            throw ex;
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        for (OutputStream output : outputs) {
+            output.write(b);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        for (OutputStream output : outputs) {
+            output.write(b, off, len);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        for (OutputStream output : outputs) {
+            output.flush();
+        }
+    }
+
+    /**
+     * @return The uncompressed, gzip and brotli file.
+     */
+    public List<Path> getFiles() {
+        return List.of(files);
+    }
+
+    /**
+     * Finish all files and move them in place.
+     * @throws IOException If a file could not be written, no file is replaced in this case.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        finish();
+        commit();
+    }
+
+    /**
+     * Finish all files without moving them in place yet, see commit().
+     * @throws IOException If a file could not be written, the temporary files are deleted in this case.
+     */
+    public void finish() throws IOException {
+        if (finished || closed) {
+            return;
+        }
+        finished = true;
+
+        try {
+            for (OutputStream output : outputs) {
+                output.close();
+            }
+        } catch (IOException ex) {
+            abort();
+            throw ex;
+        }
+    }
+
+    /**
+     * Move the finished files in place.
+     * @throws IOException If a file could not be moved.
+     * @throws IllegalStateException If the stream was not finished or is already closed.
+     */
+    public void commit() throws IOException {
+        if (!finished || closed) {
+            throw new IllegalStateException("Only a finished stream can be committed.");
+        }
+        closed = true;
+
+        for (int i = 0; i < files.length; i++) {
+            Files.move(tmpFiles[i], files[i], StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Close the stream without replacing the existing files, the written data is discarded.
+     */
+    public void abort() {
+        closed = true;
+
+        for (int i = 0; i < files.length; i++) {
+            try {
+                if (outputs[i] != null) {
+                    outputs[i].close();
+                }
+            } catch (IOException ignored) {
+            }
+            try {
+                if (tmpFiles[i] != null) {
+                    Files.deleteIfExists(tmpFiles[i]);
+                }
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
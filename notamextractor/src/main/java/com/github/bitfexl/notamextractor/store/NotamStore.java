@@ -0,0 +1,186 @@
+package com.github.bitfexl.notamextractor.store;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.LongObjectMap;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.CoordinatesList;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.PackedCoordinates;
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A persistent store of already parsed notams, so unchanged notams do not need to be parsed again.
+ * Notams are identified by their id together with the hash of their raw text,
+ * a changed notam (same id, different text) is parsed again.
+ * Only the notams used during a run are saved, notams no longer returned are dropped.
+ * The store is thread safe.
+ */
+public class NotamStore {
+    /**
+     * The version of the stored data, must be incremented whenever the notam or details parser output changes.
+     * A store with a different version is discarded on load.
+     */
+    public static final int VERSION = 10;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper().setSerializationInclusion(Include.NON_NULL);
+
+    private final Path file;
+
+    /**
+     * If true the coordinates lists are stored rounded to PackedCoordinates (see GeometryRegistry).
+     */
+    private final boolean packedCoordinates;
+
+    /**
+     * The notams loaded from the file (previous run) by raw hash.
+     */
+    private final LongObjectMap<StoredNotam> previousNotams;
+
+    /**
+     * The notams used or added during this run by raw hash.
+     */
+    private final Map<Long, StoredNotam> currentNotams = new ConcurrentHashMap<>();
+
+    private NotamStore(Path file, boolean packedCoordinates, LongObjectMap<StoredNotam> previousNotams) {
+        this.file = file;
+        this.packedCoordinates = packedCoordinates;
+        this.previousNotams = previousNotams;
+    }
+
+    /**
+     * Load a store from a file.
+     * @param file The file of the store, if it does not exist or has a different version an empty store is created.
+     * @param packedCoordinates If the details are created with a packing GeometryRegistry, a store saved with
+     *                          different coordinates (packed or exact) is discarded, the coordinates and hashes would differ.
+     * @return The loaded store.
+     * @throws IOException If the file could not be read.
+     */
+    public static NotamStore load(Path file, boolean packedCoordinates) throws IOException {
+        // only read after loading
+        final LongObjectMap<StoredNotam> notams = new LongObjectMap<>();
+
+        if (Files.isRegularFile(file)) {
+            final JsonNode tree;
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                tree = objectMapper.readTree(inputStream);
+            }
+            // notams of other versions are not bound, their format might have changed
+            if (tree.path("version").asInt() == VERSION && tree.path("packedCoordinates").asBoolean() == packedCoordinates) {
+                for (StoredNotam notam : objectMapper.treeToValue(tree, StoreFile.class).notams()) {
+                    notams.put(notam.rawHash(), packedCoordinates ? packCoordinates(notam) : notam);
+                }
+            }
+        }
+
+        return new NotamStore(file, packedCoordinates, notams);
+    }
+
+    /**
+     * Get a stored parsed notam.
+     * @param raw The raw notam text.
+     * @return The parsed notam or null if the text has not been stored.
+     */
+    public Notam getNotam(String raw) {
+        final StoredNotam notam = get(raw);
+        return notam == null ? null : notam.detailedNotam().notam();
+    }
+
+    /**
+     * Get a stored notam with details.
+     * @param id The id of the notam.
+     * @param raw The raw notam text.
+     * @return The stored notam or null if no notam with this id and text has been stored.
+     */
+    public StoredNotam get(long id, String raw) {
+        final StoredNotam notam = get(raw);
+        return notam == null || notam.id() != id ? null : notam;
+    }
+
+    /**
+     * Add a notam to the store, an existing notam with the same text is replaced.
+     * @param notam The notam to add.
+     */
+    public void put(StoredNotam notam) {
+        currentNotams.put(notam.rawHash(), notam);
+    }
+
+    /**
+     * @return The number of notams used or added during this run.
+     */
+    public int size() {
+        return currentNotams.size();
+    }
+
+    /**
+     * Save the notams used or added during this run, the file is replaced atomically.
+     * @throws IOException If the file could not be written.
+     */
+    public void save() throws IOException {
+        final Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream outputStream = Files.newOutputStream(tmpFile)) {
+            objectMapper.writeValue(outputStream, new StoreFile(VERSION, packedCoordinates, List.copyOf(currentNotams.values())));
+        }
+        Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Hash a raw notam text.
+     * @param raw The raw notam text.
+     * @return The first 8 bytes of the SHA-256 hash of the text.
+     */
+    @SneakyThrows
+    public static long hashRaw(String raw) {
+        final byte[] hash = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.wrap(hash).getLong();
+    }
+
+    private StoredNotam get(String raw) {
+        if (raw == null) {
+            return null;
+        }
+
+        final long rawHash = hashRaw(raw);
+
+        StoredNotam notam = currentNotams.get(rawHash);
+        if (notam == null) {
+            notam = previousNotams.get(rawHash);
+            if (notam == null) {
+                return null;
+            }
+        }
+
+        // a hash collision should not return a wrong notam
+        if (!raw.equals(notam.detailedNotam().notam().getRaw())) {
+            return null;
+        }
+
+        currentNotams.putIfAbsent(rawHash, notam);
+        return notam;
+    }
+
+    /**
+     * The stored values are already rounded, packing them again keeps them (and their hashes) unchanged.
+     */
+    private static StoredNotam packCoordinates(StoredNotam notam) {
+        final List<CoordinatesList> coordinatesLists = notam.coordinatesLists().stream()
+                .map(coordinatesList -> new CoordinatesList(coordinatesList.hash(), PackedCoordinates.of(coordinatesList.coordinates())))
+                .toList();
+        return new StoredNotam(notam.id(), notam.rawHash(), notam.detailedNotam(), coordinatesLists);
+    }
+
+    private record StoreFile(int version, boolean packedCoordinates, List<StoredNotam> notams) {}
+}
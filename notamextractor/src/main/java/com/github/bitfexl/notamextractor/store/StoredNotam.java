@@ -0,0 +1,16 @@
+package com.github.bitfexl.notamextractor.store;
+
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.CoordinatesList;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.DetailedNotam;
+
+import java.util.List;
+
+/**
+ * A notam with its details as kept in the notam store.
+ * @param id The notam id (NotamId).
+ * @param rawHash The hash of the raw notam text (NotamStore.hashRaw).
+ * @param detailedNotam The parsed notam with details.
+ * @param coordinatesLists The coordinates lists referenced by the text nodes of the notam.
+ */
+public record StoredNotam(long id, long rawHash, DetailedNotam detailedNotam, List<CoordinatesList> coordinatesLists) {
+}
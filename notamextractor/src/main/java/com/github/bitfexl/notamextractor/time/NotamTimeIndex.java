@@ -0,0 +1,162 @@
+package com.github.bitfexl.notamextractor.time;
+
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.DetailedNotam;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Interval index over the validity (item B to item C) of notams,
+ * answering which notams are active at a time or in a time window in O(log n + k).
+ * A notam is active from item B (inclusive) to item C (exclusive), permanent notams ("PERM") never end.
+ * Estimated ends ("EST") are either used as the end or treated as permanent (a notam with an estimated end
+ * stays in force until it is replaced or cancelled), see EstimatedEnd.
+ * Notams without item B are not indexed.
+ * The index is an implicit balanced search tree over the intervals sorted by start (the middle of every range
+ * is the root of that range), augmented with the maximum end of every subtree. All data is stored in primitive arrays.
+ * The index is immutable and thread safe.
+ */
+public class NotamTimeIndex {
+    /**
+     * The end of permanent notams.
+     */
+    public static final long PERMANENT = Long.MAX_VALUE;
+
+    public enum EstimatedEnd {
+        /**
+         * The estimated end is the end of the notam.
+         */
+        END,
+        /**
+         * Notams with an estimated end are active until replaced or cancelled (like permanent notams).
+         */
+        UNTIL_CANCELLED
+    }
+
+    private final DetailedNotam[] notams;
+
+    /**
+     * Epoch seconds, sorted ascending.
+     */
+    private final long[] starts;
+
+    private final long[] ends;
+
+    /**
+     * The maximum end of the subtree rooted at an index.
+     */
+    private final long[] maxEnds;
+
+    /**
+     * Build an index.
+     * @param notams The notams to index.
+     * @param estimatedEnd How estimated ends are handled.
+     */
+    public NotamTimeIndex(Collection<DetailedNotam> notams, EstimatedEnd estimatedEnd) {
+        final List<DetailedNotam> indexed = new ArrayList<>(notams.size());
+        for (DetailedNotam notam : notams) {
+            if (notam.notam() != null && notam.notam().getFrom() != null) {
+                indexed.add(notam);
+            }
+        }
+        indexed.sort(Comparator.comparingLong(notam -> notam.notam().getFrom()));
+
+        this.notams = indexed.toArray(new DetailedNotam[0]);
+        starts = new long[this.notams.length];
+        ends = new long[this.notams.length];
+        for (int i = 0; i < this.notams.length; i++) {
+            starts[i] = this.notams[i].notam().getFrom();
+            ends[i] = end(this.notams[i].notam(), estimatedEnd);
+        }
+
+        maxEnds = new long[this.notams.length];
+        computeMaxEnds(0, this.notams.length);
+    }
+
+    /**
+     * Get the end of a notam.
+     * @param notam The notam.
+     * @param estimatedEnd How estimated ends are handled.
+     * @return The end in epoch seconds (exclusive) or PERMANENT.
+     */
+    public static long end(Notam notam, EstimatedEnd estimatedEnd) {
+        if (Boolean.TRUE.equals(notam.getIsPermanent()) || notam.getTo() == null) {
+            return PERMANENT;
+        }
+        if (Boolean.TRUE.equals(notam.getIsEstimation()) && estimatedEnd == EstimatedEnd.UNTIL_CANCELLED) {
+            return PERMANENT;
+        }
+        return notam.getTo();
+    }
+
+    /**
+     * @return The notams active now.
+     */
+    public List<DetailedNotam> activeNow() {
+        return activeAt(Instant.now().getEpochSecond());
+    }
+
+    /**
+     * @param epochSecond The time.
+     * @return The notams active at the time, sorted by start.
+     */
+    public List<DetailedNotam> activeAt(long epochSecond) {
+        return activeBetween(epochSecond, epochSecond + 1);
+    }
+
+    /**
+     * @param start The start of the window in epoch seconds (inclusive).
+     * @param end The end of the window in epoch seconds (exclusive).
+     * @return The notams active at any time in the window, sorted by start.
+     */
+    public List<DetailedNotam> activeBetween(long start, long end) {
+        final List<DetailedNotam> result = new ArrayList<>();
+        if (start < end) {
+            collect(0, notams.length, start, end, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of indexed notams.
+     */
+    public int size() {
+        return notams.length;
+    }
+
+    private long computeMaxEnds(int from, int to) {
+        if (from >= to) {
+            return Long.MIN_VALUE;
+        }
+        final int mid = (from + to) >>> 1;
+        final long max = Math.max(ends[mid], Math.max(computeMaxEnds(from, mid), computeMaxEnds(mid + 1, to)));
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    /**
+     * In-order traversal of the subtree over [from, to), skipping subtrees ending before the window
+     * and (by the sort order) all intervals starting after the window.
+     */
+    private void collect(int from, int to, long start, long end, List<DetailedNotam> result) {
+        while (from < to) {
+            final int mid = (from + to) >>> 1;
+            if (maxEnds[mid] <= start) {
+                return;
+            }
+
+            collect(from, mid, start, end, result);
+
+            if (starts[mid] >= end) {
+                return;
+            }
+            if (ends[mid] > start) {
+                result.add(notams[mid]);
+            }
+
+            // right subtree (tail loop)
+            from = mid + 1;
+        }
+    }
+}
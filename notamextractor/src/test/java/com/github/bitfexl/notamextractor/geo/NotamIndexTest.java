@@ -0,0 +1,112 @@
+package com.github.bitfexl.notamextractor.geo;
+
+import com.github.bitfexl.notamextractor.Corpus;
+import com.github.bitfexl.notamextractor.notamparser.NotamParser;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.DetailedNotamParser;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * NotamIndex vs a linear scan over all notam geometries. The corpus notams are copied to random positions
+ * (away from the antimeridian, which the scan does not handle).
+ */
+class NotamIndexTest {
+    private static final double CORRIDOR_WIDTH = 5;
+
+    @Test
+    void queriesLikeLinearScan() {
+        final NotamParser parser = new NotamParser();
+        final NotamData corpus = new DetailedNotamParser().parseNotams(Corpus.loadDistinctRawNotams(3000).stream().map(parser::parse).toList());
+        final Map<String, CoordinatesList> coordinatesLists = new HashMap<>();
+        corpus.coordinatesLists().forEach(c -> coordinatesLists.put(c.hash(), c));
+        final List<NotamGeometry> corpusGeometries = new ArrayList<>();
+        for (DetailedNotam notam : corpus.notams()) {
+            final NotamGeometry geometry = NotamGeometry.of(notam, coordinatesLists);
+            if (geometry != null) {
+                corpusGeometries.add(geometry);
+            }
+        }
+
+        final Random random = new Random(42);
+        final List<NotamGeometry> geometries = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            final NotamGeometry geometry = corpusGeometries.get(i % corpusGeometries.size());
+            final BoundingBox bounds = geometry.bounds();
+            final double dLatitude = random.nextDouble(-45, 45) - (bounds.minLatitude() + bounds.maxLatitude()) / 2;
+            final double dLongitude = random.nextDouble(-130, 130) - (bounds.minLongitude() + bounds.maxLongitude()) / 2;
+            geometries.add(translate(geometry, dLatitude, dLongitude));
+        }
+        final NotamIndex index = new NotamIndex(geometries);
+
+        int hits = 0;
+        for (int i = 0; i < 1000; i++) {
+            final double latitude = random.nextDouble(-45, 45);
+            final double longitude = random.nextDouble(-130, 130);
+            final BoundingBox box = new BoundingBox(latitude, longitude, latitude + 0.5, longitude + 0.5);
+            final List<Coordinates> route = List.of(
+                    new Coordinates(latitude, longitude),
+                    new Coordinates(latitude + 1, longitude + 1),
+                    new Coordinates(latitude + 1.5, longitude + 3)
+            );
+
+            final List<Integer> point = ids(index.queryPoint(latitude, longitude));
+            assertEquals(ids(scanPoint(geometries, latitude, longitude)), point, "point " + latitude + " " + longitude);
+            assertEquals(ids(scanBox(geometries, box)), ids(index.queryBox(box)), "box " + box);
+            assertEquals(ids(scanCorridor(geometries, route)), ids(index.queryCorridor(route, CORRIDOR_WIDTH)), "corridor " + route);
+            hits += point.size();
+        }
+        // the queries are not trivially empty
+        assertTrue(hits > 0);
+    }
+
+    @Test
+    void indexesNotamsOfMultipleDataOnce() {
+        final NotamData corpus = new DetailedNotamParser().parseNotams(Corpus.loadParsedNotams());
+        final NotamIndex index = NotamIndex.of(List.of(corpus, corpus));
+        assertEquals(NotamIndex.of(List.of(corpus)).size(), index.size());
+    }
+
+    private static List<NotamGeometry> scanPoint(List<NotamGeometry> geometries, double latitude, double longitude) {
+        return geometries.stream().filter(g -> g.bounds().contains(latitude, longitude) && g.contains(latitude, longitude)).toList();
+    }
+
+    private static List<NotamGeometry> scanBox(List<NotamGeometry> geometries, BoundingBox box) {
+        return geometries.stream().filter(g -> g.bounds().intersects(box)).toList();
+    }
+
+    private static List<NotamGeometry> scanCorridor(List<NotamGeometry> geometries, List<Coordinates> route) {
+        final List<NotamGeometry> result = new ArrayList<>();
+        for (NotamGeometry geometry : geometries) {
+            for (int i = 0; i < route.size() - 1; i++) {
+                if (geometry.intersectsSegment(route.get(i), route.get(i + 1), CORRIDOR_WIDTH)) {
+                    result.add(geometry);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copies share the notam, so results are compared as sorted identity hashes (including duplicates).
+     */
+    private static List<Integer> ids(Collection<?> results) {
+        return results.stream().map(r -> r instanceof NotamGeometry g ? g.notam() : r).map(System::identityHashCode).sorted().toList();
+    }
+
+    private static NotamGeometry translate(NotamGeometry geometry, double dLatitude, double dLongitude) {
+        final List<PackedCoordinates> coordinatesLists = geometry.coordinatesLists().stream()
+                .map(list -> PackedCoordinates.of(list.stream().map(c -> new Coordinates(c.latitude() + dLatitude, c.longitude() + dLongitude)).toList()))
+                .toList();
+        BoundingBox bounds = Double.isNaN(geometry.radius()) ? null : BoundingBox.ofCircle(geometry.latitude() + dLatitude, geometry.longitude() + dLongitude, geometry.radius());
+        for (PackedCoordinates list : coordinatesLists) {
+            bounds = BoundingBox.union(bounds, BoundingBox.of(list));
+        }
+        return new NotamGeometry(geometry.notam(), geometry.latitude() + dLatitude, geometry.longitude() + dLongitude, geometry.radius(), coordinatesLists, bounds);
+    }
+}
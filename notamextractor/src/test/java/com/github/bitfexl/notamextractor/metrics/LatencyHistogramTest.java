@@ -0,0 +1,49 @@
+package com.github.bitfexl.notamextractor.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    /**
+     * Quantiles of log-normal latencies vs the exact quantiles (relative error below 1 / 32).
+     */
+    @Test
+    void quantilesMatchExactQuantiles() {
+        final Random random = new Random(42);
+        final long[] values = new long[1 << 16];
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < values.length; i++) {
+            // median ~20 us, long tail
+            values[i] = (long) Math.exp(10 + 1.5 * random.nextGaussian());
+            histogram.record(values[i]);
+        }
+
+        final long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertQuantile(snapshot.p50(), sorted, 0.5);
+        assertQuantile(snapshot.p90(), sorted, 0.9);
+        assertQuantile(snapshot.p99(), sorted, 0.99);
+        assertQuantile(snapshot.p999(), sorted, 0.999);
+        assertEquals(values.length, snapshot.count());
+        assertEquals(sorted[sorted.length - 1], snapshot.max());
+        assertEquals(Arrays.stream(values).sum(), snapshot.sum());
+    }
+
+    @Test
+    void emptySnapshot() {
+        final LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0, snapshot.count());
+        assertEquals(0, snapshot.p999());
+    }
+
+    private static void assertQuantile(long quantile, long[] sorted, double q) {
+        final long exact = sorted[(int) Math.ceil(q * sorted.length) - 1];
+        assertTrue(quantile >= exact && quantile - exact <= exact / 32, "Quantile " + q + " is " + quantile + ", but exactly " + exact + ".");
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.bitfexl.notamextractor.notamclient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bitfexl.notamextractor.Corpus;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * The streaming DODAISResponseReader reads the same notams as the previous json tree search.
+ */
+class DODAISResponseReaderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final DODAISResponseReader responseReader = new DODAISResponseReader();
+
+    @Test
+    void readsRecordedResponseLikeTreeSearch() throws IOException {
+        final byte[] response = Corpus.loadDODAISResponse();
+        final List<String> notams = read(response);
+        assertFalse(notams.isEmpty());
+        assertEquals(readTree(response), notams);
+    }
+
+    @Test
+    void readsBuiltResponseLikeTreeSearch() throws IOException {
+        final List<String> raw = Corpus.loadRawNotams(5000);
+        final byte[] response = Corpus.buildDODAISResponse(raw);
+        assertEquals(raw, read(response));
+        assertEquals(readTree(response), read(response));
+    }
+
+    @Test
+    void readsNestedAndNonStringValuesLikeTreeSearch() throws IOException {
+        final byte[] response = """
+                {"rawtext": " a \\n", "nested": [{"rawtext": 5}, {"rawtext": {"rawtext": "b"}}, {"rawtext": null}, {"rawtext": ["c"]}],
+                 "other": {"text": "rawtext", "rawtext": true}}
+                """.getBytes(StandardCharsets.UTF_8);
+        assertEquals(List.of("a", "5", "", "b", "null", "", "true"), read(response));
+    }
+
+    private List<String> read(byte[] response) throws IOException {
+        final List<String> notams = new ArrayList<>();
+        responseReader.readNotams(new ByteArrayInputStream(response), notams::add);
+        return notams;
+    }
+
+    /**
+     * The previous implementation: readTree and a recursive search for objects with a "rawtext" field.
+     */
+    private List<String> readTree(byte[] response) throws IOException {
+        final List<String> notams = new ArrayList<>();
+        search(objectMapper.readTree(response), notams);
+        return notams;
+    }
+
+    private static void search(JsonNode node, List<String> notams) {
+        if (node.isObject() && node.has("rawtext")) {
+            notams.add(node.get("rawtext").asText().trim());
+        }
+        if (node.isObject() || node.isArray()) {
+            for (JsonNode child : node) {
+                search(child, notams);
+            }
+        }
+    }
+}
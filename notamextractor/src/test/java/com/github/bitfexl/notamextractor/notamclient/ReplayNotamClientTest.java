@@ -0,0 +1,66 @@
+package com.github.bitfexl.notamextractor.notamclient;
+
+import com.github.bitfexl.notamextractor.Corpus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Responses served by the DODAISStandInServer and recorded by the DODAISClient replay to the same notams.
+ */
+class ReplayNotamClientTest {
+    @Test
+    void replaysRecordedResponses(@TempDir Path directory) throws Exception {
+        // 120 locations with the corpus notams spread over them, queried in 3 batches
+        final List<String> locations = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            locations.add(String.format("X%03d", i));
+        }
+        final Map<String, List<String>> notamsByLocation = new HashMap<>();
+        final List<String> raw = Corpus.loadRawNotams();
+        for (int i = 0; i < raw.size(); i++) {
+            notamsByLocation.computeIfAbsent(locations.get(i % locations.size()), l -> new ArrayList<>()).add(raw.get(i));
+        }
+
+        final ResponseRecording served = new ResponseRecording(directory.resolve("served"));
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < locations.size(); i += 50) {
+            final List<String> batch = locations.subList(i, Math.min(locations.size(), i + 50));
+            final List<String> batchNotams = batch.stream().flatMap(l -> notamsByLocation.getOrDefault(l, List.of()).stream()).toList();
+            served.write(batch, Corpus.buildDODAISResponse(batchNotams));
+            expected.addAll(batchNotams);
+        }
+
+        final ResponseRecording recorded = new ResponseRecording(directory.resolve("recorded"));
+        try (DODAISStandInServer server = new DODAISStandInServer(served, 0, Duration.ZERO, 0)) {
+            final DODAISClient client = new DODAISClient(URI.create("http://localhost:" + server.getPort() + DODAISStandInServer.QUERY_PATH), 2, recorded);
+            assertEquals(expected, client.queryNotmas(locations));
+            assertEquals(expected, client.queryNotmasAsync(locations).get());
+        }
+
+        final ReplayNotamClient replayClient = new ReplayNotamClient(recorded);
+        assertEquals(expected, replayClient.queryNotmas(locations));
+        assertEquals(expected, replayClient.queryNotmasAsync(locations).get());
+
+        // other batches were not recorded
+        assertThrows(IllegalStateException.class, () -> replayClient.queryNotmas(locations.subList(1, 51)));
+    }
+
+    @Test
+    void replacesRecordedResponse(@TempDir Path directory) throws IOException {
+        final ResponseRecording recording = new ResponseRecording(directory);
+        final List<String> locations = List.of("LOWW", "LOWS");
+        recording.write(locations, Corpus.buildDODAISResponse(List.of("A")));
+        recording.write(locations, Corpus.buildDODAISResponse(List.of("B")));
+
+        assertEquals(List.of("B"), new ReplayNotamClient(recording).queryNotmas(locations));
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.bitfexl.notamextractor.notamparser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.bitfexl.notamextractor.Corpus;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The NotamParser parses like the original SplittingNotamParser.
+ */
+class NotamParserTest {
+    private static final String MUTATION_ALPHABET = "QABCDEFGNSEW) /\n0123456789ESTPERM:";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final NotamParser parser = new NotamParser();
+
+    private final SplittingNotamParser splittingParser = new SplittingNotamParser();
+
+    @Test
+    void parsesCorpusLikeSplittingParser() {
+        for (String raw : Corpus.loadRawNotams()) {
+            assertEquals(json(splittingParser.parse(raw)), json(parser.parse(raw)), raw);
+        }
+    }
+
+    @Test
+    void parsesEdgeCasesLikeSplittingParser() {
+        for (String raw : List.of(
+                "A1/24 NOTAMN\n",
+                "A1/24 NOTAMN\nQ) ABCD/QWERT\nA) X\nCREATED: x\nfoo",
+                "A1/24 NOTAMN\nQ) QWERT\nA) X E) foo D) bar F) x\nG) y",
+                "A1/24 NOTAMN\nQ) ABCD/QWERT//////4807S01633W\nA) X G) a F) b",
+                "A1/24 NOTAMN\nQ) ABCD/QWERT//////4807N01633E1\nA) X",
+                "A1/24 NOTAMN\nB) 2401010000\nQ) X\nA) Y\n\nCREATED: a\nSOURCE: b\n\n",
+                "A1/24 NOTAMN\nQ) A/B/C\nA) X B) 2401010000 C) PERM",
+                "A1/24 NOTAMN\nQ) A/B/C\nA) X B) 2401010000 C) 2402010000EST\nE) a\nb\nc\nCREATED: x y \nSOURCE: z",
+                "!FDC 1/234 ZNY"
+        )) {
+            final Notam expected;
+            try {
+                expected = splittingParser.parse(raw);
+            } catch (RuntimeException ex) {
+                assertThrows(RuntimeException.class, () -> parser.parse(raw), raw);
+                continue;
+            }
+            assertEquals(json(expected), json(parser.parse(raw)), raw);
+        }
+    }
+
+    /**
+     * Unlike the SplittingNotamParser, an invalid item B or C only leaves the time out.
+     */
+    @Test
+    void keepsNotamWithInvalidDateTimeGroup() {
+        final Notam valid = parser.parse("A1/24 NOTAMN\nQ) A/B/C\nA) X B) 2401010000 C) 2402010000EST\nE) a");
+        for (String invalid : List.of("2413010000", "2402300000", "2401012401", "2401010060", "24010100", "24X1010000", "UFN")) {
+            final Notam fromInvalid = parser.parse("A1/24 NOTAMN\nQ) A/B/C\nA) X B) " + invalid + " C) 2402010000EST\nE) a");
+            final ObjectNode expectedFrom = objectMapper.valueToTree(valid);
+            expectedFrom.put("raw", fromInvalid.getRaw()).putNull("from");
+            assertEquals(expectedFrom, objectMapper.valueToTree(fromInvalid), invalid);
+
+            final Notam toInvalid = parser.parse("A1/24 NOTAMN\nQ) A/B/C\nA) X B) 2401010000 C) " + invalid + " EST\nE) a");
+            final ObjectNode expectedTo = objectMapper.valueToTree(valid);
+            expectedTo.put("raw", toInvalid.getRaw()).putNull("to").putNull("isEstimation");
+            assertEquals(expectedTo, objectMapper.valueToTree(toInvalid), invalid);
+        }
+    }
+
+    @Test
+    void parsesEndOfDayAsNextDay() {
+        final Notam notam = parser.parse("A1/24 NOTAMN\nQ) A/B/C\nA) X B) 2402282400 C) 2412312400");
+        assertEquals(EpochSeconds.parse("2024-02-29T00:00:00Z"), notam.getFrom());
+        assertEquals(EpochSeconds.parse("2025-01-01T00:00:00Z"), notam.getTo());
+    }
+
+    /**
+     * Randomly mutated corpus notams, only compared if the SplittingNotamParser accepts the notam.
+     */
+    @Test
+    void parsesMutatedNotamsLikeSplittingParser() {
+        final List<String> corpus = Corpus.loadRawNotams();
+        final Random random = new Random(1);
+        int compared = 0;
+
+        for (int i = 0; i < 20000; i++) {
+            final String raw = mutate(corpus.get(random.nextInt(corpus.size())), random);
+
+            final Notam expected;
+            try {
+                expected = splittingParser.parse(raw);
+            } catch (RuntimeException ex) {
+                continue;
+            }
+            assertEquals(json(expected), json(parser.parse(raw)), raw);
+            compared++;
+        }
+
+        assertTrue(compared > 1000, "Only " + compared + " mutated notams compared.");
+    }
+
+    private static String mutate(String notam, Random random) {
+        final StringBuilder mutated = new StringBuilder(notam);
+        final int mutations = random.nextInt(4);
+        for (int i = 0; i < mutations && !mutated.isEmpty(); i++) {
+            final int position = random.nextInt(mutated.length());
+            switch (random.nextInt(4)) {
+                case 0 -> mutated.insert(position, MUTATION_ALPHABET.charAt(random.nextInt(MUTATION_ALPHABET.length())));
+                case 1 -> mutated.deleteCharAt(position);
+                case 2 -> mutated.setCharAt(position, MUTATION_ALPHABET.charAt(random.nextInt(MUTATION_ALPHABET.length())));
+                default -> mutated.delete(position, Math.min(mutated.length(), position + random.nextInt(20)));
+            }
+        }
+        return mutated.toString();
+    }
+
+    /**
+     * All fields (including nulls).
+     */
+    @SneakyThrows
+    private String json(Notam notam) {
+        return objectMapper.writeValueAsString(notam);
+    }
+}
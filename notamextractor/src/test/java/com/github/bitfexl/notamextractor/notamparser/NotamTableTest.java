@@ -0,0 +1,60 @@
+package com.github.bitfexl.notamextractor.notamparser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bitfexl.notamextractor.Corpus;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NotamTableTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void convertsCorpusLosslessly() {
+        final NotamParser parser = new NotamParser();
+        final List<Notam> notams = new ArrayList<>();
+        for (String raw : Corpus.loadDistinctRawNotams(3000)) {
+            notams.add(parser.parse(raw));
+        }
+        notams.add(Notam.builder().raw("!FDC 1/234 ZNY").build());
+        notams.add(Notam.builder().build());
+
+        final NotamTable table = NotamTable.of(notams);
+
+        assertEquals(notams.size(), table.size());
+        final List<Notam> converted = table.toNotams();
+        for (int i = 0; i < notams.size(); i++) {
+            final Notam notam = notams.get(i);
+            assertEquals(json(notam), json(table.get(i)), notam.getRaw());
+            assertEquals(json(notam), json(converted.get(i)), notam.getRaw());
+            assertEquals(notam.getRaw(), table.get(i).getRaw());
+        }
+    }
+
+    @Test
+    void columnsMatchNotams() {
+        final List<Notam> notams = Corpus.loadParsedNotams();
+        final NotamTable table = NotamTable.of(notams);
+
+        for (int i = 0; i < notams.size(); i++) {
+            final Notam notam = notams.get(i);
+            assertEquals(notam.getFrom() == null ? NotamTable.NULL_LONG : notam.getFrom(), table.from(i));
+            assertEquals(notam.getTo() == null ? NotamTable.NULL_LONG : notam.getTo(), table.to(i));
+            assertEquals(notam.getLatitude() == null ? Double.NaN : notam.getLatitude(), table.latitude(i));
+            assertEquals(notam.getLongitude() == null ? Double.NaN : notam.getLongitude(), table.longitude(i));
+            assertEquals(notam.getRadius() == null ? NotamTable.NULL_INT : notam.getRadius(), table.radius(i));
+            assertEquals(notam.getqLower() == null ? NotamTable.NULL_INT : notam.getqLower(), table.qLower(i));
+            assertEquals(notam.getqUpper() == null ? NotamTable.NULL_INT : notam.getqUpper(), table.qUpper(i));
+            assertEquals(notam.getFir(), table.fir(i));
+        }
+    }
+
+    @SneakyThrows
+    private String json(Notam notam) {
+        return objectMapper.writeValueAsString(notam);
+    }
+}
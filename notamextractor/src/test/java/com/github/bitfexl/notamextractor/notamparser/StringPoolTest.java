@@ -0,0 +1,51 @@
+package com.github.bitfexl.notamextractor.notamparser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bitfexl.notamextractor.Corpus;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringPoolTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void pooledParserParsesLikeParser() {
+        final StringPool pool = new StringPool();
+        final NotamParser parser = new NotamParser();
+        final NotamParser pooledParser = new NotamParser(pool);
+
+        for (String raw : Corpus.loadDistinctRawNotams(5000)) {
+            assertEquals(json(parser.parse(raw)), json(pooledParser.parse(raw)), raw);
+        }
+        assertTrue(pool.getStats().hits() > 0);
+    }
+
+    @Test
+    void internReturnsEqualPooledStrings() {
+        final StringPool pool = new StringPool(16);
+        final String text = "LOWW LOWS LOWI";
+
+        final String first = pool.intern(text, 5, 9);
+        assertEquals("LOWS", first);
+        assertSame(first, pool.intern("LOWS"));
+        assertSame(first, pool.intern(new StringBuilder(text), 5, 9));
+        assertEquals("", pool.intern(text, 4, 4));
+
+        // more distinct strings than the pool holds, entries are replaced
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("S" + i, pool.intern("S" + i));
+        }
+        for (String s : List.of("LOWW", "LOWS", "LOWI")) {
+            assertEquals(s, pool.intern(text, text.indexOf(s), text.indexOf(s) + 4));
+        }
+    }
+
+    @SneakyThrows
+    private String json(Notam notam) {
+        return objectMapper.writeValueAsString(notam);
+    }
+}
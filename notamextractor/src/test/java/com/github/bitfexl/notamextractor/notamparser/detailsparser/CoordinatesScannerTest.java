@@ -0,0 +1,100 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.Corpus;
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.Coordinates;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.regex.Matcher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The CoordinatesScanner finds the same runs as COORDINATES_PATTERN and decodes them like parseCoordinatesList.
+ */
+class CoordinatesScannerTest {
+    private static final String ALPHABET = "0123456789NSEW -/x";
+
+    @Test
+    void scansFuzzCorpusLikePattern() {
+        for (String text : Corpus.loadCoordinateTexts()) {
+            assertScannedLikePattern(text);
+        }
+    }
+
+    @Test
+    void scansNotamTextsLikePattern() {
+        for (String text : Corpus.loadParsedNotams().stream().map(Notam::getNotamText).filter(Objects::nonNull).toList()) {
+            assertScannedLikePattern(text);
+        }
+    }
+
+    @Test
+    void scansRandomTextsLikePattern() {
+        final Random random = new Random(0);
+        for (int i = 0; i < 50000; i++) {
+            final StringBuilder text = new StringBuilder();
+            final int length = random.nextInt(80);
+            for (int j = 0; j < length; j++) {
+                text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            assertScannedLikePattern(text.toString());
+        }
+    }
+
+    /**
+     * The pattern fails with a StackOverflowError on polygons of about 1000 points.
+     */
+    @Test
+    void scansLongPolygon() {
+        final StringBuilder text = new StringBuilder("AREA ");
+        final List<Coordinates> expected = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            text.append(String.format("%02d%02d%02dN %03d%02d%02dE - ", i % 90, i % 60, i % 59, i % 180, i % 58, i % 57));
+            expected.add(new Coordinates(i % 90 + (i % 60) / 60.0 + (i % 59) / 3600.0, i % 180 + (i % 58) / 60.0 + (i % 57) / 3600.0));
+        }
+        text.append("END");
+
+        final CoordinatesScanner scanner = new CoordinatesScanner(text.toString());
+        assertTrue(scanner.find());
+        assertEquals(5, scanner.start());
+        assertEquals(text.length() - 3, scanner.end());
+        final List<Coordinates> coordinates = scanner.coordinates();
+        assertEquals(expected.size(), coordinates.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).latitude(), coordinates.get(i).latitude(), 1e-9);
+            assertEquals(expected.get(i).longitude(), coordinates.get(i).longitude(), 1e-9);
+        }
+        assertFalse(scanner.find());
+    }
+
+    private static void assertScannedLikePattern(String text) {
+        final Matcher matcher = DetailedNotamParser.COORDINATES_PATTERN.matcher(text);
+        final CoordinatesScanner scanner = new CoordinatesScanner(text);
+
+        while (matcher.find()) {
+            assertTrue(scanner.find(), text);
+            assertEquals(matcher.start(), scanner.start(), text);
+            assertEquals(matcher.end(), scanner.end(), text);
+
+            final List<Coordinates> scanned = scanner.coordinates();
+            final String run = matcher.group();
+            List<Coordinates> parsed;
+            try {
+                parsed = DetailedNotamParser.parseCoordinatesList(run);
+            } catch (IllegalArgumentException ex) {
+                // irregular runs are left to the slow path
+                assertNull(scanned, run);
+                continue;
+            }
+            if (scanned != null) {
+                assertEquals(parsed, scanned, run);
+            }
+        }
+        assertFalse(scanner.find(), text);
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bitfexl.notamextractor.Corpus;
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.NotamParser;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.CoordinatesList;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.DetailedNotam;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.NotamData;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The output of the DetailedNotamParser does not depend on the input order, parallel execution or streaming.
+ */
+class DetailedNotamParserTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().setSerializationInclusion(Include.NON_NULL);
+
+    @Test
+    void parallelParserDetailsLikeSequentialParser() throws IOException {
+        final NotamParser parser = new NotamParser();
+        final List<Notam> notams = new ArrayList<>(Corpus.loadDistinctRawNotams(3000).stream().map(parser::parse).toList());
+
+        final NotamData sequential = new DetailedNotamParser().parseNotams(notams);
+        Collections.shuffle(notams, new Random(0));
+        final NotamData parallel = new DetailedNotamParser(true).parseNotams(notams);
+
+        assertEquals(json(sequential.notams()), json(parallel.notams()));
+        assertEquals(json(sequential.coordinatesLists()), json(parallel.coordinatesLists()));
+    }
+
+    @Test
+    void streamsLikeParseNotams() throws IOException {
+        final List<Notam> notams = Corpus.loadParsedNotams();
+        final NotamData expected = new DetailedNotamParser().parseNotams(notams);
+
+        for (boolean parallel : new boolean[]{false, true}) {
+            final List<DetailedNotam> streamed = new ArrayList<>();
+            final List<CoordinatesList> coordinatesLists = new ArrayList<>();
+            final int count = new DetailedNotamParser(parallel).parseNotams(notams, null, null, (notam, lists) -> {
+                streamed.add(notam);
+                coordinatesLists.addAll(lists);
+            });
+
+            assertEquals(expected.notams().size(), count);
+            assertEquals(json(expected.notams()), json(streamed));
+            assertEquals(json(expected.coordinatesLists()), json(coordinatesLists.stream().distinct().sorted((a, b) -> a.hash().compareTo(b.hash())).toList()));
+        }
+    }
+
+    private String json(Object value) throws IOException {
+        return objectMapper.writeValueAsString(value);
+    }
+}
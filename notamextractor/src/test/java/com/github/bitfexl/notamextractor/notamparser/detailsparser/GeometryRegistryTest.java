@@ -0,0 +1,53 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.Coordinates;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.CoordinatesList;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.PackedCoordinates;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeometryRegistryTest {
+    private static final List<Coordinates> COORDINATES = List.of(new Coordinates(52.41666666666667, -2.0333333333333334), new Coordinates(1, 2));
+
+    @Test
+    void keepsExactCoordinates() {
+        final GeometryRegistry registry = new GeometryRegistry();
+        final CoordinatesList coordinatesList = registry.register(COORDINATES);
+
+        assertEquals(COORDINATES, coordinatesList.coordinates());
+        assertEquals(GeometryRegistry.hash(COORDINATES), coordinatesList.hash());
+        assertSame(coordinatesList, registry.register(List.copyOf(COORDINATES)));
+        // not equal, only equal after rounding
+        assertNotSame(coordinatesList, registry.register(List.of(new Coordinates(52.416667, -2.033333), new Coordinates(1, 2))));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void packsCoordinates() {
+        final GeometryRegistry registry = new GeometryRegistry(true);
+        final CoordinatesList coordinatesList = registry.register(COORDINATES);
+
+        assertInstanceOf(PackedCoordinates.class, coordinatesList.coordinates());
+        assertEquals(List.of(new Coordinates(52.416667, -2.033333), new Coordinates(1, 2)), coordinatesList.coordinates());
+        assertEquals(GeometryRegistry.hashFixedPoint(PackedCoordinates.of(COORDINATES)), coordinatesList.hash());
+        // equal after rounding
+        assertSame(coordinatesList, registry.register(List.of(new Coordinates(52.416667, -2.033333), new Coordinates(1, 2))));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void parsesTextOnce() {
+        final GeometryRegistry registry = new GeometryRegistry();
+        final int[] parsed = {0};
+        for (int i = 0; i < 3; i++) {
+            registry.get("text", text -> {
+                parsed[0]++;
+                return COORDINATES;
+            });
+        }
+        assertEquals(1, parsed[0]);
+    }
+}
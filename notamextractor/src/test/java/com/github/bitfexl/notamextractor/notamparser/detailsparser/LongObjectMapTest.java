@@ -0,0 +1,47 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LongObjectMap behaves like a HashMap with boxed keys.
+ */
+class LongObjectMapTest {
+    @Test
+    void behavesLikeHashMap() {
+        final Random random = new Random(0);
+        final LongObjectMap<Integer> map = new LongObjectMap<>(2);
+        final Map<Long, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 200000; i++) {
+            // few distinct keys, so keys are hit repeatedly, including 0 and negative keys
+            final long key = random.nextInt(20000) - 100 + (random.nextBoolean() ? 0 : Long.MAX_VALUE / 2);
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.put(key, i), map.put(key, i));
+                case 1 -> assertEquals(expected.putIfAbsent(key, i), map.putIfAbsent(key, i));
+                default -> {
+                    assertEquals(expected.get(key), map.get(key));
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+                }
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected.keySet().stream().sorted().toList(), Arrays.stream(map.sortedKeys()).boxed().toList());
+        final Map<Long, Integer> entries = new HashMap<>();
+        map.forEach(entries::put);
+        assertEquals(expected, entries);
+    }
+
+    @Test
+    void emptyMap() {
+        final LongObjectMap<Object> map = new LongObjectMap<>();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0));
+        assertNull(map.get(42));
+        assertEquals(0, map.keys().length);
+    }
+}
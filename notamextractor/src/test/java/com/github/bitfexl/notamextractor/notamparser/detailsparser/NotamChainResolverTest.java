@@ -0,0 +1,81 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.NotamType;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.DetailedNotam;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.NotamData;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * NotamChainResolver on generated replacement chains vs filtering the superseded ids with a HashSet.
+ */
+class NotamChainResolverTest {
+    private static final String FIR = "LOVV";
+
+    private final NotamChainResolver resolver = new NotamChainResolver();
+
+    @Test
+    void resolvesChainsLikeFilter() throws IOException {
+        final Random random = new Random(42);
+        final List<Notam> notams = new ArrayList<>();
+        // notam id -> superseded ids (the previous notam first)
+        final Map<Long, List<Long>> chains = new HashMap<>();
+
+        int number = 1;
+        for (int chain = 0; chain < 2000; chain++) {
+            final int length = random.nextInt(1, 6);
+            final List<Long> superseded = new ArrayList<>();
+            Notam previous = null;
+            for (int i = 0; i < length; i++) {
+                final NotamType type = i == 0 ? NotamType.NEW : chain % 10 == 0 && i == length - 1 ? NotamType.CANCEL : NotamType.REPLACE;
+                final Notam notam = notam(number++, type, previous);
+                notams.add(notam);
+                chains.put(NotamId.of(notam), List.copyOf(superseded));
+                superseded.add(0, NotamId.of(notam));
+                previous = notam;
+            }
+        }
+        // replacing a notam which is not part of the data
+        final Notam replacingUnknown = notam(number++, NotamType.REPLACE, Notam.builder().series('B').number(1).year(2024).build());
+        notams.add(replacingUnknown);
+        chains.put(NotamId.of(replacingUnknown), List.of());
+        Collections.shuffle(notams, random);
+
+        final Set<Long> supersededIds = new HashSet<>();
+        for (Notam notam : notams) {
+            if (notam.getPreviousNotam() != null) {
+                supersededIds.add(NotamId.of(notam.getPreviousNotam(), notam.getFir()));
+            }
+        }
+        final List<Long> expected = notams.stream().map(NotamId::of).filter(id -> !supersededIds.contains(id)).sorted().toList();
+
+        final NotamData resolved = resolver.resolve(new DetailedNotamParser().parseNotams(notams));
+        assertEquals(expected, resolved.notams().stream().map(DetailedNotam::id).toList());
+        for (DetailedNotam notam : resolved.notams()) {
+            final List<Long> superseded = notam.supersededNotamIds() == null ? List.of() : notam.supersededNotamIds();
+            assertEquals(chains.get(notam.id()), superseded, NotamId.decode(notam.id()).toString());
+        }
+
+        // resolving before detailing (streaming) gives the same result
+        final List<DetailedNotam> streamed = new ArrayList<>();
+        new DetailedNotamParser().parseNotams(notams, null, resolver, (notam, coordinatesLists) -> streamed.add(notam));
+        assertEquals(resolved.notams(), streamed);
+    }
+
+    private static Notam notam(int number, NotamType type, Notam previous) {
+        return Notam.builder()
+                .raw("A" + number)
+                .series('A')
+                .number(number)
+                .year(2024)
+                .fir(FIR)
+                .type(type)
+                .previousNotam(previous == null ? null : Notam.builder().series(previous.getSeries()).number(previous.getNumber()).year(previous.getYear()).build())
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.Corpus;
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.NotamParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotamIdTest {
+    @Test
+    void corpusIdsRoundTrip() {
+        final NotamParser parser = new NotamParser();
+        for (String raw : Corpus.loadDistinctRawNotams(30000)) {
+            final Notam notam = parser.parse(raw);
+            final long id = NotamId.of(notam);
+            assertTrue(id > 0, raw);
+
+            final NotamId decoded = NotamId.decode(id);
+            assertEquals(id, decoded.encode(), raw);
+            assertEquals(notam.getYear(), decoded.year());
+            assertEquals(notam.getSeries(), decoded.series());
+            assertEquals(notam.getNumber(), decoded.number());
+            assertEquals("X".repeat(4 - notam.getFir().length()) + notam.getFir(), decoded.fir());
+            assertEquals(decoded.year(), NotamId.year(id));
+            assertEquals(decoded.series(), NotamId.series(id));
+            assertEquals(decoded.number(), NotamId.number(id));
+
+            final String notamNumber = String.format("%c%04d/%02d", notam.getSeries(), notam.getNumber(), notam.getYear() % 100);
+            assertEquals(id, NotamId.ofNotamNumber(notamNumber, notam.getFir()));
+        }
+    }
+
+    @Test
+    void randomIdsRoundTrip() {
+        final Random random = new Random(0);
+        for (int i = 0; i < 100000; i++) {
+            final char[] fir = new char[4];
+            for (int j = 0; j < fir.length; j++) {
+                fir[j] = (char) ('A' + random.nextInt(26));
+            }
+            final NotamId notamId = new NotamId(random.nextInt(4096), (char) ('A' + random.nextInt(26)), random.nextInt(1 << 15), new String(fir));
+            assertEquals(notamId, NotamId.decode(notamId.encode()));
+        }
+    }
+
+    @Test
+    void rejectsInvalidIds() {
+        assertEquals(0, NotamId.of(Notam.builder().raw("!FDC 1/234 ZNY").build()));
+        assertEquals(0, NotamId.ofNotamNumber("A1234/24", null));
+        assertThrows(IllegalArgumentException.class, () -> NotamId.encode(2024, 'a', 1, "LOVV"));
+        assertThrows(IllegalArgumentException.class, () -> NotamId.encode(2024, 'A', 1, "LOVVX"));
+        assertThrows(IllegalArgumentException.class, () -> NotamId.ofNotamNumber("A1234-24", "LOVV"));
+        assertThrows(IllegalArgumentException.class, () -> NotamId.decode(0));
+        assertThrows(IllegalArgumentException.class, () -> NotamId.decode(1));
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.bitfexl.notamextractor.notamparser.detailsparser;
+
+import com.github.bitfexl.notamextractor.notamparser.EpochSeconds;
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.time.DayOfWeek.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ScheduleCompilerTest {
+    // monday to sunday two weeks later
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+
+    private static final LocalDate TO = LocalDate.of(2024, 1, 15);
+
+    private final ScheduleCompiler compiler = new ScheduleCompiler();
+
+    @Test
+    void compilesWeekdays() {
+        assertCompiled("DAILY 0700-1500", 7, 15, EnumSet.allOf(DayOfWeek.class));
+        assertCompiled("MON-FRI 0600-1800", 6, 18, EnumSet.range(MONDAY, FRIDAY));
+        assertCompiled("FRI-MON 0600-1800", 6, 18, EnumSet.of(FRIDAY, SATURDAY, SUNDAY, MONDAY));
+    }
+
+    @Test
+    void compilesExclusionBeforeTimes() {
+        assertCompiled("MON-FRI EXC WED 0700-1500", 7, 15, EnumSet.of(MONDAY, TUESDAY, THURSDAY, FRIDAY));
+        assertCompiled("DAILY EXC SAT SUN 0700-1500", 7, 15, EnumSet.range(MONDAY, FRIDAY));
+    }
+
+    @Test
+    void compilesExclusionAfterTimes() {
+        assertCompiled("DAILY 0700-1500 EXC SUN", 7, 15, EnumSet.range(MONDAY, SATURDAY));
+        assertCompiled("0700-1500 EXC SAT SUN", 7, 15, EnumSet.range(MONDAY, FRIDAY));
+        assertCompiled("DAILY 0700-1500 EXC SAT-SUN", 7, 15, EnumSet.range(MONDAY, FRIDAY));
+        assertCompiled("H24 EXC SUN", 0, 24, EnumSet.range(MONDAY, SATURDAY));
+        assertCompiled("MON-SAT 0700-1500, EXC WED", 7, 15, EnumSet.of(MONDAY, TUESDAY, THURSDAY, FRIDAY, SATURDAY));
+    }
+
+    /**
+     * Holidays are not known, the periods include them (2024-01-01 is a holiday in most countries).
+     */
+    @Test
+    void ignoresHolidayExclusion() {
+        assertCompiled("MON-FRI 0600-1800 EXC HOL", 6, 18, EnumSet.range(MONDAY, FRIDAY));
+        assertCompiled("MON-FRI EXC HOL 0600-1800", 6, 18, EnumSet.range(MONDAY, FRIDAY));
+        assertCompiled("DAILY 0600-1800 EXC SUN HOL", 6, 18, EnumSet.range(MONDAY, SATURDAY));
+    }
+
+    @Test
+    void compilesMultipleRules() {
+        final Schedule schedule = compile("MON 0800-1000 WED EXC HOL 0900-1100");
+        final List<long[]> expected = new ArrayList<>();
+        for (LocalDate day = FROM; day.isBefore(TO); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() == MONDAY) {
+                expected.add(new long[]{epochSecond(day, 8), epochSecond(day, 10)});
+            } else if (day.getDayOfWeek() == WEDNESDAY) {
+                expected.add(new long[]{epochSecond(day, 9), epochSecond(day, 11)});
+            }
+        }
+        assertIntervals(expected, schedule);
+    }
+
+    @Test
+    void doesNotCompileAmbiguousExclusion() {
+        // the excluded days can not be told apart from the days of the next rule
+        assertNull(compile("DAILY 0700-1500 EXC SUN MON 0800-1000"));
+        // only weekdays and holidays can be excluded
+        assertNull(compile("DAILY 0700-1500 EXC JAN 05"));
+        assertNull(compile("DAILY 0700-1500 EXC 05"));
+        assertNull(compile("0700-1500 EXC DAILY"));
+    }
+
+    private void assertCompiled(String schedule, int startHour, int endHour, Set<DayOfWeek> days) {
+        final List<long[]> expected = new ArrayList<>();
+        for (LocalDate day = FROM; day.isBefore(TO); day = day.plusDays(1)) {
+            if (days.contains(day.getDayOfWeek())) {
+                final long start = epochSecond(day, startHour);
+                final long end = epochSecond(day, endHour);
+                // adjacent days merge (H24)
+                if (!expected.isEmpty() && expected.getLast()[1] == start) {
+                    expected.getLast()[1] = end;
+                } else {
+                    expected.add(new long[]{start, end});
+                }
+            }
+        }
+        assertIntervals(expected, compile(schedule));
+    }
+
+    private static void assertIntervals(List<long[]> expected, Schedule schedule) {
+        final List<String> actual = new ArrayList<>();
+        for (int i = 0; i < schedule.size(); i++) {
+            actual.add(EpochSeconds.format(schedule.start(i)) + "/" + EpochSeconds.format(schedule.end(i)));
+        }
+        assertEquals(expected.stream().map(interval -> EpochSeconds.format(interval[0]) + "/" + EpochSeconds.format(interval[1])).toList(), actual);
+    }
+
+    private Schedule compile(String schedule) {
+        return compiler.compile(Notam.builder()
+                .from(epochSecond(FROM, 0))
+                .to(epochSecond(TO, 0))
+                .schedule(schedule)
+                .build());
+    }
+
+    private static long epochSecond(LocalDate day, int hour) {
+        return day.atStartOfDay().toEpochSecond(ZoneOffset.UTC) + hour * 3600L;
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.bitfexl.notamextractor.output;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bitfexl.notamextractor.Corpus;
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.DetailedNotamParser;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.NotamData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Notam data written notam by notam is the same as the notam data written at once.
+ */
+class JsonFileWriterTest {
+    private static final String DATE = "2024-01-01T00:00:00Z";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().setSerializationInclusion(Include.NON_NULL);
+
+    private final JsonFileWriter writer = new JsonFileWriter(objectMapper);
+
+    private final List<Notam> notams = Corpus.loadParsedNotams();
+
+    @Test
+    void streamsLikeNotamData(@TempDir Path directory) throws IOException {
+        final NotamData notamData = new DetailedNotamParser().parseNotams(notams);
+        final Path file = directory.resolve("data.json");
+
+        final int notamCount = writer.write(file, DetailedNotamParser.NOTAM_DATA_VERSION, DATE,
+                stream -> new DetailedNotamParser(true).parseNotams(notams, null, null, stream::write));
+
+        assertEquals(notamData.notams().size(), notamCount);
+        assertWritten(new NotamData(notamData.version(), DATE, notamData.notams(), notamData.coordinatesLists(), null), file);
+    }
+
+    @Test
+    void streamsWithSharedGeometryLikeNotamData(@TempDir Path directory) throws IOException {
+        final NotamData notamData = new DetailedNotamParser().parseNotams(notams);
+        final Path file = directory.resolve("data.json");
+        final String version = DetailedNotamParser.dataVersion(true, false);
+
+        final JsonFileWriter.PendingNotamFile pendingFile = writer.writePending(file, version, DATE, "geometry.json",
+                stream -> new DetailedNotamParser(true).parseNotams(notams, null, null, stream::write));
+
+        assertEquals(notamData.coordinatesLists(), pendingFile.getCoordinatesLists());
+        // only the temporary files are written before the commit
+        assertFalse(Files.exists(file));
+        pendingFile.commit();
+        assertWritten(new NotamData(version, DATE, notamData.notams(), null, "geometry.json"), file);
+    }
+
+    @Test
+    void abortKeepsExistingFiles(@TempDir Path directory) throws IOException {
+        final Path file = directory.resolve("data.json");
+        writer.write(file, List.of("old"));
+
+        writer.writePending(file, DetailedNotamParser.NOTAM_DATA_VERSION, DATE, null,
+                stream -> new DetailedNotamParser().parseNotams(notams, null, null, stream::write)).abort();
+        // no notams: no file
+        assertNull(writer.writePending(file, DetailedNotamParser.NOTAM_DATA_VERSION, DATE, null, stream -> {}));
+
+        assertEquals("[\"old\"]", Files.readString(file));
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of("data.json", "data.json.br", "data.json.gz"), files.map(f -> f.getFileName().toString()).sorted().toList());
+        }
+    }
+
+    private void assertWritten(NotamData expected, Path file) throws IOException {
+        final byte[] expectedBytes = objectMapper.writeValueAsBytes(expected);
+        assertArrayEquals(expectedBytes, Files.readAllBytes(file));
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(file.resolveSibling(file.getFileName() + ".gz")))) {
+            assertArrayEquals(expectedBytes, inputStream.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.bitfexl.notamextractor.output;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bitfexl.notamextractor.Corpus;
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.DetailedNotamParser;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The NotamDataSerializer output is byte-compatible with the databind serialization (Include.NON_NULL).
+ */
+class NotamDataSerializerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().setSerializationInclusion(Include.NON_NULL);
+
+    private final NotamDataSerializer serializer = new NotamDataSerializer(objectMapper.getFactory());
+
+    @Test
+    void writesCorpusLikeDatabind() throws IOException {
+        final NotamData notamData = new DetailedNotamParser().parseNotams(Corpus.loadParsedNotams());
+        assertSerializedLikeDatabind(notamData);
+    }
+
+    /**
+     * Fields the corpus does not cover: previous ids, all kinds of references and periods, escaped and non-ASCII text.
+     */
+    @Test
+    void writesSyntheticNotamsLikeDatabind() throws IOException {
+        final NotamData corpus = new DetailedNotamParser().parseNotams(Corpus.loadParsedNotams());
+        final List<DetailedNotam> notams = new ArrayList<>(corpus.notams());
+        final DetailedNotam first = notams.get(0);
+        notams.set(0, new DetailedNotam(first.notam(), first.id(), 12345678901L,
+                List.of(
+                        new TextNode("a\u00e4\u0001\"\\</ \uD83D\uDE00\t\n", Reference.abbreviation("ABC")),
+                        new TextNode("www.example.com", Reference.webLink("https://www.example.com")),
+                        new TextNode("A1234/24", Reference.notamId(-5L)),
+                        new TextNode("510600N 0020000W", Reference.coordinatesList("hash")),
+                        new TextNode("", null)
+                ),
+                List.of(new Period(new Date(1700000000123L), null, 5, null), new Period(null, new Date(0), null, -30)),
+                List.of(1L, Long.MAX_VALUE)
+        ));
+        notams.add(new DetailedNotam(Notam.builder().raw("!FDC 1/234 ZNY").build(), null, null, List.of(), null, null));
+        notams.add(new DetailedNotam(null, 1L, null, null, List.of(), List.of()));
+        notams.add(null);
+
+        assertSerializedLikeDatabind(new NotamData(corpus.version(), corpus.date(), notams, corpus.coordinatesLists(), null));
+        assertSerializedLikeDatabind(new NotamData(corpus.version(), null, notams, null, "geometry.json"));
+        assertSerializedLikeDatabind(new NotamData(null, null, null, List.of(), null));
+    }
+
+    @Test
+    void writesGeometryLikeDatabind() throws IOException {
+        final NotamData notamData = new DetailedNotamParser().parseNotams(Corpus.loadParsedNotams());
+        final GeometryData geometryData = DetailedNotamParser.toGeometryData(notamData.coordinatesLists(), false);
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        serializer.write(geometryData, output);
+        assertEquals(new String(objectMapper.writeValueAsBytes(geometryData), StandardCharsets.UTF_8), output.toString(StandardCharsets.UTF_8));
+    }
+
+    private void assertSerializedLikeDatabind(NotamData notamData) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        serializer.write(notamData, output);
+        assertEquals(new String(objectMapper.writeValueAsBytes(notamData), StandardCharsets.UTF_8), output.toString(StandardCharsets.UTF_8));
+        assertArrayEquals(objectMapper.writeValueAsBytes(notamData), output.toByteArray());
+    }
+}
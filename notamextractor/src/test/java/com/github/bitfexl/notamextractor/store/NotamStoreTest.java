@@ -0,0 +1,56 @@
+package com.github.bitfexl.notamextractor.store;
+
+import com.github.bitfexl.notamextractor.Corpus;
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.DetailedNotamParser;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.GeometryRegistry;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.NotamData;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.PackedCoordinates;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotamStoreTest {
+    @Test
+    void reusesStoredDetails(@TempDir Path directory) throws IOException {
+        for (boolean packed : new boolean[]{false, true}) {
+            final Path file = directory.resolve("store" + packed + ".json");
+            final List<Notam> notams = Corpus.loadParsedNotams();
+
+            final NotamStore store = NotamStore.load(file, packed);
+            final NotamData expected = new DetailedNotamParser(false, new GeometryRegistry(packed)).parseNotams(notams, store);
+            store.save();
+
+            final NotamStore loaded = NotamStore.load(file, packed);
+            for (Notam notam : notams) {
+                assertEquals(notam.getRaw(), loaded.getNotam(notam.getRaw()).getRaw());
+            }
+            final NotamData reused = new DetailedNotamParser(false, new GeometryRegistry(packed)).parseNotams(notams, loaded);
+            assertEquals(expected, new NotamData(reused.version(), expected.date(), reused.notams(), reused.coordinatesLists(), null));
+            if (packed) {
+                reused.coordinatesLists().forEach(c -> assertInstanceOf(PackedCoordinates.class, c.coordinates()));
+            }
+        }
+    }
+
+    /**
+     * Coordinates and hashes differ between exact and packed coordinates.
+     */
+    @Test
+    void discardsStoreWithOtherCoordinates(@TempDir Path directory) throws IOException {
+        final Path file = directory.resolve("store.json");
+        final List<Notam> notams = Corpus.loadParsedNotams();
+
+        final NotamStore store = NotamStore.load(file, false);
+        new DetailedNotamParser(false, new GeometryRegistry()).parseNotams(notams, store);
+        store.save();
+
+        assertNotNull(NotamStore.load(file, false).getNotam(notams.get(0).getRaw()));
+        assertNull(NotamStore.load(file, true).getNotam(notams.get(0).getRaw()));
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.bitfexl.notamextractor.time;
+
+import com.github.bitfexl.notamextractor.Corpus;
+import com.github.bitfexl.notamextractor.notamparser.Notam;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.DetailedNotamParser;
+import com.github.bitfexl.notamextractor.notamparser.detailsparser.data.DetailedNotam;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The NotamTimeIndex finds the same notams as a linear scan.
+ */
+class NotamTimeIndexTest {
+    @Test
+    void findsRandomNotamsLikeLinearScan() {
+        final Random random = new Random(1);
+        for (int round = 0; round < 200; round++) {
+            final List<DetailedNotam> notams = new ArrayList<>();
+            final int count = random.nextInt(300);
+            for (int i = 0; i < count; i++) {
+                final long from = random.nextInt(1000);
+                final Notam.NotamBuilder notam = Notam.builder().raw("N" + i).from(random.nextInt(20) == 0 ? null : from);
+                switch (random.nextInt(4)) {
+                    case 0 -> notam.isPermanent(true);
+                    case 1 -> notam.to(from + random.nextInt(200)).isEstimation(true);
+                    default -> notam.to(from + random.nextInt(200));
+                }
+                notams.add(new DetailedNotam(notam.build(), (long) i, null, null, null, null));
+            }
+
+            for (NotamTimeIndex.EstimatedEnd estimatedEnd : NotamTimeIndex.EstimatedEnd.values()) {
+                final NotamTimeIndex index = new NotamTimeIndex(notams, estimatedEnd);
+                for (int i = 0; i < 100; i++) {
+                    final long start = random.nextInt(1300) - 100;
+                    final long end = start + random.nextInt(100);
+                    assertFoundLikeLinearScan(notams, index, estimatedEnd, start, end);
+                }
+            }
+        }
+    }
+
+    @Test
+    void findsCorpusNotamsLikeLinearScan() {
+        final List<DetailedNotam> notams = new DetailedNotamParser().parseNotams(Corpus.loadParsedNotams()).notams();
+        final long min = notams.stream().map(DetailedNotam::notam).filter(notam -> notam.getFrom() != null).mapToLong(Notam::getFrom).min().orElseThrow();
+        final Random random = new Random(2);
+
+        for (NotamTimeIndex.EstimatedEnd estimatedEnd : NotamTimeIndex.EstimatedEnd.values()) {
+            final NotamTimeIndex index = new NotamTimeIndex(notams, estimatedEnd);
+            assertTrue(index.size() > 0);
+            for (int i = 0; i < 1000; i++) {
+                // within about two years after the first notam, windows of up to a week
+                final long start = min + random.nextInt(2 * 365 * 86400);
+                assertFoundLikeLinearScan(notams, index, estimatedEnd, start, start + random.nextInt(7 * 86400));
+            }
+        }
+    }
+
+    private static void assertFoundLikeLinearScan(List<DetailedNotam> notams, NotamTimeIndex index, NotamTimeIndex.EstimatedEnd estimatedEnd, long start, long end) {
+        final List<DetailedNotam> expected = new ArrayList<>();
+        for (DetailedNotam notam : notams) {
+            final Long from = notam.notam().getFrom();
+            if (from != null && from < end && NotamTimeIndex.end(notam.notam(), estimatedEnd) > start && start < end) {
+                expected.add(notam);
+            }
+        }
+        final List<DetailedNotam> found = index.activeBetween(start, end);
+
+        for (int i = 1; i < found.size(); i++) {
+            assertTrue(found.get(i - 1).notam().getFrom() <= found.get(i).notam().getFrom(), "Not sorted by start.");
+        }
+        // equal starts are in any order
+        assertEquals(expected.size(), found.size());
+        assertTrue(found.containsAll(expected));
+        if (end - start == 1) {
+            assertEquals(found, index.activeAt(start));
+        }
+    }
+}
@@ -1,11 +1,75 @@
-import type { NotamData } from "./notamextractor";
+import type { CoordinatesList, GeometryData, NotamData } from "./notamextractor";
 
 const NOTAM_DATA_BASE = "/notamdata/";
 
+/**
+ * Fixed-point units per degree of delta encoded coordinates.
+ */
+const DELTA_COORDINATES_SCALE = 1_000_000;
+
+const geometryCache = new Map<string, Promise<Map<string, CoordinatesList>>>();
+
 export async function fetchCountries(): Promise<string[]> {
     return await (await fetch(NOTAM_DATA_BASE + "countries.json")).json();
 }
 
 export async function fetchNotamData(country: string): Promise<NotamData> {
-    return await (await fetch(NOTAM_DATA_BASE + country.replaceAll(" ", "_") + ".json")).json();
+    const notamData: NotamData = await (await fetch(NOTAM_DATA_BASE + country.replaceAll(" ", "_") + ".json")).json();
+    notamData.coordinatesLists?.forEach(decodeDeltaCoordinates);
+
+    if (notamData.geometryFile && !notamData.coordinatesLists) {
+        const geometry = await fetchGeometry(notamData.geometryFile);
+        const hashes = new Set<string>();
+        for (const notam of notamData.notams) {
+            for (const textNode of notam.textNodes ?? []) {
+                if (textNode.reference?.coordinatesList) {
+                    hashes.add(textNode.reference.coordinatesList);
+                }
+            }
+        }
+        notamData.coordinatesLists = [...hashes].map((hash) => geometry.get(hash)).filter((list): list is CoordinatesList => list != undefined);
+    }
+
+    return notamData;
+}
+
+/**
+ * Fetch a shared geometry file, every file is only fetched once.
+ * @param geometryFile The geometry file.
+ * @returns The coordinates lists by hash.
+ */
+function fetchGeometry(geometryFile: string): Promise<Map<string, CoordinatesList>> {
+    let geometry = geometryCache.get(geometryFile);
+    if (!geometry) {
+        geometry = fetch(NOTAM_DATA_BASE + geometryFile)
+            .then((response) => response.json())
+            .then((data: GeometryData) => new Map(data.coordinatesLists.map((list) => [list.hash, decodeDeltaCoordinates(list)])));
+        geometry.catch(() => geometryCache.delete(geometryFile));
+        geometryCache.set(geometryFile, geometry);
+    }
+    return geometry;
+}
+
+/**
+ * Decode the delta encoded coordinates of a coordinates list (version 1.2) in place.
+ * @param coordinatesList The coordinates list.
+ * @returns The same coordinates list with coordinates set.
+ */
+function decodeDeltaCoordinates(coordinatesList: CoordinatesList): CoordinatesList {
+    const deltas = coordinatesList.deltaCoordinates;
+    if (deltas && !coordinatesList.coordinates) {
+        coordinatesList.coordinates = [];
+        let latitude = 0;
+        let longitude = 0;
+        for (let i = 0; i + 1 < deltas.length; i += 2) {
+            latitude += deltas[i];
+            longitude += deltas[i + 1];
+            coordinatesList.coordinates.push({
+                latitude: latitude / DELTA_COORDINATES_SCALE,
+                longitude: longitude / DELTA_COORDINATES_SCALE,
+            });
+        }
+        delete coordinatesList.deltaCoordinates;
+    }
+    return coordinatesList;
 }
@@ -1,15 +1,36 @@
 // See the notamextractor subfolder
 
 export interface NotamData {
-    version: "1.0" | string;
+    version: "1.0" | "1.1" | "1.2" | string;
     notams: DetailedNotam[];
+    /**
+     * Not set in version 1.1, the coordinates lists are in the geometry file.
+     */
     coordinatesLists: CoordinatesList[];
     date: string;
+    /**
+     * Shared geometry file (version 1.1), relative to the notam data directory.
+     */
+    geometryFile?: string;
+}
+
+export interface GeometryData {
+    version: "1.1" | "1.2" | string;
+    date: string;
+    coordinatesLists: CoordinatesList[];
 }
 
 export interface CoordinatesList {
     hash: string;
+    /**
+     * Not set in version 1.2, decoded from deltaCoordinates by fetchNotamData.
+     */
     coordinates: Coordinates[];
+    /**
+     * Version 1.2: latitude, longitude, latitude, ... in 1e-6 degrees,
+     * the first pair absolute, all following the difference to the previous pair.
+     */
+    deltaCoordinates?: number[];
 }
 
 export interface Coordinates {
@@ -19,13 +40,25 @@ export interface Coordinates {
 
 export interface DetailedNotam {
     notam: Notam;
+    /** NotamId, larger than Number.MAX_SAFE_INTEGER: JSON.parse rounds it, so it is not a unique key */
     id: number;
     previousNotamId?: number;
     textNodes?: TextNode[];
     activePeriods?: Period[];
+    /** ids of the notams replaced or cancelled by this notam and dropped from the data, previous notam first */
+    supersededNotamIds?: number[];
 }
 
-export interface Period {}
+export interface Period {
+    /** epoch milliseconds */
+    start: number;
+    /** epoch milliseconds, missing if permanent */
+    end?: number;
+    /** start is relative to sunrise (minutes), computed at the item Q coordinates */
+    sunriseOffset?: number;
+    /** end is relative to sunset (minutes), computed at the item Q coordinates */
+    sunsetOffset?: number;
+}
 
 export interface TextNode {
     text: string;
@@ -33,6 +66,9 @@ export interface TextNode {
 }
 
 export interface Reference {
+    /**
+     * An ICAO abbreviation code, only abbreviations of the extractor dictionary (a partial Doc 8400 list) are referenced.
+     */
     abbreviation?: string;
     coordinatesList?: string;
     webLink?: string;
@@ -57,7 +93,12 @@ export interface Notam {
     longitude?: number;
     radius?: number;
     locationIndicators?: string[];
+    /**
+     * ISO 8601 ("2024-01-31T12:00:00Z"), missing if item B is not a valid date-time group.
+     * Since the extractor stores epoch seconds, "2400" is written as the next day at "T00:00:00Z" (was "T24:00:00Z").
+     */
     from?: string;
+    /** like from, missing if permanent or item C is not a valid date-time group */
     to?: string;
     isPermanent?: boolean;
     isEstimation?: boolean;